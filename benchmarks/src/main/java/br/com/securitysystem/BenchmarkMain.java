@@ -0,0 +1,33 @@
+package br.com.securitysystem;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Ponto de entrada do benchmarks.jar. Aceita as mesmas opções do JMH; sem -t, cada benchmark
+// roda com 1, 4 e 16 threads, e sem -prof o profiler de GC mede a taxa de alocação.
+public class BenchmarkMain {
+
+    private static final int[] THREAD_COUNTS = { 1, 4, 16 };
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linha = new CommandLineOptions(args);
+        if (linha.shouldHelp() || linha.shouldList() || linha.shouldListProfilers()
+                || linha.shouldListResultFormats() || linha.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        int[] threads = linha.getThreads().hasValue() ? new int[] { linha.getThreads().get() } : THREAD_COUNTS;
+        for (int total : threads) {
+            ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linha).threads(total);
+            if (linha.getProfilers().isEmpty()) {
+                opcoes.addProfiler(GCProfiler.class);
+            }
+            System.out.println("[BENCH] Rodando com " + total + " thread(s)");
+            new Runner(opcoes.build()).run();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.securitysystem;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// O mesmo servidor atendendo pelo RMI e pelo protocolo binário, ambos pelo loopback. As
+// variantes binárias medem a ida e volta por chamada e o pipeline de PIPELINE pedidos por flush,
+// que é como um gateway com muitos sensores usaria a conexão.
+// O debounce fica desligado para medir o caminho completo de cada mudança.
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddebounce.rate=0")
+@State(Scope.Benchmark)
+public class BinaryProtocolBenchmark {
+
+    private static final String SERVICE_NAME = "SecuritySystemService";
+    private static final int PIPELINE = 64;
+
+    @Param({ "1000", "100000" })
+    int sensores;
+
+    SecuritySystemImpl sistema;
+    Registry registry;
+    SecuritySystem remoto;
+    BinaryProtocolServer binario;
+    String[] ids;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+        BinaryProtocolClient cliente;
+        boolean aberto;
+
+        @Setup(Level.Trial)
+        public void connect(BinaryProtocolBenchmark benchmark) throws IOException {
+            cliente = new BinaryProtocolClient("localhost", benchmark.binario.getPort());
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws IOException {
+            cliente.close();
+        }
+
+        int next(int limite) {
+            return random.nextInt(limite);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, NotBoundException {
+        sistema = SecuritySystemBenchmark.quietSystem();
+        ids = SecuritySystemBenchmark.populate(sistema, sensores);
+
+        int porta;
+        try (ServerSocket livre = new ServerSocket(0)) {
+            porta = livre.getLocalPort();
+        }
+        registry = LocateRegistry.createRegistry(porta);
+        registry.rebind(SERVICE_NAME, sistema);
+        remoto = (SecuritySystem) LocateRegistry.getRegistry("localhost", porta).lookup(SERVICE_NAME);
+
+        binario = new BinaryProtocolServer(sistema, 0, Runtime.getRuntime().availableProcessors());
+        binario.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws RemoteException, NotBoundException {
+        binario.close();
+        registry.unbind(SERVICE_NAME);
+        UnicastRemoteObject.unexportObject(sistema, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+    }
+
+    @Benchmark
+    public String rmiSetSensorStatus(ThreadState estado) throws RemoteException {
+        estado.aberto = !estado.aberto;
+        return remoto.setSensorStatus(ids[estado.next(ids.length)], estado.aberto);
+    }
+
+    @Benchmark
+    public String rmiGetSensorStatus(ThreadState estado) throws RemoteException {
+        return remoto.getSensorStatus(ids[estado.next(ids.length)]);
+    }
+
+    @Benchmark
+    public int binarySetSensorStatus(ThreadState estado) throws IOException {
+        estado.aberto = !estado.aberto;
+        return estado.cliente.setSensorStatus(ids[estado.next(ids.length)], estado.aberto);
+    }
+
+    @Benchmark
+    public int binaryGetSensorStatus(ThreadState estado) throws IOException {
+        return estado.cliente.getSensorStatus(ids[estado.next(ids.length)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public int binarySetSensorStatusPipelined(ThreadState estado) throws IOException {
+        for (int i = 0; i < PIPELINE; i++) {
+            estado.aberto = !estado.aberto;
+            estado.cliente.sendSetSensorStatus(ids[estado.next(ids.length)], estado.aberto);
+        }
+        estado.cliente.flush();
+        int soma = 0;
+        for (int i = 0; i < PIPELINE; i++) {
+            soma += estado.cliente.receiveState();
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.securitysystem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Custo que a instrumentação soma a cada chamada RMI: nanoTime na entrada e record na saída
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    final ServerMetrics metricas = new ServerMetrics();
+
+    @Benchmark
+    public void record() {
+        metricas.record(ServerMetrics.Method.SET_SENSOR_STATUS, System.nanoTime());
+    }
+
+    @Benchmark
+    public void violationFired() {
+        metricas.violationFired();
+    }
+}
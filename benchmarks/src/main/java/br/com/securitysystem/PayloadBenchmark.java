@@ -0,0 +1,105 @@
+package br.com.securitysystem;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Serialização ida e volta (como o RMI faz com o retorno) dos payloads antigos e dos compactos:
+// getAllSensorStatus contra getSensorStatusSnapshot, e getLogEvents contra getLogPage.
+// Os tamanhos em bytes de cada formato são impressos no início do trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadBenchmark {
+
+    private static final int LOG_PAGE = 500;
+
+    @Param({ "1000", "100000" })
+    int sensores;
+
+    Map<String, String> mapa;
+    SensorStatusSnapshot snapshot;
+    List<String> linhasLog;
+    LogPage paginaLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SecuritySystemImpl sistema = SecuritySystemBenchmark.quietSystem();
+        try {
+            SecuritySystemBenchmark.populate(sistema, sensores);
+            mapa = sistema.getAllSensorStatus();
+            snapshot = sistema.getSensorStatusSnapshot();
+            linhasLog = sistema.getLogEvents(LOG_PAGE);
+            paginaLog = sistema.getLogPage(Long.MAX_VALUE, LOG_PAGE);
+        } finally {
+            UnicastRemoteObject.unexportObject(sistema, true);
+        }
+        System.out.println("[BENCH] " + sensores + " sensores: HashMap " + serialize(mapa).length
+                + " bytes, SensorStatusSnapshot " + serialize(snapshot).length + " bytes");
+        System.out.println("[BENCH] " + linhasLog.size() + " eventos: List<String> " + serialize(linhasLog).length
+                + " bytes, LogPage " + serialize(paginaLog).length + " bytes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mapa = null;
+        snapshot = null;
+    }
+
+    @Benchmark
+    public Object sensorMap() throws Exception {
+        return roundTrip(mapa);
+    }
+
+    @Benchmark
+    public Object sensorSnapshot() throws Exception {
+        return roundTrip(snapshot);
+    }
+
+    @Benchmark
+    public Object logStrings() throws Exception {
+        return roundTrip(linhasLog);
+    }
+
+    @Benchmark
+    public Object logPage() throws Exception {
+        return roundTrip(paginaLog);
+    }
+
+    private static Object roundTrip(Object valor) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(serialize(valor)))) {
+            return entrada.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object valor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+            saida.writeObject(valor);
+        }
+        return bytes.toByteArray();
+    }
+}
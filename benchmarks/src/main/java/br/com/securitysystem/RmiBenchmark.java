@@ -0,0 +1,111 @@
+package br.com.securitysystem;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Ida e volta RMI real pelo loopback: registry próprio em uma porta livre e o stub obtido
+// por lookup, como faz o cliente JavaFX.
+// O debounce fica desligado para medir o caminho completo de cada mudança.
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddebounce.rate=0")
+@State(Scope.Benchmark)
+public class RmiBenchmark {
+
+    private static final String SERVICE_NAME = "SecuritySystemService";
+
+    @Param({ "3", "1000", "100000" })
+    int sensores;
+
+    SecuritySystemImpl sistema;
+    Registry registry;
+    SecuritySystem remoto;
+    String[] ids;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+        boolean aberto;
+
+        int next(int limite) {
+            return random.nextInt(limite);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, NotBoundException {
+        sistema = SecuritySystemBenchmark.quietSystem();
+        ids = SecuritySystemBenchmark.populate(sistema, sensores);
+
+        int porta;
+        try (ServerSocket livre = new ServerSocket(0)) {
+            porta = livre.getLocalPort();
+        }
+        registry = LocateRegistry.createRegistry(porta);
+        registry.rebind(SERVICE_NAME, sistema);
+        remoto = (SecuritySystem) LocateRegistry.getRegistry("localhost", porta).lookup(SERVICE_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws RemoteException, NotBoundException {
+        registry.unbind(SERVICE_NAME);
+        UnicastRemoteObject.unexportObject(sistema, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+    }
+
+    @Benchmark
+    public String setSensorStatus(ThreadState estado) throws RemoteException {
+        estado.aberto = !estado.aberto;
+        return remoto.setSensorStatus(ids[estado.next(ids.length)], estado.aberto);
+    }
+
+    @Benchmark
+    public String getSensorStatus(ThreadState estado) throws RemoteException {
+        return remoto.getSensorStatus(ids[estado.next(ids.length)]);
+    }
+
+    @Benchmark
+    public Map<String, String> getAllSensorStatus() throws RemoteException {
+        return remoto.getAllSensorStatus();
+    }
+
+    @Benchmark
+    public DashboardSnapshot getDashboardSnapshot() throws RemoteException {
+        return remoto.getDashboardSnapshot();
+    }
+
+    @Benchmark
+    public List<String> getLogEvents() throws RemoteException {
+        return remoto.getLogEvents(50);
+    }
+
+    @Benchmark
+    public void registerEvent() throws RemoteException {
+        remoto.registerEvent("Evento de benchmark");
+    }
+}
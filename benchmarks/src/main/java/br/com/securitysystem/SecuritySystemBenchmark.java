@@ -0,0 +1,120 @@
+package br.com.securitysystem;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Chamadas diretas ao SecuritySystemImpl, sem RMI: mede o custo do próprio servidor.
+// SampleTime dá os percentis de latência; o BenchmarkMain liga o profiler de GC.
+// O debounce fica desligado para medir o caminho completo de cada mudança.
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddebounce.rate=0")
+@State(Scope.Benchmark)
+public class SecuritySystemBenchmark {
+
+    @Param({ "3", "1000", "100000" })
+    int sensores;
+
+    SecuritySystemImpl sistema;
+    String[] ids;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+        boolean aberto;
+
+        int next(int limite) {
+            return random.nextInt(limite);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws RemoteException {
+        sistema = quietSystem();
+        ids = populate(sistema, sensores);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws RemoteException {
+        UnicastRemoteObject.unexportObject(sistema, true);
+    }
+
+    @Benchmark
+    public String setSensorStatus(ThreadState estado) throws RemoteException {
+        // Com o alarme desarmado o sensor só alterna entre ABERTO e FECHADO
+        estado.aberto = !estado.aberto;
+        return sistema.setSensorStatus(ids[estado.next(ids.length)], estado.aberto);
+    }
+
+    @Benchmark
+    public String getSensorStatus(ThreadState estado) throws RemoteException {
+        return sistema.getSensorStatus(ids[estado.next(ids.length)]);
+    }
+
+    @Benchmark
+    public Map<String, String> getAllSensorStatus() throws RemoteException {
+        return sistema.getAllSensorStatus();
+    }
+
+    @Benchmark
+    public DashboardSnapshot getDashboardSnapshot() throws RemoteException {
+        return sistema.getDashboardSnapshot();
+    }
+
+    @Benchmark
+    public List<String> getLogEvents() throws RemoteException {
+        return sistema.getLogEvents(50);
+    }
+
+    @Benchmark
+    public void registerEvent() throws RemoteException {
+        sistema.registerEvent("Evento de benchmark");
+    }
+
+    // O logger de console guarda o System.out da criação; trocá-lo antes evita que milhares de
+    // linhas por segundo poluam a saída do JMH
+    static SecuritySystemImpl quietSystem() throws RemoteException {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return new SecuritySystemImpl();
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    // Substitui as três portas iniciais por "total" sensores
+    static String[] populate(SecuritySystemImpl sistema, int total) throws RemoteException {
+        for (String sensorId : sistema.getAllSensorStatus().keySet()) {
+            sistema.removeSensor(sensorId);
+        }
+        String[] ids = new String[total];
+        for (int i = 0; i < total; i++) {
+            ids[i] = "sensor_" + i;
+            sistema.addSensor(ids[i]);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.securitysystem;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Custo de aplicar um estado completo do servidor à tabela do dashboard, sem toolkit gráfico.
+// Os dois estados alternados diferem em 1% dos status, um sensor novo e um removido.
+// rebuild reproduz a atualização antiga (linhas novas, clear e addAll); sync usa o SensorTableModel.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class SensorTableBenchmark {
+
+    @Param({ "1000", "50000" })
+    int sensores;
+
+    Map<String, String> estadoA;
+    Map<String, String> estadoB;
+    boolean alterna;
+
+    SensorTableModel tabela;
+    ObservableList<SensorData> linhas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        estadoA = new HashMap<>();
+        for (int i = 0; i < sensores; i++) {
+            estadoA.put("sensor_" + i, "FECHADO");
+        }
+        estadoB = new HashMap<>(estadoA);
+        for (int i = 0; i < sensores; i += 100) {
+            estadoB.put("sensor_" + i, "ABERTO");
+        }
+        estadoB.remove("sensor_1");
+        estadoB.put("sensor_novo", "FECHADO");
+
+        tabela = new SensorTableModel();
+        tabela.sync(estadoA);
+        linhas = FXCollections.observableArrayList();
+    }
+
+    private Map<String, String> next() {
+        alterna = !alterna;
+        return alterna ? estadoB : estadoA;
+    }
+
+    @Benchmark
+    public ObservableList<SensorData> rebuild() {
+        ObservableList<SensorData> novas = FXCollections.observableArrayList();
+        for (Map.Entry<String, String> entry : next().entrySet()) {
+            novas.add(new SensorData(entry.getKey(), entry.getValue()));
+        }
+        linhas.clear();
+        linhas.addAll(novas);
+        return linhas;
+    }
+
+    @Benchmark
+    public SensorTableModel sync() {
+        tabela.sync(next());
+        return tabela;
+    }
+}
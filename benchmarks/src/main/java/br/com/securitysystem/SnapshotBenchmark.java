@@ -0,0 +1,79 @@
+package br.com.securitysystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Tempo para gravar e para carregar um snapshot completo, com o log de eventos cheio
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    private static final int MAX_LOG_EVENTS = 10_000;
+
+    @Param({ "1000", "100000" })
+    int sensores;
+
+    Path diretorio;
+    SnapshotStore store;
+    SensorRegistry registro;
+    ZoneRegistry zonas = new ZoneRegistry();
+    List<LogEvent> eventos;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        diretorio = Files.createTempDirectory("snapshot-bench");
+        store = new SnapshotStore(diretorio);
+        registro = new SensorRegistry();
+        for (int i = 0; i < sensores; i++) {
+            registro.register("sensor_" + i, SensorState.values()[i % SensorState.values().length]);
+        }
+        EventLog log = new EventLog(MAX_LOG_EVENTS);
+        for (int i = 0; i < MAX_LOG_EVENTS; i++) {
+            log.append(EventType.SENSOR, "sensor_" + i, "Sensor sensor_" + i + " ABERTO.");
+        }
+        eventos = log.latest(MAX_LOG_EVENTS);
+        store.write(null, AlarmState.INITIAL, registro, eventos, zonas);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            arquivos.sorted(Comparator.reverseOrder()).forEach(arquivo -> arquivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        return store.write(null, AlarmState.INITIAL, registro, eventos, zonas);
+    }
+
+    @Benchmark
+    public Object load() throws IOException {
+        return store.loadLatest();
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.securitysystem;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Situação de uma zona pelos contadores mantidos no servidor (getZoneStatus) contra a contagem
+// que o cliente faria percorrendo getAllSensorStatus, com 1110 zonas em três níveis
+// (10 prédios x 10 andares x 10 alas). setSensorStatus mede o custo de manter os contadores.
+// O debounce fica desligado para medir o caminho completo de cada mudança.
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Ddebounce.rate=0")
+@State(Scope.Benchmark)
+public class ZoneBenchmark {
+
+    private static final int RAMOS = 10;
+
+    @Param({ "1000", "100000" })
+    int sensores;
+
+    SecuritySystemImpl sistema;
+    String[] ids;
+    String[] alas;
+    // Ala de cada sensor, como o cliente precisaria manter para contar por conta própria
+    Map<String, String> alaDoSensor;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+        boolean aberto;
+
+        int next(int limite) {
+            return random.nextInt(limite);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws RemoteException {
+        sistema = SecuritySystemBenchmark.quietSystem();
+        ids = SecuritySystemBenchmark.populate(sistema, sensores);
+        alas = new String[RAMOS * RAMOS * RAMOS];
+        for (int p = 0; p < RAMOS; p++) {
+            sistema.addZone("predio_" + p, null);
+            for (int a = 0; a < RAMOS; a++) {
+                String andar = "predio_" + p + "/andar_" + a;
+                sistema.addZone(andar, "predio_" + p);
+                for (int w = 0; w < RAMOS; w++) {
+                    String ala = andar + "/ala_" + w;
+                    sistema.addZone(ala, andar);
+                    alas[(p * RAMOS + a) * RAMOS + w] = ala;
+                }
+            }
+        }
+        alaDoSensor = new HashMap<>(sensores * 2);
+        for (int i = 0; i < ids.length; i++) {
+            String ala = alas[i % alas.length];
+            sistema.setSensorZone(ids[i], ala);
+            alaDoSensor.put(ids[i], ala);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws RemoteException {
+        UnicastRemoteObject.unexportObject(sistema, true);
+    }
+
+    @Benchmark
+    public ZoneStatus getZoneStatus(ThreadState estado) throws RemoteException {
+        return sistema.getZoneStatus(alas[estado.next(alas.length)]);
+    }
+
+    @Benchmark
+    public ZoneStatus getZoneStatusTopLevel(ThreadState estado) throws RemoteException {
+        return sistema.getZoneStatus("predio_" + estado.next(RAMOS));
+    }
+
+    // O que o cliente faz sem zonas no servidor: busca tudo e conta os sensores da ala
+    @Benchmark
+    public int scanZone(ThreadState estado) throws RemoteException {
+        String ala = alas[estado.next(alas.length)];
+        int abertos = 0;
+        for (Map.Entry<String, String> sensor : sistema.getAllSensorStatus().entrySet()) {
+            if (ala.equals(alaDoSensor.get(sensor.getKey())) && !sensor.getValue().equals("FECHADO")) {
+                abertos++;
+            }
+        }
+        return abertos;
+    }
+
+    @Benchmark
+    public String setSensorStatus(ThreadState estado) throws RemoteException {
+        // Com o alarme desarmado o sensor só alterna entre ABERTO e FECHADO
+        estado.aberto = !estado.aberto;
+        return sistema.setSensorStatus(ids[estado.next(ids.length)], estado.aberto);
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.securitysystem;
+
+// Estado imutável do alarme geral; as transições são feitas por CAS em SecuritySystemImpl.
+// O alarme fica trancado enquanto houver algum sensor em ALERTA_TRANCADO.
+final class AlarmState {
+
+    static final AlarmState INITIAL = new AlarmState(false, 0);
+
+    private final boolean armed;
+    private final int violations;
+
+    AlarmState(boolean armed, int violations) {
+        this.armed = armed;
+        this.violations = violations;
+    }
+
+    boolean isArmed() {
+        return armed;
+    }
+
+    int getViolations() {
+        return violations;
+    }
+
+    boolean isLocked() {
+        return violations > 0;
+    }
+
+    boolean isActive() {
+        return armed || isLocked();
+    }
+
+    AlarmState withArmed(boolean newArmed) {
+        return new AlarmState(newArmed, violations);
+    }
+
+    AlarmState withViolation() {
+        return new AlarmState(armed, violations + 1);
+    }
+
+    AlarmState withoutViolation() {
+        return new AlarmState(armed, Math.max(0, violations - 1));
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.securitysystem;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tira a escrita no console do caminho das chamadas RMI: quem loga só enfileira o LogEvent,
+// e uma thread de fundo formata e escreve em lotes. O histórico oficial continua no EventLog,
+// então descartar linhas aqui só afeta a saída do console.
+class AsyncEventLogger {
+
+    enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final BlockingQueue<LogEvent> fila;
+    private final OverflowPolicy politica;
+    private final PrintStream saida;
+    private final AtomicLong descartados = new AtomicLong();
+    private final Thread escritor;
+
+    AsyncEventLogger(int capacity, OverflowPolicy politica, PrintStream saida) {
+        this.fila = new ArrayBlockingQueue<>(capacity);
+        this.politica = politica;
+        this.saida = saida;
+        this.escritor = new Thread(this::write, "event-log-writer");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    // -Dlog.queue.capacity=8192 -Dlog.overflow=DROP|BLOCK
+    static AsyncEventLogger fromSystemProperties() {
+        int capacidade = Integer.getInteger("log.queue.capacity", DEFAULT_CAPACITY);
+        OverflowPolicy politica = OverflowPolicy.valueOf(System.getProperty("log.overflow", "DROP").toUpperCase());
+        return new AsyncEventLogger(capacidade, politica, System.out);
+    }
+
+    void submit(LogEvent evento) {
+        if (politica == OverflowPolicy.DROP) {
+            if (!fila.offer(evento)) {
+                descartados.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            fila.put(evento);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            descartados.incrementAndGet();
+        }
+    }
+
+    void submitAll(List<LogEvent> eventos) {
+        for (LogEvent evento : eventos) {
+            submit(evento);
+        }
+    }
+
+    int getQueueDepth() {
+        return fila.size();
+    }
+
+    long getDroppedCount() {
+        return descartados.get();
+    }
+
+    private void write() {
+        List<LogEvent> lote = new ArrayList<>(MAX_BATCH_SIZE);
+        StringBuilder texto = new StringBuilder();
+        long descartadosInformados = 0;
+        while (true) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            fila.drainTo(lote, MAX_BATCH_SIZE - 1);
+            for (LogEvent evento : lote) {
+                texto.append("[SERVER LOG] ").append(evento).append(System.lineSeparator());
+            }
+            long totalDescartados = descartados.get();
+            if (totalDescartados > descartadosInformados) {
+                texto.append("[SERVER LOG] ").append(totalDescartados - descartadosInformados)
+                        .append(" linhas de log descartadas (fila cheia).").append(System.lineSeparator());
+                descartadosInformados = totalDescartados;
+            }
+            saida.print(texto);
+            saida.flush();
+            texto.setLength(0);
+            lote.clear();
+        }
+    }
+}
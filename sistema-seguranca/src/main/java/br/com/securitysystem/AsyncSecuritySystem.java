@@ -0,0 +1,169 @@
+package br.com.securitysystem;
+
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Fachada assíncrona do cliente: cada chamada RMI roda num executor próprio e devolve um
+// CompletableFuture, então a thread de UI nunca espera pela rede. No JDK 17 não há virtual
+// threads; um pool de threads daemon sob demanda faz o mesmo papel para as chamadas do painel.
+public class AsyncSecuritySystem {
+
+    private final SecuritySystem remoto;
+    private final ExecutorService executor;
+
+    public AsyncSecuritySystem(SecuritySystem remoto, ExecutorService executor) {
+        this.remoto = remoto;
+        this.executor = executor;
+    }
+
+    public static ExecutorService newExecutor() {
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "rmi-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SecuritySystem getRemote() {
+        return remoto;
+    }
+
+    private interface RemoteCall<T> {
+        T call(SecuritySystem remoto) throws RemoteException;
+    }
+
+    private <T> CompletableFuture<T> call(RemoteCall<T> chamada) {
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                futuro.complete(chamada.call(remoto));
+            } catch (RemoteException | RuntimeException e) {
+                futuro.completeExceptionally(e);
+            }
+        });
+        return futuro;
+    }
+
+    public CompletableFuture<String> setAlarmStatus(boolean status) {
+        return call(remoto -> remoto.setAlarmStatus(status));
+    }
+
+    public CompletableFuture<Boolean> isAlarmActive() {
+        return call(SecuritySystem::isAlarmActive);
+    }
+
+    public CompletableFuture<String> setSensorStatus(String sensorId, boolean isOpen) {
+        return call(remoto -> remoto.setSensorStatus(sensorId, isOpen));
+    }
+
+    public CompletableFuture<Map<String, String>> setSensorStatuses(Map<String, Boolean> updates) {
+        return call(remoto -> remoto.setSensorStatuses(updates));
+    }
+
+    public CompletableFuture<String> getSensorStatus(String sensorId) {
+        return call(remoto -> remoto.getSensorStatus(sensorId));
+    }
+
+    public CompletableFuture<Boolean> heartbeat(String sensorId) {
+        return call(remoto -> remoto.heartbeat(sensorId));
+    }
+
+    public CompletableFuture<Integer> heartbeats(List<String> sensorIds) {
+        return call(remoto -> remoto.heartbeats(sensorIds));
+    }
+
+    public CompletableFuture<Map<String, String>> getAllSensorStatus() {
+        return call(SecuritySystem::getAllSensorStatus);
+    }
+
+    public CompletableFuture<SensorStatusSnapshot> getSensorStatusSnapshot() {
+        return call(SecuritySystem::getSensorStatusSnapshot);
+    }
+
+    public CompletableFuture<SensorChanges> getChangesSince(long version) {
+        return call(remoto -> remoto.getChangesSince(version));
+    }
+
+    public CompletableFuture<DashboardSnapshot> getDashboardSnapshot() {
+        return call(SecuritySystem::getDashboardSnapshot);
+    }
+
+    public CompletableFuture<Void> registerEvent(String event) {
+        return call(remoto -> {
+            remoto.registerEvent(event);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<String>> getLogEvents(int limit) {
+        return call(remoto -> remoto.getLogEvents(limit));
+    }
+
+    public CompletableFuture<List<LogEvent>> getLogEventsBefore(long sequence, int limit) {
+        return call(remoto -> remoto.getLogEventsBefore(sequence, limit));
+    }
+
+    public CompletableFuture<LogPage> getLogPage(long sequence, int limit) {
+        return call(remoto -> remoto.getLogPage(sequence, limit));
+    }
+
+    public CompletableFuture<LogPage> searchLogEvents(EventQuery query, long sequence, int limit) {
+        return call(remoto -> remoto.searchLogEvents(query, sequence, limit));
+    }
+
+    public CompletableFuture<Long> getLogEventCount() {
+        return call(SecuritySystem::getLogEventCount);
+    }
+
+    public CompletableFuture<String> resetSensorAlarm(String sensorId) {
+        return call(remoto -> remoto.resetSensorAlarm(sensorId));
+    }
+
+    public CompletableFuture<String> addSensor(String sensorId) {
+        return call(remoto -> remoto.addSensor(sensorId));
+    }
+
+    public CompletableFuture<String> removeSensor(String sensorId) {
+        return call(remoto -> remoto.removeSensor(sensorId));
+    }
+
+    public CompletableFuture<String> addZone(String zoneId, String parentZoneId) {
+        return call(remoto -> remoto.addZone(zoneId, parentZoneId));
+    }
+
+    public CompletableFuture<String> removeZone(String zoneId) {
+        return call(remoto -> remoto.removeZone(zoneId));
+    }
+
+    public CompletableFuture<String> setSensorZone(String sensorId, String zoneId) {
+        return call(remoto -> remoto.setSensorZone(sensorId, zoneId));
+    }
+
+    public CompletableFuture<String> setZoneAlarmStatus(String zoneId, boolean status) {
+        return call(remoto -> remoto.setZoneAlarmStatus(zoneId, status));
+    }
+
+    public CompletableFuture<String> resetZoneAlarm(String zoneId) {
+        return call(remoto -> remoto.resetZoneAlarm(zoneId));
+    }
+
+    public CompletableFuture<ZoneStatus> getZoneStatus(String zoneId) {
+        return call(remoto -> remoto.getZoneStatus(zoneId));
+    }
+
+    public CompletableFuture<List<ZoneStatus>> getZoneStatuses() {
+        return call(SecuritySystem::getZoneStatuses);
+    }
+
+    public CompletableFuture<Boolean> registerListener(SecuritySystemListener listener) {
+        return call(remoto -> remoto.registerListener(listener));
+    }
+
+    public CompletableFuture<Boolean> unregisterListener(SecuritySystemListener listener) {
+        return call(remoto -> remoto.unregisterListener(listener));
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.securitysystem;
+
+// Protocolo binário dos gateways de sensores, servido ao lado do RMI. Cada quadro é
+// [int tamanho][int id][byte op ou status][corpo], com o tamanho contando a partir do id.
+// O cliente pode mandar vários pedidos sem esperar as respostas (pipeline): elas voltam na
+// ordem dos pedidos, cada uma com o id do seu. O corpo usa a codificação do WireFormat.
+//
+//   pedido                                  resposta OK
+//   PING         -                          -
+//   SET_SENSOR   [string sensor][byte 0/1]   [byte estado]
+//   GET_SENSOR   [string sensor]             [byte estado]
+//   HEARTBEAT    [string sensor]             -
+//   SET_SENSORS  [varint n]{sensor, 0/1}     [varint n]{byte estado}
+//
+// O estado é o ordinal de SensorState depois do pedido. Sensor inexistente responde
+// STATUS_UNKNOWN_SENSOR (no lote, NO_STATE na posição dele); STATUS_ERROR traz [string mensagem].
+final class BinaryProtocol {
+
+    static final int OP_PING = 0;
+    static final int OP_SET_SENSOR = 1;
+    static final int OP_GET_SENSOR = 2;
+    static final int OP_HEARTBEAT = 3;
+    static final int OP_SET_SENSORS = 4;
+
+    static final int STATUS_OK = 0;
+    static final int STATUS_UNKNOWN_SENSOR = 1;
+    static final int STATUS_ERROR = 2;
+
+    static final int NO_STATE = 0xFF;
+    // id + op/status
+    static final int MIN_FRAME = 5;
+    static final int MAX_FRAME = 1 << 20;
+
+    private static final SensorState[] ESTADOS = SensorState.values();
+
+    private BinaryProtocol() {
+    }
+
+    // Os clientes RMI recebem o nome do estado ou uma mensagem; aqui só o código interessa
+    static int stateCode(String status) {
+        if (status != null) {
+            for (SensorState estado : ESTADOS) {
+                if (estado.name().equals(status)) {
+                    return estado.ordinal();
+                }
+            }
+        }
+        return NO_STATE;
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.securitysystem;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+// Cliente do BinaryProtocol para gateways em Java. Os métodos send* só enfileiram o pedido;
+// flush() manda todos de uma vez e cada receive* lê a próxima resposta, na mesma ordem.
+// Os métodos sem prefixo fazem a ida e volta completa. Não é thread-safe: um por thread.
+class BinaryProtocolClient implements AutoCloseable {
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final Socket socket;
+    private final DataInputStream entrada;
+    private final OutputStream saidaSocket;
+    private final WireFormat.Writer saida = new WireFormat.Writer(BUFFER);
+    private byte[] quadro = new byte[256];
+    private int proximoId;
+    private int proximaResposta;
+
+    BinaryProtocolClient(String host, int porta) throws IOException {
+        this.socket = new Socket(host, porta);
+        socket.setTcpNoDelay(true);
+        this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER));
+        this.saidaSocket = socket.getOutputStream();
+    }
+
+    int setSensorStatus(String sensorId, boolean aberto) throws IOException {
+        sendSetSensorStatus(sensorId, aberto);
+        flush();
+        return receiveState();
+    }
+
+    int getSensorStatus(String sensorId) throws IOException {
+        sendGetSensorStatus(sensorId);
+        flush();
+        return receiveState();
+    }
+
+    boolean heartbeat(String sensorId) throws IOException {
+        sendHeartbeat(sensorId);
+        flush();
+        return receiveAck();
+    }
+
+    // Estado de cada sensor depois do lote, na ordem dos IDs
+    int[] setSensorStatuses(String[] sensorIds, boolean[] abertos) throws IOException {
+        int inicio = begin(BinaryProtocol.OP_SET_SENSORS);
+        saida.writeVarLong(sensorIds.length);
+        for (int i = 0; i < sensorIds.length; i++) {
+            saida.writeString(sensorIds[i]);
+            saida.writeByte(abertos[i] ? 1 : 0);
+        }
+        end(inicio);
+        flush();
+        WireFormat.Reader resposta = receive();
+        int[] estados = new int[(int) resposta.readVarLong()];
+        for (int i = 0; i < estados.length; i++) {
+            estados[i] = resposta.readByte() & 0xFF;
+        }
+        return estados;
+    }
+
+    void sendSetSensorStatus(String sensorId, boolean aberto) {
+        int inicio = begin(BinaryProtocol.OP_SET_SENSOR);
+        saida.writeString(sensorId);
+        saida.writeByte(aberto ? 1 : 0);
+        end(inicio);
+    }
+
+    void sendGetSensorStatus(String sensorId) {
+        int inicio = begin(BinaryProtocol.OP_GET_SENSOR);
+        saida.writeString(sensorId);
+        end(inicio);
+    }
+
+    void sendHeartbeat(String sensorId) {
+        int inicio = begin(BinaryProtocol.OP_HEARTBEAT);
+        saida.writeString(sensorId);
+        end(inicio);
+    }
+
+    void sendPing() {
+        end(begin(BinaryProtocol.OP_PING));
+    }
+
+    void flush() throws IOException {
+        if (saida.size() == 0) {
+            return;
+        }
+        ByteBuffer pedidos = saida.asByteBuffer();
+        saidaSocket.write(pedidos.array(), 0, pedidos.limit());
+        saida.clear();
+    }
+
+    // Resposta de SET_SENSOR/GET_SENSOR: ordinal de SensorState ou NO_STATE
+    int receiveState() throws IOException {
+        WireFormat.Reader resposta = receive();
+        return resposta != null ? resposta.readByte() & 0xFF : BinaryProtocol.NO_STATE;
+    }
+
+    // Resposta de PING/HEARTBEAT: false se o sensor não existe
+    boolean receiveAck() throws IOException {
+        return receive() != null;
+    }
+
+    // Pedidos enviados que ainda não tiveram a resposta lida
+    int pending() {
+        return proximoId - proximaResposta;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private int begin(int op) {
+        int inicio = saida.size();
+        saida.writeInt(0);
+        saida.writeInt(proximoId++);
+        saida.writeByte(op);
+        return inicio;
+    }
+
+    private void end(int inicio) {
+        saida.setInt(inicio, saida.size() - inicio - 4);
+    }
+
+    // Corpo da próxima resposta OK; null para sensor desconhecido
+    private WireFormat.Reader receive() throws IOException {
+        int tamanho = entrada.readInt();
+        if (tamanho < BinaryProtocol.MIN_FRAME || tamanho > BinaryProtocol.MAX_FRAME) {
+            throw new StreamCorruptedException("Quadro inválido: " + tamanho);
+        }
+        if (tamanho > quadro.length) {
+            quadro = new byte[Math.max(tamanho, quadro.length * 2)];
+        }
+        entrada.readFully(quadro, 0, tamanho);
+        WireFormat.Reader resposta = new WireFormat.Reader(quadro, 0, tamanho);
+        int id = resposta.readInt();
+        if (id != proximaResposta++) {
+            throw new StreamCorruptedException("Resposta fora de ordem: " + id);
+        }
+        int status = resposta.readByte();
+        if (status == BinaryProtocol.STATUS_ERROR) {
+            throw new IOException(resposta.readString());
+        }
+        return status == BinaryProtocol.STATUS_OK ? resposta : null;
+    }
+}
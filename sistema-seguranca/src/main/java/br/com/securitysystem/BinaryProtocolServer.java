@@ -0,0 +1,342 @@
+package br.com.securitysystem;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Endpoint do BinaryProtocol para gateways com muitas leituras por segundo. Uma thread aceita as
+// conexões e as distribui entre threads de I/O, cada uma com um Selector e sem bloquear em
+// nenhum socket. Os pedidos que chegam numa leitura são processados ali mesmo e as respostas
+// saem juntas numa escrita só, então um cliente com pipeline paga um syscall por rajada.
+//
+// Os pedidos passam pela mesma interface SecuritySystem do RMI (e pelas mesmas métricas).
+// Enquanto um cliente não consome as respostas, a conexão para de ser lida.
+class BinaryProtocolServer implements AutoCloseable {
+
+    private static final int BUFFER_INICIAL = 64 * 1024;
+    private static final int BACKLOG = 1024;
+
+    private final SecuritySystem sistema;
+    private final ServerSocketChannel servidor;
+    private final Worker[] workers;
+    private final Thread aceitador;
+    private final AtomicInteger conexoes = new AtomicInteger();
+    private volatile boolean fechado;
+
+    BinaryProtocolServer(SecuritySystem sistema, int porta, int threads) throws IOException {
+        this.sistema = sistema;
+        this.servidor = ServerSocketChannel.open();
+        servidor.bind(new InetSocketAddress(porta), BACKLOG);
+        this.workers = new Worker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+        }
+        this.aceitador = new Thread(this::accept, "binary-acceptor");
+        aceitador.setDaemon(true);
+    }
+
+    // -Dbinary.port=1200 -Dbinary.threads=<núcleos>
+    static BinaryProtocolServer fromSystemProperties(SecuritySystem sistema) throws IOException {
+        return new BinaryProtocolServer(sistema, Integer.getInteger("binary.port", 1200),
+                Integer.getInteger("binary.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    void start() {
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+        aceitador.start();
+    }
+
+    int getPort() throws IOException {
+        return ((InetSocketAddress) servidor.getLocalAddress()).getPort();
+    }
+
+    int getConnectionCount() {
+        return conexoes.get();
+    }
+
+    @Override
+    public void close() {
+        fechado = true;
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            // Só interessa interromper o accept
+        }
+        for (Worker worker : workers) {
+            worker.seletor.wakeup();
+        }
+    }
+
+    private void accept() {
+        int proximo = 0;
+        while (!fechado) {
+            try {
+                SocketChannel canal = servidor.accept();
+                canal.configureBlocking(false);
+                canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                workers[proximo].add(canal);
+                proximo = (proximo + 1) % workers.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("[SERVER LOG] Falha ao aceitar conexão binária: " + e.getMessage());
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final Selector seletor;
+        final Thread thread;
+        // Conexões aceitas que ainda não foram registradas no Selector desta thread
+        final Queue<SocketChannel> novas = new ConcurrentLinkedQueue<>();
+
+        Worker(int indice) throws IOException {
+            this.seletor = Selector.open();
+            this.thread = new Thread(this, "binary-io-" + indice);
+            thread.setDaemon(true);
+        }
+
+        void add(SocketChannel canal) {
+            novas.add(canal);
+            seletor.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (!fechado) {
+                try {
+                    seletor.select();
+                    registerPending();
+                    Iterator<SelectionKey> prontas = seletor.selectedKeys().iterator();
+                    while (prontas.hasNext()) {
+                        SelectionKey chave = prontas.next();
+                        prontas.remove();
+                        Connection conexao = (Connection) chave.attachment();
+                        try {
+                            if (chave.isValid() && chave.isWritable()) {
+                                conexao.flush();
+                            }
+                            if (chave.isValid() && chave.isReadable()) {
+                                conexao.read();
+                            }
+                        } catch (IOException | CancelledKeyException e) {
+                            conexao.close();
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("[SERVER LOG] Falha no I/O binário: " + e.getMessage());
+                }
+            }
+            for (SelectionKey chave : seletor.keys()) {
+                ((Connection) chave.attachment()).close();
+            }
+            try {
+                seletor.close();
+            } catch (IOException e) {
+                // Encerrando
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel canal;
+            while ((canal = novas.poll()) != null) {
+                try {
+                    Connection conexao = new Connection(canal);
+                    conexao.chave = canal.register(seletor, SelectionKey.OP_READ, conexao);
+                    conexoes.incrementAndGet();
+                } catch (IOException e) {
+                    closeQuietly(canal);
+                }
+            }
+        }
+    }
+
+    private final class Connection {
+        final SocketChannel canal;
+        SelectionKey chave;
+        // Em modo escrita entre leituras; quadros incompletos ficam no início
+        ByteBuffer entrada = ByteBuffer.allocate(BUFFER_INICIAL);
+        final WireFormat.Writer saida = new WireFormat.Writer(BUFFER_INICIAL);
+        // Respostas que o socket ainda não aceitou; enquanto existir, a conexão não é lida
+        ByteBuffer pendente;
+
+        Connection(SocketChannel canal) {
+            this.canal = canal;
+        }
+
+        void read() throws IOException {
+            if (canal.read(entrada) < 0) {
+                close();
+                return;
+            }
+            entrada.flip();
+            int necessario = 0;
+            while (entrada.remaining() >= 4) {
+                int tamanho = entrada.getInt(entrada.position());
+                if (tamanho < BinaryProtocol.MIN_FRAME || tamanho > BinaryProtocol.MAX_FRAME) {
+                    throw new StreamCorruptedException("Quadro inválido: " + tamanho);
+                }
+                if (entrada.remaining() < 4 + tamanho) {
+                    necessario = 4 + tamanho;
+                    break;
+                }
+                int inicio = entrada.position() + 4;
+                handle(new WireFormat.Reader(entrada.array(), inicio, inicio + tamanho));
+                entrada.position(inicio + tamanho);
+            }
+            entrada.compact();
+            if (necessario > entrada.capacity()) {
+                ByteBuffer maior = ByteBuffer.allocate(necessario);
+                entrada.flip();
+                maior.put(entrada);
+                entrada = maior;
+            }
+            flush();
+        }
+
+        void flush() throws IOException {
+            if (pendente == null) {
+                if (saida.size() == 0) {
+                    return;
+                }
+                pendente = saida.asByteBuffer();
+            }
+            canal.write(pendente);
+            if (pendente.hasRemaining()) {
+                chave.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+            pendente = null;
+            saida.clear();
+            chave.interestOps(SelectionKey.OP_READ);
+        }
+
+        // Lê o pedido inteiro e chama o sistema antes de escrever a resposta, então uma falha
+        // no meio vira só uma resposta de erro
+        private void handle(WireFormat.Reader pedido) throws IOException {
+            int id = pedido.readInt();
+            int op = pedido.readByte();
+            int inicioResposta = saida.size();
+            saida.writeInt(0);
+            saida.writeInt(id);
+            try {
+                switch (op) {
+                    case BinaryProtocol.OP_PING:
+                        saida.writeByte(BinaryProtocol.STATUS_OK);
+                        break;
+                    case BinaryProtocol.OP_SET_SENSOR: {
+                        String sensorId = pedido.readString();
+                        boolean aberto = pedido.readByte() != 0;
+                        // O estado vem da própria escrita: uma leitura depois dela veria mudanças de outros
+                        writeState(BinaryProtocol.stateCode(
+                                sistema.applySensorReadings(Collections.singletonMap(sensorId, aberto)).get(sensorId)));
+                        break;
+                    }
+                    case BinaryProtocol.OP_GET_SENSOR:
+                        writeState(BinaryProtocol.stateCode(sistema.getSensorStatus(pedido.readString())));
+                        break;
+                    case BinaryProtocol.OP_HEARTBEAT:
+                        saida.writeByte(sistema.heartbeat(pedido.readString())
+                                ? BinaryProtocol.STATUS_OK : BinaryProtocol.STATUS_UNKNOWN_SENSOR);
+                        break;
+                    case BinaryProtocol.OP_SET_SENSORS:
+                        setSensors(pedido);
+                        break;
+                    default:
+                        writeError("Operação desconhecida: " + op);
+                }
+            } catch (IOException | RuntimeException e) {
+                writeError(e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+            saida.setInt(inicioResposta, saida.size() - inicioResposta - 4);
+        }
+
+        private void setSensors(WireFormat.Reader pedido) throws IOException {
+            long total = pedido.readVarLong();
+            // Cada item tem ao menos dois bytes: protege contra um total absurdo
+            if (total < 0 || total > BinaryProtocol.MAX_FRAME / 2) {
+                throw new StreamCorruptedException("Lote inválido: " + total);
+            }
+            // Um sensor repetido no lote não pode virar uma entrada só do mapa (abrir e fechar viraria
+            // só fechar): o lote é cortado na primeira repetição e as partes aplicadas em ordem
+            byte[] estados = new byte[(int) total];
+            Map<String, Boolean> parte = new LinkedHashMap<>();
+            int inicioParte = 0;
+            for (int i = 0; i < estados.length; i++) {
+                String sensorId = pedido.readString();
+                boolean aberto = pedido.readByte() != 0;
+                if (parte.containsKey(sensorId)) {
+                    apply(parte, estados, inicioParte);
+                    parte = new LinkedHashMap<>();
+                    inicioParte = i;
+                }
+                parte.put(sensorId, aberto);
+            }
+            apply(parte, estados, inicioParte);
+            saida.writeByte(BinaryProtocol.STATUS_OK);
+            saida.writeVarLong(estados.length);
+            for (byte estado : estados) {
+                saida.writeByte(estado);
+            }
+        }
+
+        // Os estados da parte vão para as posições a partir de inicio, na ordem do pedido
+        private void apply(Map<String, Boolean> parte, byte[] estados, int inicio) throws IOException {
+            if (parte.isEmpty()) {
+                return;
+            }
+            Map<String, String> resultado = sistema.applySensorReadings(parte);
+            int pos = inicio;
+            for (String sensorId : parte.keySet()) {
+                estados[pos++] = (byte) BinaryProtocol.stateCode(resultado.get(sensorId));
+            }
+        }
+
+        private void writeState(int estado) {
+            if (estado == BinaryProtocol.NO_STATE) {
+                saida.writeByte(BinaryProtocol.STATUS_UNKNOWN_SENSOR);
+                return;
+            }
+            saida.writeByte(BinaryProtocol.STATUS_OK);
+            saida.writeByte(estado);
+        }
+
+        private void writeError(String mensagem) {
+            saida.writeByte(BinaryProtocol.STATUS_ERROR);
+            saida.writeString(mensagem);
+        }
+
+        void close() {
+            if (chave != null && chave.isValid()) {
+                chave.cancel();
+                conexoes.decrementAndGet();
+            }
+            closeQuietly(canal);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel canal) {
+        try {
+            canal.close();
+        } catch (IOException e) {
+            // Conexão já perdida
+        }
+    }
+}
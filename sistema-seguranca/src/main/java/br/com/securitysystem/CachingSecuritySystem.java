@@ -0,0 +1,418 @@
+package br.com.securitysystem;
+
+import java.rmi.RemoteException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Proxy do lado do cliente que guarda getSensorStatus, getAllSensorStatus e isAlarmActive. A
+// invalidação segue a versão do estado do servidor: as notificações push já aplicam cada mudança,
+// e uma leitura feita mais de maxStale depois da última confirmação pede ao servidor só o que
+// mudou desde a versão conhecida (getChangesSince) antes de responder. Com isso nenhuma leitura
+// do cache, inclusive de alarme e violações, fica mais de maxStale atrás do servidor.
+//
+// O alarme não vem nos deltas, então qualquer avanço de versão sem notificação o descarta. As
+// escritas passam direto e forçam a confirmação na próxima leitura. Só o cliente usa esta classe:
+// ela não é exportada.
+public class CachingSecuritySystem implements SecuritySystem {
+
+    private static final long DEFAULT_MAX_STALE_MS = 1000;
+    private static final int DEFAULT_MAX_SENSORS = 10_000;
+
+    private final SecuritySystem remoto;
+    private final long maxStaleNanos;
+    // Serializa as confirmações: leitores que chegam juntos esperam a mesma consulta
+    private final Object validacao = new Object();
+
+    // Estado abaixo protegido por this
+    private final LinkedHashMap<String, String> porSensor;
+    // Cópia de todos os sensores, mantida só depois que alguém pediu getAllSensorStatus
+    private Map<String, String> completo;
+    private boolean querCompleto;
+    private Boolean alarme;
+    private long versao = -1;
+    // Muda a cada versão aplicada: resultados buscados antes disso não entram no cache
+    private long geracao;
+    private volatile long confirmadoEm;
+    // Última escrita ou lacuna: confirmações consultadas antes disso não valem
+    private long expiradoEm;
+
+    public CachingSecuritySystem(SecuritySystem remoto, long maxStaleMs, int maxSensores) {
+        this.remoto = remoto;
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxStaleMs));
+        this.porSensor = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> maisAntigo) {
+                return size() > maxSensores;
+            }
+        };
+        expire();
+    }
+
+    // -Dcache.max.stale.ms=1000 -Dcache.max.sensors=10000
+    public static CachingSecuritySystem fromSystemProperties(SecuritySystem remoto) {
+        return new CachingSecuritySystem(remoto, Long.getLong("cache.max.stale.ms", DEFAULT_MAX_STALE_MS),
+                Integer.getInteger("cache.max.sensors", DEFAULT_MAX_SENSORS));
+    }
+
+    // Confirma a versão com o servidor agora; serve também como verificação de conexão
+    public void revalidate() throws RemoteException {
+        synchronized (validacao) {
+            long consultadoEm = System.nanoTime();
+            long base;
+            synchronized (this) {
+                base = versao;
+            }
+            apply(remoto.getChangesSince(base), consultadoEm);
+        }
+    }
+
+    // Mudanças recebidas por notificação; uma lacuna de versões só força a próxima confirmação
+    public synchronized void onStateChanged(List<StateChange> changes) {
+        for (StateChange change : changes) {
+            if (versao < 0 || change.getVersion() <= versao) {
+                continue;
+            }
+            if (change.getVersion() != versao + 1) {
+                expire();
+                return;
+            }
+            switch (change.getType()) {
+                case SENSOR_UPDATED:
+                    updated(change.getSensorId(), change.getStatus());
+                    break;
+                case SENSOR_REMOVED:
+                    removed(change.getSensorId());
+                    break;
+                case ALARM:
+                    alarme = change.isAlarmActive();
+                    break;
+            }
+            versao = change.getVersion();
+            geracao++;
+        }
+    }
+
+    private void revalidateIfStale() throws RemoteException {
+        if (System.nanoTime() - confirmadoEm <= maxStaleNanos) {
+            return;
+        }
+        synchronized (validacao) {
+            if (System.nanoTime() - confirmadoEm <= maxStaleNanos) {
+                return;
+            }
+            revalidate();
+        }
+    }
+
+    private synchronized void apply(SensorChanges mudancas, long consultadoEm) {
+        if (mudancas.getVersion() < versao) {
+            // Notificações chegaram enquanto a consulta estava em voo e o cache já está mais novo que
+            // a resposta: aplicá-la voltaria sensores e versão para trás. Ainda confirma o cache
+            if (consultadoEm - expiradoEm > 0) {
+                confirmadoEm = consultadoEm;
+            }
+            return;
+        }
+        if (mudancas.isFullSnapshot()) {
+            // Sem base de versão, o servidor manda tudo; só vira cópia completa se alguém a quer
+            porSensor.clear();
+            completo = querCompleto ? new HashMap<>(mudancas.getUpdated()) : null;
+        } else {
+            for (Map.Entry<String, String> sensor : mudancas.getUpdated().entrySet()) {
+                updated(sensor.getKey(), sensor.getValue());
+            }
+            for (String sensorId : mudancas.getRemoved()) {
+                removed(sensorId);
+            }
+        }
+        if (mudancas.getVersion() != versao) {
+            versao = mudancas.getVersion();
+            geracao++;
+            alarme = null;
+        }
+        if (consultadoEm - expiradoEm > 0) {
+            confirmadoEm = consultadoEm;
+        }
+    }
+
+    private void updated(String sensorId, String status) {
+        porSensor.computeIfPresent(sensorId, (id, anterior) -> status);
+        if (completo != null) {
+            completo.put(sensorId, status);
+        }
+    }
+
+    private void removed(String sensorId) {
+        porSensor.remove(sensorId);
+        if (completo != null) {
+            completo.remove(sensorId);
+        }
+    }
+
+    // A próxima leitura confirma a versão com o servidor antes de usar o cache
+    private synchronized void expire() {
+        expiradoEm = System.nanoTime();
+        confirmadoEm = expiradoEm - maxStaleNanos - 1;
+    }
+
+    @Override
+    public boolean isAlarmActive() throws RemoteException {
+        revalidateIfStale();
+        long lida;
+        synchronized (this) {
+            if (alarme != null) {
+                return alarme;
+            }
+            lida = geracao;
+        }
+        boolean ativo = remoto.isAlarmActive();
+        synchronized (this) {
+            if (geracao == lida) {
+                alarme = ativo;
+            }
+        }
+        return ativo;
+    }
+
+    @Override
+    public boolean isAlarmArmed() throws RemoteException {
+        return remoto.isAlarmArmed();
+    }
+
+    @Override
+    public String getSensorStatus(String sensorId) throws RemoteException {
+        revalidateIfStale();
+        long lida;
+        synchronized (this) {
+            String status = completo != null ? completo.get(sensorId) : null;
+            if (status == null) {
+                status = porSensor.get(sensorId);
+            }
+            if (status != null) {
+                return status;
+            }
+            lida = geracao;
+        }
+        String status = remoto.getSensorStatus(sensorId);
+        synchronized (this) {
+            if (geracao == lida) {
+                porSensor.put(sensorId, status);
+            }
+        }
+        return status;
+    }
+
+    @Override
+    public Map<String, String> getAllSensorStatus() throws RemoteException {
+        synchronized (this) {
+            querCompleto = true;
+        }
+        revalidateIfStale();
+        synchronized (this) {
+            if (completo != null) {
+                return new HashMap<>(completo);
+            }
+        }
+        // Primeira vez: a cópia vem de um snapshot completo, que passa a ser a base de versão
+        synchronized (validacao) {
+            while (true) {
+                long consultadoEm = System.nanoTime();
+                apply(remoto.getChangesSince(-1), consultadoEm);
+                synchronized (this) {
+                    // Sem cópia: o snapshot era mais antigo que as notificações já aplicadas
+                    if (completo != null) {
+                        return new HashMap<>(completo);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public String setAlarmStatus(boolean status) throws RemoteException {
+        try {
+            return remoto.setAlarmStatus(status);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public String setSensorStatus(String sensorId, boolean isOpen) throws RemoteException {
+        try {
+            return remoto.setSensorStatus(sensorId, isOpen);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public Map<String, String> setSensorStatuses(Map<String, Boolean> updates) throws RemoteException {
+        try {
+            return remoto.setSensorStatuses(updates);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public Map<String, String> applySensorReadings(Map<String, Boolean> readings) throws RemoteException {
+        try {
+            return remoto.applySensorReadings(readings);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public boolean heartbeat(String sensorId) throws RemoteException {
+        try {
+            return remoto.heartbeat(sensorId);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public int heartbeats(List<String> sensorIds) throws RemoteException {
+        try {
+            return remoto.heartbeats(sensorIds);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public SensorStatusSnapshot getSensorStatusSnapshot() throws RemoteException {
+        return remoto.getSensorStatusSnapshot();
+    }
+
+    @Override
+    public SensorChanges getChangesSince(long version) throws RemoteException {
+        return remoto.getChangesSince(version);
+    }
+
+    @Override
+    public DashboardSnapshot getDashboardSnapshot() throws RemoteException {
+        return remoto.getDashboardSnapshot();
+    }
+
+    @Override
+    public void registerEvent(String event) throws RemoteException {
+        remoto.registerEvent(event);
+    }
+
+    @Override
+    public List<String> getLogEvents(int limit) throws RemoteException {
+        return remoto.getLogEvents(limit);
+    }
+
+    @Override
+    public List<LogEvent> getLogEventsBefore(long sequence, int limit) throws RemoteException {
+        return remoto.getLogEventsBefore(sequence, limit);
+    }
+
+    @Override
+    public LogPage getLogPage(long sequence, int limit) throws RemoteException {
+        return remoto.getLogPage(sequence, limit);
+    }
+
+    @Override
+    public LogPage searchLogEvents(EventQuery query, long sequence, int limit) throws RemoteException {
+        return remoto.searchLogEvents(query, sequence, limit);
+    }
+
+    @Override
+    public long getLogEventCount() throws RemoteException {
+        return remoto.getLogEventCount();
+    }
+
+    @Override
+    public String resetSensorAlarm(String sensorId) throws RemoteException {
+        try {
+            return remoto.resetSensorAlarm(sensorId);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public String addSensor(String sensorId) throws RemoteException {
+        try {
+            return remoto.addSensor(sensorId);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public String removeSensor(String sensorId) throws RemoteException {
+        try {
+            return remoto.removeSensor(sensorId);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public String addZone(String zoneId, String parentZoneId) throws RemoteException {
+        return remoto.addZone(zoneId, parentZoneId);
+    }
+
+    @Override
+    public String removeZone(String zoneId) throws RemoteException {
+        return remoto.removeZone(zoneId);
+    }
+
+    @Override
+    public String setSensorZone(String sensorId, String zoneId) throws RemoteException {
+        return remoto.setSensorZone(sensorId, zoneId);
+    }
+
+    // Armar uma zona ou resetá-la muda sensores e o alarme
+    @Override
+    public String setZoneAlarmStatus(String zoneId, boolean status) throws RemoteException {
+        try {
+            return remoto.setZoneAlarmStatus(zoneId, status);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public String resetZoneAlarm(String zoneId) throws RemoteException {
+        try {
+            return remoto.resetZoneAlarm(zoneId);
+        } finally {
+            expire();
+        }
+    }
+
+    @Override
+    public ZoneStatus getZoneStatus(String zoneId) throws RemoteException {
+        return remoto.getZoneStatus(zoneId);
+    }
+
+    @Override
+    public List<ZoneStatus> getZoneStatuses() throws RemoteException {
+        return remoto.getZoneStatuses();
+    }
+
+    @Override
+    public Map<String, String> getSensorZones() throws RemoteException {
+        return remoto.getSensorZones();
+    }
+
+    @Override
+    public boolean registerListener(SecuritySystemListener listener) throws RemoteException {
+        return remoto.registerListener(listener);
+    }
+
+    @Override
+    public boolean unregisterListener(SecuritySystemListener listener) throws RemoteException {
+        return remoto.unregisterListener(listener);
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.securitysystem;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+// Guarda as últimas mudanças versionadas num buffer circular sem lock; clientes mais
+// atrasados que isso recebem um snapshot completo.
+class ChangeHistory {
+
+    private final int capacity;
+    private final AtomicReferenceArray<StateChange> slots;
+    private final AtomicLong ultimaVersao = new AtomicLong();
+    // Maior versão V tal que todas as mudanças até V já estão gravadas
+    private final AtomicLong versaoPublicada = new AtomicLong();
+
+    // Começar de uma versão derivada do relógio faz com que versões de antes de um
+    // reinício do servidor pareçam apenas antigas, forçando um snapshot no cliente.
+    ChangeHistory(int capacity, long initialVersion) {
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.ultimaVersao.set(initialVersion);
+        this.versaoPublicada.set(initialVersion);
+    }
+
+    StateChange append(StateChange change) {
+        StateChange versionada = change.withVersion(ultimaVersao.incrementAndGet(), System.currentTimeMillis());
+        slots.set(slot(versionada.getVersion()), versionada);
+        advancePublishedVersion();
+        return versionada;
+    }
+
+    long currentVersion() {
+        return versaoPublicada.get();
+    }
+
+    SensorChanges changesSince(long version, Supplier<Map<String, String>> snapshot) {
+        long publicada = versaoPublicada.get();
+        if (version == publicada) {
+            return new SensorChanges(publicada, false, Map.of(), List.of());
+        }
+        if (version >= 0 && version < publicada && publicada - version < capacity) {
+            SensorChanges changes = collect(version, publicada);
+            if (changes != null) {
+                return changes;
+            }
+        }
+        // O snapshot é lido depois da versão: mudanças posteriores podem vir repetidas, nunca perdidas
+        return SensorChanges.snapshot(publicada, snapshot.get());
+    }
+
+    private void advancePublishedVersion() {
+        long publicada;
+        while ((publicada = versaoPublicada.get()) < ultimaVersao.get()) {
+            StateChange proxima = slots.get(slot(publicada + 1));
+            if (proxima == null || proxima.getVersion() <= publicada) {
+                return;
+            }
+            versaoPublicada.compareAndSet(publicada, publicada + 1);
+        }
+    }
+
+    private SensorChanges collect(long version, long publicada) {
+        Map<String, String> atualizados = new LinkedHashMap<>();
+        Set<String> removidos = new LinkedHashSet<>();
+        for (long v = version + 1; v <= publicada; v++) {
+            StateChange change = slots.get(slot(v));
+            if (change == null || change.getVersion() != v) {
+                return null;
+            }
+            if (change.getType() == StateChange.Type.SENSOR_UPDATED) {
+                removidos.remove(change.getSensorId());
+                atualizados.put(change.getSensorId(), change.getStatus());
+            } else if (change.getType() == StateChange.Type.SENSOR_REMOVED) {
+                atualizados.remove(change.getSensorId());
+                removidos.add(change.getSensorId());
+            }
+        }
+        return new SensorChanges(publicada, false, atualizados, new ArrayList<>(removidos));
+    }
+
+    private int slot(long version) {
+        return (int) (version % capacity);
+    }
+}
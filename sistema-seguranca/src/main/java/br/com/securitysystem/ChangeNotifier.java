@@ -0,0 +1,105 @@
+package br.com.securitysystem;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Cada listener tem fila própria e limitada: cliente lento (fila cheia) ou morto
+// (falha remota) é descartado, sem nunca bloquear quem altera o estado.
+class ChangeNotifier {
+
+    private static final int MAX_PENDING_CHANGES = 1024;
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final Map<SecuritySystemListener, Subscription> assinaturas = new ConcurrentHashMap<>();
+    // Recebe o motivo de cada descarte; roda no caminho de publish, então não pode escrever no console
+    private final Consumer<String> aoDescartar;
+    private final ExecutorService entregas = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "listener-delivery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ChangeNotifier(Consumer<String> aoDescartar) {
+        this.aoDescartar = aoDescartar;
+    }
+
+    boolean register(SecuritySystemListener listener) {
+        return assinaturas.putIfAbsent(listener, new Subscription(listener)) == null;
+    }
+
+    boolean unregister(SecuritySystemListener listener) {
+        return assinaturas.remove(listener) != null;
+    }
+
+    int getListenerCount() {
+        return assinaturas.size();
+    }
+
+    void publish(StateChange change) {
+        if (assinaturas.isEmpty()) {
+            return;
+        }
+        for (Subscription assinatura : assinaturas.values()) {
+            if (!assinatura.pendentes.offer(change)) {
+                drop(assinatura, "fila de notificações cheia");
+                continue;
+            }
+            assinatura.schedule();
+        }
+    }
+
+    private void drop(Subscription assinatura, String motivo) {
+        if (assinaturas.remove(assinatura.listener, assinatura)) {
+            aoDescartar.accept("Listener descartado (" + motivo + ").");
+        }
+    }
+
+    private final class Subscription implements Runnable {
+        private final SecuritySystemListener listener;
+        private final BlockingQueue<StateChange> pendentes = new ArrayBlockingQueue<>(MAX_PENDING_CHANGES);
+        private final AtomicBoolean agendada = new AtomicBoolean(false);
+
+        private Subscription(SecuritySystemListener listener) {
+            this.listener = listener;
+        }
+
+        private void schedule() {
+            if (agendada.compareAndSet(false, true)) {
+                entregas.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<StateChange> lote = new ArrayList<>();
+            while (true) {
+                pendentes.drainTo(lote, MAX_BATCH_SIZE);
+                if (lote.isEmpty()) {
+                    agendada.set(false);
+                    if (pendentes.isEmpty() || !agendada.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    listener.onStateChanged(lote);
+                } catch (RemoteException | RuntimeException e) {
+                    drop(this, "falha na entrega: " + e.getMessage());
+                    pendentes.clear();
+                    agendada.set(false);
+                    return;
+                }
+                lote = new ArrayList<>();
+            }
+        }
+    }
+}
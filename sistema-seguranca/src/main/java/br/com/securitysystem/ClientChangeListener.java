@@ -0,0 +1,22 @@
+package br.com.securitysystem;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class ClientChangeListener extends UnicastRemoteObject implements SecuritySystemListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Consumer<List<StateChange>> handler;
+
+    public ClientChangeListener(Consumer<List<StateChange>> handler) throws RemoteException {
+        this.handler = handler;
+    }
+
+    @Override
+    public void onStateChanged(List<StateChange> changes) throws RemoteException {
+        handler.accept(changes);
+    }
+}
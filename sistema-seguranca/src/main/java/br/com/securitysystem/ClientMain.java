@@ -8,15 +8,21 @@ import javafx.stage.Stage;
 
 public class ClientMain extends Application {
 
-    // IP do Servidor RMI
-    private static final String RMI_HOST = "10.239.171.7";
+    private DashboardController controller;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        System.setProperty("java.rmi.server.hostname", RMI_HOST);
+        // O listener de notificações é exportado daqui: o stub anuncia o endereço desta máquina,
+        // nunca o do servidor. -Dclient.host ou CLIENT_HOST (o javafx:run roda em outro processo)
+        String host = System.getProperty("client.host", System.getenv("CLIENT_HOST"));
+        if (host != null) {
+            System.setProperty("java.rmi.server.hostname", host);
+        }
 
         try {
-            Parent root = FXMLLoader.load(getClass().getResource("/Dashboard.fxml"));
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/Dashboard.fxml"));
+            Parent root = loader.load();
+            controller = loader.getController();
 
             Scene scene = new Scene(root);
 
@@ -33,6 +39,13 @@ public class ClientMain extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
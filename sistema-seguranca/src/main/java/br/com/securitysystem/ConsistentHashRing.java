@@ -0,0 +1,59 @@
+package br.com.securitysystem;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Anel de hash consistente com nós virtuais: cada nó ocupa vários pontos do anel, e um sensor
+// pertence ao primeiro ponto a partir do hash do seu ID. Incluir ou tirar um nó só move os
+// sensores dos trechos que ele ocupa.
+class ConsistentHashRing {
+
+    private static final int VIRTUAL_NODES = 160;
+
+    private final long[] pontos;
+    private final int[] donos;
+
+    ConsistentHashRing(List<String> nos) {
+        if (nos.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de pelo menos um nó");
+        }
+        long[][] ordenados = new long[nos.size() * VIRTUAL_NODES][];
+        int total = 0;
+        for (int no = 0; no < nos.size(); no++) {
+            for (int v = 0; v < VIRTUAL_NODES; v++) {
+                ordenados[total++] = new long[] { hash(nos.get(no) + "#" + v), no };
+            }
+        }
+        Arrays.sort(ordenados, (a, b) -> Long.compare(a[0], b[0]));
+        pontos = new long[total];
+        donos = new int[total];
+        for (int i = 0; i < total; i++) {
+            pontos[i] = ordenados[i][0];
+            donos[i] = (int) ordenados[i][1];
+        }
+    }
+
+    int nodeFor(String chave) {
+        int posicao = Arrays.binarySearch(pontos, hash(chave));
+        if (posicao < 0) {
+            posicao = -posicao - 1;
+        }
+        return donos[posicao == pontos.length ? 0 : posicao];
+    }
+
+    // FNV-1a sobre os caracteres seguido do finalizador do MurmurHash3, para espalhar IDs
+    // parecidos ("porta_1", "porta_2") por todo o anel
+    static long hash(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < chave.length(); i++) {
+            h ^= chave.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
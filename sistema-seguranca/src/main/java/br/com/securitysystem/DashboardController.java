@@ -8,8 +8,6 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TableColumn;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.util.Duration;
@@ -17,9 +15,18 @@ import java.net.URL;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
 import java.util.ResourceBundle;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 
@@ -50,14 +57,42 @@ public class DashboardController implements Initializable {
     @FXML
     private Button closeSensorButton;
 
-    private final ObservableList<SensorData> sensorDataList = FXCollections.observableArrayList();
+    private final SensorTableModel tabela = new SensorTableModel();
 
-    private SecuritySystem stub = null;
+    // Todas as chamadas remotas passam pela fachada assíncrona; só a thread de UI troca o servidor
+    private volatile AsyncSecuritySystem servidor = null;
+    private final ExecutorService chamadas = AsyncSecuritySystem.newExecutor();
     private boolean isAlertActive = false;
+    private boolean alarmeAtivo = false;
     private String selectedSensorId = null;
+    // Versão do estado do servidor refletida na tabela; -1 força um snapshot completo
+    private long sensorVersion = -1;
+
+    private ClientChangeListener changeListener = null;
+    private Timeline autoUpdate = null;
+    // Atualizações sobrepostas são fundidas: com uma em voo, novos pedidos só marcam que outra
+    // é necessária, e ela roda uma única vez quando a atual terminar
+    private boolean refreshEmAndamento = false;
+    private boolean refreshPendente = false;
+
+    // Com notificações do servidor ativas, o timer só faz uma ressincronização de segurança
+    private static final Duration POLLING_INTERVAL = Duration.seconds(2);
+    private static final Duration RESYNC_INTERVAL = Duration.seconds(30);
 
     // IP do Servidor RMI
     private static final String RMI_HOST = "10.239.171.7";
+    // Failover: -Dsecurity.servers ou a variável SECURITY_SERVERS (o javafx:run roda em outro processo)
+    private static final List<String> SERVER_ENDPOINTS = parseEndpoints(System.getProperty("security.servers",
+            System.getenv().getOrDefault("SECURITY_SERVERS", RMI_HOST + ":1099")));
+    private static final long HEARTBEAT_INTERVAL_MS = 2000;
+    private static final Duration RECONNECT_DELAY = Duration.seconds(2);
+
+    private volatile int endpointAtual = 0;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rmi-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
@@ -68,7 +103,7 @@ public class DashboardController implements Initializable {
 
         idColumn.setCellValueFactory(cellData -> cellData.getValue().idProperty());
         statusColumn.setCellValueFactory(cellData -> cellData.getValue().statusProperty());
-        sensorTableView.setItems(sensorDataList);
+        sensorTableView.setItems(tabela.getRows());
 
         sensorTableView.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldSelection, newSelection) -> {
@@ -87,206 +122,415 @@ public class DashboardController implements Initializable {
                     }
                 });
 
-        setupRMIConnectionTask();
-        startAutoUpdate();
+        heartbeat.scheduleWithFixedDelay(this::checkConnection, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+        setupRMIConnectionTask(false);
     }
 
-    private void setupRMIConnectionTask() {
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        if (autoUpdate != null)
+            autoUpdate.stop();
+        AsyncSecuritySystem atual = servidor;
+        if (changeListener != null && atual != null) {
+            try {
+                // Espera pouco: com o servidor fora do ar, fechar a janela não pode travar
+                atual.unregisterListener(changeListener).get(2, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                System.err.println("[CLIENTE FX] Falha ao cancelar notificações: " + e.getMessage());
+            }
+        }
+        releaseListener();
+        chamadas.shutdown();
+    }
+
+    // Tenta os servidores a partir do atual; na primeira conexão, falhar mostra o erro, e durante
+    // um failover as tentativas se repetem até algum servidor (primário ou standby promovido) responder
+    private void setupRMIConnectionTask(boolean failover) {
+        int inicio = endpointAtual;
         Task<SecuritySystem> connectionTask = new Task<>() {
             @Override
             protected SecuritySystem call() throws Exception {
-                Registry registry = LocateRegistry.getRegistry(RMI_HOST, 1099);
-                return (SecuritySystem) registry.lookup("SecuritySystemService");
+                Exception ultimaFalha = null;
+                for (int i = 0; i < SERVER_ENDPOINTS.size(); i++) {
+                    int indice = (inicio + i) % SERVER_ENDPOINTS.size();
+                    String endpoint = SERVER_ENDPOINTS.get(indice);
+                    try {
+                        int separador = endpoint.lastIndexOf(':');
+                        Registry registry = LocateRegistry.getRegistry(endpoint.substring(0, separador),
+                                Integer.parseInt(endpoint.substring(separador + 1)));
+                        SecuritySystem remote = (SecuritySystem) registry.lookup("SecuritySystemService");
+                        remote.isAlarmActive();
+                        endpointAtual = indice;
+                        // Consultas de status passam pelo cache, invalidado pelas notificações e
+                        // pela versão do servidor
+                        CachingSecuritySystem cache = CachingSecuritySystem.fromSystemProperties(remote);
+                        subscribeToChanges(remote, cache);
+                        return cache;
+                    } catch (Exception e) {
+                        ultimaFalha = e;
+                    }
+                }
+                throw ultimaFalha;
             }
         };
 
         connectionTask.setOnSucceeded(event -> {
-            stub = connectionTask.getValue();
-            System.out.println("[CLIENTE FX] Conexão RMI estabelecida via Task.");
+            servidor = new AsyncSecuritySystem(connectionTask.getValue(), chamadas);
+            // Outro servidor tem outra sequência de versões: começa de um snapshot completo
+            sensorVersion = -1;
+            System.out.println("[CLIENTE FX] Conexão RMI estabelecida com " + SERVER_ENDPOINTS.get(endpointAtual) + ".");
 
-            Platform.runLater(() -> {
-                updateDashboardStatus();
-                updateTotalAndLogCount();
-                updateSensorTable();
-            });
+            refreshAll();
+            startAutoUpdate(changeListener != null ? RESYNC_INTERVAL : POLLING_INTERVAL);
         });
 
         connectionTask.setOnFailed(event -> {
+            if (failover) {
+                statusGeralLabel.setText("RECONECTANDO...");
+                Timeline novaTentativa = new Timeline(new KeyFrame(RECONNECT_DELAY,
+                        e -> setupRMIConnectionTask(true)));
+                novaTentativa.play();
+                return;
+            }
             Platform.runLater(() -> {
                 statusGeralLabel.setText("ERRO DE CONEXÃO");
                 totalSensoresLabel.setText("?");
                 eventosRecentesLabel.setText("?");
                 showAlert(Alert.AlertType.ERROR, "Erro Crítico",
-                        "Falha ao conectar ao Servidor RMI (" + RMI_HOST + "). Verifique se o ServerMain está ativo.");
+                        "Falha ao conectar ao Servidor RMI (" + String.join(", ", SERVER_ENDPOINTS)
+                                + "). Verifique se o ServerMain está ativo.");
             });
             System.err.println("[CLIENTE FX] Falha na conexão RMI inicial via Task: "
                     + event.getSource().getException().getMessage());
         });
 
-        new Thread(connectionTask).start();
+        chamadas.execute(connectionTask);
     }
 
-    private void startAutoUpdate() {
-        Timeline timeline = new Timeline(
-                new KeyFrame(Duration.seconds(2), event -> {
-                    if (stub != null) {
-                        Platform.runLater(() -> {
-                            updateDashboardStatus();
-                            updateTotalAndLogCount();
-                            updateSensorTable();
-                        });
-                    }
-                }));
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+    // Verificação fora da thread de UI: um servidor morto é detectado em segundos mesmo com a
+    // tabela alimentada só por notificações
+    private void checkConnection() {
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null) {
+            return;
+        }
+        try {
+            // Confirmar a versão do cache já é uma chamada ao servidor
+            ((CachingSecuritySystem) atual.getRemote()).revalidate();
+        } catch (RemoteException e) {
+            Platform.runLater(() -> connectionLost(atual));
+        }
     }
 
-    // MÉTODOS DE ATUALIZAÇÃO E UTILITÁRIOS
+    private void connectionLost(AsyncSecuritySystem falhou) {
+        if (servidor != falhou) {
+            return;
+        }
+        System.err.println("[CLIENTE FX] Servidor " + SERVER_ENDPOINTS.get(endpointAtual) + " inacessível; tentando failover.");
+        servidor = null;
+        if (autoUpdate != null) {
+            autoUpdate.stop();
+        }
+        releaseListener();
+        statusGeralLabel.setText("RECONECTANDO...");
+        endpointAtual = (endpointAtual + 1) % SERVER_ENDPOINTS.size();
+        setupRMIConnectionTask(true);
+    }
 
-    private void updateSensorTable() {
-        if (stub == null)
+    private void releaseListener() {
+        if (changeListener == null)
             return;
-        try {
-            Map<String, String> allStatus = stub.getAllSensorStatus();
-            String idToRestore = selectedSensorId;
-            ObservableList<SensorData> updatedList = FXCollections.observableArrayList();
-            SensorData itemToSelect = null;
+        unexport(changeListener);
+        changeListener = null;
+    }
 
-            for (Map.Entry<String, String> entry : allStatus.entrySet()) {
-                SensorData currentSensorData = new SensorData(entry.getKey(), entry.getValue());
-                updatedList.add(currentSensorData);
+    private static void unexport(ClientChangeListener listener) {
+        try {
+            UnicastRemoteObject.unexportObject(listener, true);
+        } catch (RemoteException e) {
+            System.err.println("[CLIENTE FX] Falha ao liberar listener: " + e.getMessage());
+        }
+    }
 
-                if (idToRestore != null && idToRestore.equals(entry.getKey())) {
-                    itemToSelect = currentSensorData;
-                }
+    // host:porta,host:porta (primário primeiro)
+    private static List<String> parseEndpoints(String lista) {
+        List<String> endpoints = new ArrayList<>();
+        for (String endpoint : lista.split(",")) {
+            if (!endpoint.isBlank()) {
+                endpoints.add(endpoint.trim());
             }
-            sensorDataList.clear();
-            sensorDataList.addAll(updatedList);
+        }
+        return endpoints;
+    }
 
-            if (itemToSelect != null) {
-                sensorTableView.getSelectionModel().select(itemToSelect);
+    private void subscribeToChanges(SecuritySystem remote, CachingSecuritySystem cache) {
+        try {
+            ClientChangeListener listener = new ClientChangeListener(changes -> {
+                cache.onStateChanged(changes);
+                Platform.runLater(() -> applyChanges(changes));
+            });
+            if (remote.registerListener(listener)) {
+                changeListener = listener;
+                System.out.println("[CLIENTE FX] Notificações de mudança do servidor ativas.");
             } else {
-                selectedSensorId = null;
-                if (openSensorButton != null)
-                    openSensorButton.setDisable(true);
-                if (closeSensorButton != null)
-                    closeSensorButton.setDisable(true);
+                UnicastRemoteObject.unexportObject(listener, true);
             }
-            sensorTableView.refresh();
         } catch (RemoteException e) {
+            System.err.println("[CLIENTE FX] Notificações indisponíveis, usando polling: " + e.getMessage());
+        }
+    }
+
+    private void startAutoUpdate(Duration interval) {
+        if (autoUpdate != null)
+            autoUpdate.stop();
+        autoUpdate = new Timeline(
+                new KeyFrame(interval, event -> resync()));
+        autoUpdate.setCycleCount(Timeline.INDEFINITE);
+        autoUpdate.play();
+    }
+
+    // O servidor descarta sem avisar um listener que não consegue notificar. A ressincronização
+    // registra o listener de novo: registerListener só devolve true se ele tinha sido descartado
+    private void resync() {
+        AsyncSecuritySystem atual = servidor;
+        ClientChangeListener listener = changeListener;
+        if (atual != null && listener != null) {
+            atual.registerListener(listener).whenComplete((descartado, erro) -> Platform.runLater(() -> {
+                if (erro == null && descartado && servidor == atual && changeListener == listener) {
+                    listenerDropped(atual, listener);
+                }
+            }));
+        }
+        refreshAll();
+    }
+
+    // As notificações deste cliente não chegam (endereço errado no stub ou fila cheia): o registro
+    // recém-refeito seria descartado de novo, então é desfeito e o painel volta ao polling
+    private void listenerDropped(AsyncSecuritySystem atual, ClientChangeListener listener) {
+        System.err.println("[CLIENTE FX] O servidor descartou as notificações; voltando ao polling.");
+        changeListener = null;
+        startAutoUpdate(POLLING_INTERVAL);
+        // O stub só pode ser liberado depois que a chamada o enviou
+        atual.unregisterListener(listener).whenComplete((removido, erro) -> unexport(listener));
+    }
+
+    // A primeira carga (e a troca de servidor) usa o snapshot completo do painel; depois a tabela
+    // recebe só o que mudou desde a sua versão, e alarme e total de eventos são lidos à parte.
+    // O resultado é aplicado num único runLater
+    private void refreshAll() {
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
+            return;
+        if (refreshEmAndamento) {
+            refreshPendente = true;
+            return;
+        }
+        refreshEmAndamento = true;
+        if (sensorVersion < 0) {
+            atual.getDashboardSnapshot().whenComplete((snapshot, erro) -> Platform.runLater(() -> {
+                if (servidor == atual && erro == null) {
+                    applyDashboardSnapshot(snapshot);
+                }
+                refreshDone(atual, erro);
+            }));
+            return;
+        }
+        // O alarme é lido depois do delta, então nunca é mais antigo que a versão dele
+        CompletableFuture<SensorChanges> mudancas = atual.getChangesSince(sensorVersion);
+        CompletableFuture<Boolean> alarme = mudancas.thenCompose(lidas -> atual.isAlarmActive());
+        CompletableFuture<Long> eventos = atual.getLogEventCount();
+        CompletableFuture.allOf(alarme, eventos).whenComplete((ignorado, erro) -> Platform.runLater(() -> {
+            if (servidor == atual && erro == null) {
+                applySensorChanges(mudancas.join(), alarme.join());
+                renderTotals(eventos.join());
+            }
+            refreshDone(atual, erro);
+        }));
+    }
+
+    private void refreshDone(AsyncSecuritySystem atual, Throwable erro) {
+        refreshEmAndamento = false;
+        if (servidor == atual && erro != null) {
             statusGeralLabel.setText("ERRO DE RMI");
             totalSensoresLabel.setText("?");
             eventosRecentesLabel.setText("?");
         }
+        if (refreshPendente) {
+            refreshPendente = false;
+            refreshAll();
+        }
     }
 
-    private void updateDashboardStatus() {
-        if (stub == null)
+    // Só o total de eventos, depois de notificações já aplicadas na tabela
+    private void refreshTotals() {
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
-        try {
-            Map<String, String> allStatus = stub.getAllSensorStatus();
-            boolean isActive = stub.isAlarmActive();
+        atual.getLogEventCount().whenComplete((eventos, erro) -> Platform.runLater(() -> {
+            if (servidor == atual && erro == null) {
+                renderTotals(eventos);
+            }
+        }));
+    }
 
-            boolean isViolation = false;
-            for (String status : allStatus.values()) {
-                if (status.equals("VIOLADO") || status.equals("ALERTA_TRANCADO")) {
-                    isViolation = true;
+    private void applyChanges(List<StateChange> changes) {
+        for (StateChange change : changes) {
+            if (change.getVersion() <= sensorVersion) {
+                continue;
+            }
+            if (change.getVersion() != sensorVersion + 1) {
+                // Perdemos alguma notificação: a atualização busca só o que falta
+                renderDashboardStatus();
+                refreshAll();
+                return;
+            }
+            switch (change.getType()) {
+                case SENSOR_UPDATED:
+                    tabela.put(change.getSensorId(), change.getStatus());
+                    break;
+                case SENSOR_REMOVED:
+                    tabela.remove(change.getSensorId());
+                    break;
+                case ALARM:
+                    alarmeAtivo = change.isAlarmActive();
                     break;
-                }
             }
+            sensorVersion = change.getVersion();
+        }
+        renderDashboardStatus();
+        refreshTotals();
+    }
 
-            statusGeralLabel.getStyleClass().removeAll("status-active", "status-inactive");
-            toggleButton.getStyleClass().removeAll("toggle-active", "toggle-inactive");
+    // MÉTODOS DE ATUALIZAÇÃO E UTILITÁRIOS
 
-            if (isViolation) {
-                statusGeralLabel.setText("!!! VIOLAÇÃO DETECTADA !!!");
-                statusGeralLabel.getStyleClass().add("status-inactive");
-                toggleButton.setText("Desativar");
-                toggleButton.setStyle("-fx-background-color: " + PRIMARY_LIGHT + ";");
+    // Notificações aplicadas enquanto a consulta estava em voo podem ter deixado a tabela e o
+    // alarme mais novos que o snapshot; nesse caso só os contadores são usados
+    private void applyDashboardSnapshot(DashboardSnapshot snapshot) {
+        if (snapshot.getVersion() > sensorVersion) {
+            // As linhas existentes são mantidas, então a seleção não se perde
+            tabela.sync(snapshot.getSensors());
+            sensorVersion = snapshot.getVersion();
+            alarmeAtivo = snapshot.isAlarmActive();
+            renderDashboardStatus();
+        }
+        renderTotals(snapshot.getLogCount());
+    }
 
-                if (!isAlertActive) {
-                    showAlert(Alert.AlertType.ERROR, "ALARME DISPARADO",
-                            "Um ou mais sensores foram violados! O alarme foi trancado. Use a função 'Resetar Alarme (Sensor)' para limpar o estado.");
-                    isAlertActive = true;
-                }
+    // Delta desde a versão da tabela; se notificações já a deixaram mais nova, nada muda
+    private void applySensorChanges(SensorChanges mudancas, boolean ativo) {
+        if (mudancas.getVersion() < sensorVersion) {
+            return;
+        }
+        if (mudancas.isFullSnapshot()) {
+            tabela.sync(mudancas.getUpdated());
+        } else {
+            for (Map.Entry<String, String> sensor : mudancas.getUpdated().entrySet()) {
+                tabela.put(sensor.getKey(), sensor.getValue());
+            }
+            for (String sensorId : mudancas.getRemoved()) {
+                tabela.remove(sensorId);
+            }
+        }
+        sensorVersion = mudancas.getVersion();
+        alarmeAtivo = ativo;
+        renderDashboardStatus();
+    }
 
-            } else if (isActive) {
-                statusGeralLabel.setText("ATIVO");
-                statusGeralLabel.getStyleClass().add("status-active");
-                toggleButton.setText("Desativar");
-                toggleButton.setStyle("-fx-background-color: " + STATUS_INACTIVE + ";");
-                isAlertActive = false;
+    // Usa a tabela local, que já está sincronizada com o servidor
+    private void renderDashboardStatus() {
+        boolean isViolation = tabela.hasViolation();
 
-            } else {
-                statusGeralLabel.setText("DESATIVADO");
-                statusGeralLabel.getStyleClass().add("status-inactive");
-                toggleButton.setText("Ativar");
-                toggleButton.setStyle("-fx-background-color: " + STATUS_ACTIVE + ";");
-                isAlertActive = false;
+        statusGeralLabel.getStyleClass().removeAll("status-active", "status-inactive");
+        toggleButton.getStyleClass().removeAll("toggle-active", "toggle-inactive");
+
+        if (isViolation) {
+            statusGeralLabel.setText("!!! VIOLAÇÃO DETECTADA !!!");
+            statusGeralLabel.getStyleClass().add("status-inactive");
+            toggleButton.setText("Desativar");
+            toggleButton.setStyle("-fx-background-color: " + PRIMARY_LIGHT + ";");
+
+            if (!isAlertActive) {
+                showAlert(Alert.AlertType.ERROR, "ALARME DISPARADO",
+                        "Um ou mais sensores foram violados! O alarme foi trancado. Use a função 'Resetar Alarme (Sensor)' para limpar o estado.");
+                isAlertActive = true;
             }
 
-        } catch (RemoteException e) {
-            statusGeralLabel.setText("ERRO RMI");
-            toggleButton.setText("Erro");
+        } else if (alarmeAtivo) {
+            statusGeralLabel.setText("ATIVO");
+            statusGeralLabel.getStyleClass().add("status-active");
+            toggleButton.setText("Desativar");
+            toggleButton.setStyle("-fx-background-color: " + STATUS_INACTIVE + ";");
+            isAlertActive = false;
+
+        } else {
+            statusGeralLabel.setText("DESATIVADO");
+            statusGeralLabel.getStyleClass().add("status-inactive");
+            toggleButton.setText("Ativar");
+            toggleButton.setStyle("-fx-background-color: " + STATUS_ACTIVE + ";");
+            isAlertActive = false;
         }
     }
 
-    private void updateTotalAndLogCount() {
-        if (stub == null)
-            return;
-        try {
-            int totalSensores = stub.getAllSensorStatus().size();
-            totalSensoresLabel.setText(String.valueOf(totalSensores));
-
-            List<String> logs = stub.getLogEvents(9999);
-            eventosRecentesLabel.setText(String.valueOf(logs.size()));
+    private void renderTotals(long totalEventos) {
+        totalSensoresLabel.setText(String.valueOf(tabela.size()));
+        eventosRecentesLabel.setText(String.valueOf(totalEventos));
+    }
 
-        } catch (RemoteException e) {
-            totalSensoresLabel.setText("?");
-            eventosRecentesLabel.setText("?");
-        }
+    // Aplica o resultado de uma ação na thread de UI; falhas viram o alerta de erro RMI
+    private <T> void onResult(CompletableFuture<T> futuro, String falha, Consumer<T> sucesso) {
+        futuro.whenComplete((resultado, erro) -> Platform.runLater(() -> {
+            if (erro != null) {
+                Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+                showAlert(Alert.AlertType.ERROR, "Erro RMI", falha + ": " + causa.getMessage());
+            } else {
+                sucesso.accept(resultado);
+            }
+        }));
     }
 
     // MÉTODOS DE AÇÃO
 
     @FXML
     private void handleToggleAlarm() {
-        if (stub == null)
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
-        try {
-            boolean isCurrentlyActive = stub.isAlarmActive();
-            String result = stub.setAlarmStatus(!isCurrentlyActive);
-            showAlert(Alert.AlertType.INFORMATION, "Status do Alarme", result.trim());
-            updateDashboardStatus();
-            updateSensorTable();
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha na comunicação: " + e.getMessage());
-        }
+        onResult(atual.isAlarmActive().thenCompose(isCurrentlyActive -> atual.setAlarmStatus(!isCurrentlyActive)),
+                "Falha na comunicação", result -> {
+                    showAlert(Alert.AlertType.INFORMATION, "Status do Alarme", result.trim());
+                    refreshAll();
+                });
     }
 
     @FXML
     private void handleViewEvents() {
-        if (stub == null)
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
-        try {
-            List<String> logs = stub.getLogEvents(20);
+        onResult(atual.getLogPage(Long.MAX_VALUE, 20), "Falha ao carregar logs", pagina -> {
             StringBuilder logText = new StringBuilder("--- Últimos 20 Eventos ---\n");
-            if (logs.isEmpty()) {
+            if (pagina.size() == 0) {
                 logText.append("Log de eventos vazio.");
             } else {
-                for (String item : logs) {
-                    logText.append(item.trim()).append("\n");
+                for (LogEvent evento : pagina.getEvents()) {
+                    logText.append(evento.toString().trim()).append("\n");
                 }
             }
             showAlert(Alert.AlertType.INFORMATION, "Log de Eventos", logText.toString());
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha ao carregar logs: " + e.getMessage());
-        }
+        });
+    }
+
+    // Não modal: o operador continua acompanhando o painel durante a investigação
+    @FXML
+    private void handleSearchEvents() {
+        new EventSearchDialog(() -> servidor, selectedSensorId).show();
     }
 
     @FXML
     private void handleConsultSpecificStatus() {
-        if (stub == null)
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
         String sensorId = selectedSensorId;
         if (sensorId == null || sensorId.isEmpty()) {
@@ -295,36 +539,31 @@ public class DashboardController implements Initializable {
         }
         if (sensorId == null || sensorId.isEmpty())
             return;
-        try {
-            String status = stub.getSensorStatus(sensorId.trim());
-            showAlert(Alert.AlertType.INFORMATION, "Status do Sensor",
-                    "Sensor: " + sensorId + "\nStatus Atual: " + status);
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha ao consultar sensor: " + e.getMessage());
-        }
+        String consultado = sensorId;
+        onResult(atual.getSensorStatus(sensorId.trim()), "Falha ao consultar sensor",
+                status -> showAlert(Alert.AlertType.INFORMATION, "Status do Sensor",
+                        "Sensor: " + consultado + "\nStatus Atual: " + status));
     }
 
     @FXML
     private void handleAddSensor() {
-        if (stub == null)
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
         String sensorId = showInputDialog("Adicionar Sensor", "Novo ID do Sensor:",
                 "Informe um ID único (ex: porta_fundos):");
         if (sensorId == null || sensorId.isEmpty())
             return;
-        try {
-            String result = stub.addSensor(sensorId.trim());
+        onResult(atual.addSensor(sensorId.trim()), "Falha ao adicionar sensor", result -> {
             showAlert(Alert.AlertType.INFORMATION, "Adição de Sensor", result.trim());
-            updateTotalAndLogCount();
-            updateSensorTable();
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha ao adicionar sensor: " + e.getMessage());
-        }
+            refreshAll();
+        });
     }
 
     @FXML
     private void handleRemoveSensor() {
-        if (stub == null)
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
         String sensorId = selectedSensorId;
         if (sensorId == null || sensorId.isEmpty()) {
@@ -333,19 +572,16 @@ public class DashboardController implements Initializable {
         }
         if (sensorId == null || sensorId.isEmpty())
             return;
-        try {
-            String result = stub.removeSensor(sensorId.trim());
+        onResult(atual.removeSensor(sensorId.trim()), "Falha ao remover sensor", result -> {
             showAlert(Alert.AlertType.INFORMATION, "Remoção de Sensor", result.trim());
-            updateTotalAndLogCount();
-            updateSensorTable();
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha ao remover sensor: " + e.getMessage());
-        }
+            refreshAll();
+        });
     }
 
     @FXML
     private void handleResetAlarm() {
-        if (stub == null)
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
         String sensorId = selectedSensorId;
         if (sensorId == null || sensorId.isEmpty()) {
@@ -354,50 +590,34 @@ public class DashboardController implements Initializable {
         }
         if (sensorId == null || sensorId.isEmpty())
             return;
-        try {
-            String result = stub.resetSensorAlarm(sensorId.trim());
+        onResult(atual.resetSensorAlarm(sensorId.trim()), "Falha ao resetar alarme", result -> {
             showAlert(Alert.AlertType.INFORMATION, "Reset de Alarme", result.trim());
-            updateSensorTable();
-            updateDashboardStatus();
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha ao resetar alarme: " + e.getMessage());
-        }
+            refreshAll();
+        });
     }
 
     @FXML
     private void handleOpenSelectedSensor() {
-        if (stub == null)
-            return;
-        if (selectedSensorId == null || selectedSensorId.isEmpty()) {
-            showAlert(Alert.AlertType.WARNING, "Atenção", "Por favor, selecione um sensor na tabela primeiro.");
-            return;
-        }
-        try {
-            String result = stub.setSensorStatus(selectedSensorId.trim(), true);
-            showAlert(Alert.AlertType.INFORMATION, "Status Alterado", result.trim());
-            updateSensorTable();
-            updateDashboardStatus();
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha ao mudar status: " + e.getMessage());
-        }
+        setSelectedSensorStatus(true);
     }
 
     @FXML
     private void handleCloseSelectedSensor() {
-        if (stub == null)
+        setSelectedSensorStatus(false);
+    }
+
+    private void setSelectedSensorStatus(boolean open) {
+        AsyncSecuritySystem atual = servidor;
+        if (atual == null)
             return;
         if (selectedSensorId == null || selectedSensorId.isEmpty()) {
             showAlert(Alert.AlertType.WARNING, "Atenção", "Por favor, selecione um sensor na tabela primeiro.");
             return;
         }
-        try {
-            String result = stub.setSensorStatus(selectedSensorId.trim(), false);
+        onResult(atual.setSensorStatus(selectedSensorId.trim(), open), "Falha ao mudar status", result -> {
             showAlert(Alert.AlertType.INFORMATION, "Status Alterado", result.trim());
-            updateSensorTable();
-            updateDashboardStatus();
-        } catch (RemoteException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro RMI", "Falha ao mudar status: " + e.getMessage());
-        }
+            refreshAll();
+        });
     }
 
     private void showAlert(Alert.AlertType type, String title, String content) {
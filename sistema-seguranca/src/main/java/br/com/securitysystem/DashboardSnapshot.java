@@ -0,0 +1,150 @@
+package br.com.securitysystem;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Tudo o que o painel mostra, capturado de uma vez no servidor. Imutável; é serializado por
+// um proxy compacto (estado do sensor em um byte) cujos bytes são gerados uma única vez, então
+// os consoles que recebem o mesmo snapshot em cache compartilham também a codificação.
+public final class DashboardSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    private final boolean alarmActive;
+    private final boolean alarmLocked;
+    private final boolean violation;
+    private final long logCount;
+    private final Map<String, String> sensors;
+    private transient volatile byte[] codificado;
+
+    DashboardSnapshot(long version, boolean alarmActive, boolean alarmLocked, boolean violation, long logCount,
+            Map<String, String> sensors) {
+        this.version = version;
+        this.alarmActive = alarmActive;
+        this.alarmLocked = alarmLocked;
+        this.violation = violation;
+        this.logCount = logCount;
+        this.sensors = Collections.unmodifiableMap(sensors);
+    }
+
+    // Mesma sequência de versões de getChangesSince e das notificações
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isAlarmActive() {
+        return alarmActive;
+    }
+
+    public boolean isAlarmLocked() {
+        return alarmLocked;
+    }
+
+    // Algum sensor em ALERTA_TRANCADO ou VIOLADO
+    public boolean hasViolation() {
+        return violation;
+    }
+
+    public int getSensorCount() {
+        return sensors.size();
+    }
+
+    public long getLogCount() {
+        return logCount;
+    }
+
+    public Map<String, String> getSensors() {
+        return sensors;
+    }
+
+    private Object writeReplace() {
+        byte[] dados = codificado;
+        if (dados == null) {
+            dados = encode();
+            codificado = dados;
+        }
+        return new Wire(dados);
+    }
+
+    private void readObject(ObjectInputStream entrada) throws InvalidObjectException {
+        throw new InvalidObjectException("DashboardSnapshot é serializado pelo proxy compacto");
+    }
+
+    // [long versão][byte flags][long eventos][int sensores]{[utf8 id][byte estado]}, no WireFormat
+    private byte[] encode() {
+        WireFormat.Writer saida = new WireFormat.Writer(32 + sensors.size() * 12);
+        saida.writeLong(version);
+        saida.writeByte((alarmActive ? 1 : 0) | (alarmLocked ? 2 : 0) | (violation ? 4 : 0));
+        saida.writeLong(logCount);
+        saida.writeInt(sensors.size());
+        for (Map.Entry<String, String> sensor : sensors.entrySet()) {
+            saida.writeString(sensor.getKey());
+            saida.writeByte(SensorState.valueOf(sensor.getValue()).ordinal());
+        }
+        return saida.toByteArray();
+    }
+
+    private static DashboardSnapshot decode(byte[] dados) throws IOException {
+        WireFormat.Reader entrada = new WireFormat.Reader(dados);
+        long versao = entrada.readLong();
+        int flags = entrada.readByte();
+        long eventos = entrada.readLong();
+        int total = entrada.readInt();
+        if (total < 0) {
+            throw new InvalidObjectException("Total de sensores inválido: " + total);
+        }
+        SensorState[] estados = SensorState.values();
+        Map<String, String> sensores = new HashMap<>(total * 2);
+        for (int i = 0; i < total; i++) {
+            String sensorId = entrada.readString();
+            int codigo = entrada.readByte();
+            if (codigo < 0 || codigo >= estados.length) {
+                throw new InvalidObjectException("Estado de sensor inválido: " + codigo);
+            }
+            sensores.put(sensorId, estados[codigo].name());
+        }
+        DashboardSnapshot snapshot = new DashboardSnapshot(versao, (flags & 1) != 0, (flags & 2) != 0,
+                (flags & 4) != 0, eventos, sensores);
+        snapshot.codificado = dados;
+        return snapshot;
+    }
+
+    static final class Wire implements Externalizable {
+
+        private static final long serialVersionUID = 1L;
+
+        private byte[] dados;
+
+        public Wire() {
+        }
+
+        private Wire(byte[] dados) {
+            this.dados = dados;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput saida) throws IOException {
+            saida.writeInt(dados.length);
+            saida.write(dados);
+        }
+
+        @Override
+        public void readExternal(ObjectInput entrada) throws IOException {
+            dados = new byte[entrada.readInt()];
+            entrada.readFully(dados);
+        }
+
+        private Object readResolve() throws IOException {
+            return decode(dados);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package br.com.securitysystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+// Índices invertidos do log para a busca: um por sensor, um por tipo e um geral. Cada lista
+// guarda sequência e horário em ordem de sequência, então o intervalo de tempo da consulta vira
+// uma busca binária. Entradas que já saíram do buffer circular são descartadas à medida que as
+// listas crescem, e uma varredura periódica remove as listas de sensores sem eventos retidos.
+//
+// Quem grava no log não espera: o evento entra numa fila sem lock e é indexado por quem estiver
+// com o lock livre naquele momento (a própria escrita, se ninguém o tiver). A busca pega o lock e
+// esvazia a fila antes de consultar, então vê tudo que foi gravado antes dela.
+class EventIndex {
+
+    private final int capacity;
+    private final LongSupplier menorRetida;
+    private final Queue<LogEvent> pendentes = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // Estado abaixo protegido por lock
+    private final Postings todos = new Postings();
+    private final Postings[] porTipo = new Postings[EventType.values().length];
+    private final Map<String, Postings> porSensor = new HashMap<>();
+    private long adicionados = 0;
+
+    // menorRetida: menor sequência que ainda pode estar no buffer circular
+    EventIndex(int capacity, LongSupplier menorRetida) {
+        this.capacity = capacity;
+        this.menorRetida = menorRetida;
+        for (int i = 0; i < porTipo.length; i++) {
+            porTipo[i] = new Postings();
+        }
+    }
+
+    void add(LogEvent evento) {
+        pendentes.add(evento);
+        drainIfFree();
+    }
+
+    void addAll(List<LogEvent> eventos) {
+        pendentes.addAll(eventos);
+        drainIfFree();
+    }
+
+    // Com o lock ocupado, quem o tem (ou a próxima escrita ou busca) indexa o que ficou na fila
+    private void drainIfFree() {
+        if (lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void drain() {
+        LogEvent evento;
+        while ((evento = pendentes.poll()) != null) {
+            index(evento, menorRetida.getAsLong());
+        }
+    }
+
+    // Eventos que atendem à consulta com sequência menor que a informada, do mais recente para o
+    // mais antigo. Percorre só a menor lista aplicável e, nela, só a faixa do intervalo de tempo.
+    List<LogEvent> search(EventQuery query, long sequence, int limit, LongFunction<LogEvent> eventos) {
+        lock.lock();
+        try {
+            drain();
+            return search(query, sequence, limit, menorRetida.getAsLong(), eventos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<LogEvent> search(EventQuery query, long sequence, int limit, long menorRetida,
+            LongFunction<LogEvent> eventos) {
+        Postings lista = todos;
+        if (query.getSensorId() != null) {
+            lista = porSensor.get(query.getSensorId());
+            if (lista == null) {
+                return List.of();
+            }
+        }
+        if (query.getTypes() != null && query.getTypes().size() == 1) {
+            Postings doTipo = porTipo[query.getTypes().iterator().next().ordinal()];
+            if (doTipo.size() < lista.size()) {
+                lista = doTipo;
+            }
+        }
+        lista.trim(menorRetida);
+
+        int primeira = lista.firstTimeAtLeast(query.getFrom());
+        int fim = Math.min(lista.firstSequenceAtLeast(sequence), lista.firstTimeAtLeast(query.getTo()));
+        List<LogEvent> encontrados = new ArrayList<>(Math.max(0, Math.min(limit, fim - primeira)));
+        for (int pos = fim - 1; pos >= primeira && encontrados.size() < limit; pos--) {
+            LogEvent evento = eventos.apply(lista.sequencias[pos]);
+            // null: sequência sobrescrita depois do trim ou ainda não gravada
+            if (evento != null && query.matches(evento)) {
+                encontrados.add(evento);
+            }
+        }
+        return encontrados;
+    }
+
+    private void index(LogEvent evento, long menorRetida) {
+        long sequencia = evento.getSequence();
+        if (sequencia < menorRetida) {
+            return;
+        }
+        add(todos, evento, menorRetida);
+        add(porTipo[evento.getType().ordinal()], evento, menorRetida);
+        if (evento.getSensorId() != null) {
+            add(porSensor.computeIfAbsent(evento.getSensorId(), id -> new Postings()), evento, menorRetida);
+        }
+        if (++adicionados % capacity == 0) {
+            sweep(menorRetida);
+        }
+    }
+
+    private static void add(Postings lista, LogEvent evento, long menorRetida) {
+        lista.trim(menorRetida);
+        lista.add(evento.getSequence(), evento.getTimestamp());
+    }
+
+    private void sweep(long menorRetida) {
+        for (Postings lista : porTipo) {
+            lista.trim(menorRetida);
+        }
+        Iterator<Postings> listas = porSensor.values().iterator();
+        while (listas.hasNext()) {
+            Postings lista = listas.next();
+            lista.trim(menorRetida);
+            if (lista.size() == 0) {
+                listas.remove();
+            }
+        }
+    }
+
+    // Sequências e horários nas posições [inicio, fim) de dois arrays paralelos
+    private static final class Postings {
+        private long[] sequencias = new long[16];
+        private long[] tempos = new long[16];
+        private int inicio = 0;
+        private int fim = 0;
+
+        int size() {
+            return fim - inicio;
+        }
+
+        void add(long sequencia, long tempo) {
+            if (fim == sequencias.length) {
+                makeRoom();
+            }
+            // Gravações concorrentes no log podem chegar aqui fora de ordem, mas sempre perto do fim
+            int pos = fim;
+            while (pos > inicio && sequencias[pos - 1] > sequencia) {
+                pos--;
+            }
+            // Já indexada (a recuperação pode entregar o mesmo evento mais de uma vez)
+            if (pos > inicio && sequencias[pos - 1] == sequencia) {
+                return;
+            }
+            System.arraycopy(sequencias, pos, sequencias, pos + 1, fim - pos);
+            System.arraycopy(tempos, pos, tempos, pos + 1, fim - pos);
+            sequencias[pos] = sequencia;
+            tempos[pos] = tempo;
+            fim++;
+        }
+
+        void trim(long menorRetida) {
+            if (inicio < fim && sequencias[inicio] < menorRetida) {
+                inicio = firstSequenceAtLeast(menorRetida);
+            }
+        }
+
+        int firstSequenceAtLeast(long sequencia) {
+            int baixo = inicio;
+            int alto = fim;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (sequencias[meio] < sequencia) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo;
+        }
+
+        // Os horários seguem a ordem das sequências, exceto por gravações concorrentes no mesmo
+        // instante; o filtro da consulta confere o horário exato de cada evento
+        int firstTimeAtLeast(long tempo) {
+            int baixo = inicio;
+            int alto = fim;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (tempos[meio] < tempo) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo;
+        }
+
+        private void makeRoom() {
+            int total = size();
+            if (total <= sequencias.length / 2) {
+                System.arraycopy(sequencias, inicio, sequencias, 0, total);
+                System.arraycopy(tempos, inicio, tempos, 0, total);
+            } else {
+                sequencias = Arrays.copyOfRange(sequencias, inicio, inicio + sequencias.length * 2);
+                tempos = Arrays.copyOfRange(tempos, inicio, inicio + tempos.length * 2);
+            }
+            inicio = 0;
+            fim = total;
+        }
+    }
+}
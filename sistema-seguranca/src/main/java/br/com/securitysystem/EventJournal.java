@@ -0,0 +1,539 @@
+package br.com.securitysystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Journal append-only das mudanças de estado e dos eventos de log, gravado em segmentos
+// mapeados em memória (journal-NNNNNNNNNN.seg). Todo segmento novo começa um checkpoint do
+// estado completo, e a recuperação lê só a partir do início do último checkpoint terminado,
+// independentemente do tamanho do histórico. O fsync é feito em grupo, a cada syncIntervalMs,
+// por uma thread de fundo.
+//
+// O checkpoint é gravado por outra thread, intercalado com as mudanças que continuam chegando:
+// a troca de segmento no caminho de escrita só abre o arquivo. Cada item do checkpoint é lido e
+// gravado com o lock do journal (atomically), então uma mudança concorrente do mesmo item sempre
+// fica depois dele; como todo registro atribui um valor, reaplicar tudo a partir do início do
+// checkpoint dá o estado final.
+//
+// Formato de cada registro: [int tamanho][int crc32][byte tipo][dados]. Tamanho 0 marca o
+// fim dos dados do segmento (o arquivo é pré-alocado com zeros).
+public class EventJournal implements Closeable {
+
+    interface ReplayHandler {
+        void sensorState(String sensorId, SensorState state);
+
+        void sensorRemoved(String sensorId);
+
+        void alarm(boolean active, boolean locked, boolean armed);
+
+        void log(LogEvent event);
+
+        void zone(String zoneId, String parentZoneId, boolean armed);
+
+        void zoneRemoved(String zoneId);
+
+        // zoneId null: sensor fora de qualquer zona
+        void sensorZone(String sensorId, String zoneId);
+    }
+
+    interface CheckpointSource {
+        void writeCheckpoint(EventJournal journal);
+    }
+
+    // Posição de um registro no journal: segmento e deslocamento dentro dele
+    static final class Position {
+        final long segment;
+        final int offset;
+
+        Position(long segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+
+    private static final byte SENSOR_STATE = 1;
+    private static final byte SENSOR_REMOVED = 2;
+    private static final byte ALARM = 3;
+    private static final byte LOG = 4;
+    private static final byte CHECKPOINT_BEGIN = 5;
+    private static final byte CHECKPOINT_END = 6;
+    private static final byte ZONE = 7;
+    private static final byte ZONE_REMOVED = 8;
+    private static final byte SENSOR_ZONE = 9;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_STRING_BYTES = 4096;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path diretorio;
+    private final int segmentSize;
+    private final long syncIntervalMs;
+    private final ByteBuffer registro = ByteBuffer.allocate(HEADER_SIZE + 1 + 3 * (2 + MAX_STRING_BYTES) + 32);
+    private final CRC32 crc = new CRC32();
+
+    private CheckpointSource checkpointSource;
+    private MappedByteBuffer segmento;
+    private long indiceSegmento;
+    // Bytes gravados desde a abertura do journal; mede quanto um checkpoint ocupa
+    private long gravados = 0;
+    private long tamanhoUltimoCheckpoint = 0;
+    private boolean emCheckpoint = false;
+    private volatile boolean sujo = false;
+    private ScheduledExecutorService sincronizador;
+    private ExecutorService checkpointer;
+
+    EventJournal(Path diretorio, int segmentSize, long syncIntervalMs) throws IOException {
+        this.diretorio = diretorio;
+        this.segmentSize = segmentSize;
+        this.syncIntervalMs = syncIntervalMs;
+        Files.createDirectories(diretorio);
+    }
+
+    // -Djournal.dir=data/journal -Djournal.segment.mb=64 -Djournal.sync.ms=50
+    public static EventJournal fromSystemProperties() throws IOException {
+        Path dir = Path.of(System.getProperty("journal.dir", "data/journal"));
+        int segmentMb = Integer.getInteger("journal.segment.mb", 64);
+        long syncMs = Long.getLong("journal.sync.ms", 50);
+        return new EventJournal(dir, segmentMb * 1024 * 1024, syncMs);
+    }
+
+    // RECUPERAÇÃO
+
+    // Reaplica o journal a partir do último checkpoint completo; retorna false se não havia estado salvo
+    boolean recover(ReplayHandler handler) throws IOException {
+        List<Path> segmentos = listSegments();
+        if (segmentos.isEmpty()) {
+            return false;
+        }
+        // Mesmo sem checkpoint completo (queda no primeiro), os próximos segmentos vêm depois dos existentes
+        indiceSegmento = segmentIndex(segmentos.get(segmentos.size() - 1));
+        Position inicio = lastCompleteCheckpoint(segmentos);
+        if (inicio == null) {
+            return false;
+        }
+        recoverFrom(inicio, handler);
+        return true;
+    }
+
+    // Um snapshot só pode ser completado pelo journal se o segmento onde ele parou ainda existe
+    boolean canResumeFrom(Position position) {
+        return Files.exists(segmentPath(position.segment));
+    }
+
+    // Reaplica apenas o que foi gravado depois da posição (normalmente a de um snapshot já carregado)
+    void recoverFrom(Position position, ReplayHandler handler) throws IOException {
+        List<Path> segmentos = listSegments();
+        for (Path arquivo : segmentos) {
+            long indice = segmentIndex(arquivo);
+            if (indice >= position.segment) {
+                replay(arquivo, indice == position.segment ? position.offset : 0, handler);
+            }
+        }
+        indiceSegmento = segmentIndex(segmentos.get(segmentos.size() - 1));
+    }
+
+    synchronized Position position() {
+        return new Position(indiceSegmento, segmento != null ? segmento.position() : 0);
+    }
+
+    // Início do último checkpoint que chegou ao fim; o fim pode estar num segmento posterior
+    private Position lastCompleteCheckpoint(List<Path> segmentos) throws IOException {
+        Position[] inicio = { null };
+        Position[] completo = { null };
+        for (Path arquivo : segmentos) {
+            long indice = segmentIndex(arquivo);
+            readRecords(arquivo, 0, (posicao, tipo, dados) -> {
+                if (tipo == CHECKPOINT_BEGIN) {
+                    inicio[0] = new Position(indice, posicao);
+                } else if (tipo == CHECKPOINT_END && inicio[0] != null) {
+                    completo[0] = inicio[0];
+                }
+                return true;
+            });
+        }
+        return completo[0];
+    }
+
+    private void replay(Path arquivo, int offset, ReplayHandler handler) throws IOException {
+        readRecords(arquivo, offset, (posicao, tipo, dados) -> {
+            switch (tipo) {
+                case SENSOR_STATE:
+                    String sensorId = getString(dados);
+                    handler.sensorState(sensorId, SensorState.fromCode(dados.get()));
+                    break;
+                case SENSOR_REMOVED:
+                    handler.sensorRemoved(getString(dados));
+                    break;
+                case ALARM:
+                    boolean ativo = dados.get() == 1;
+                    boolean trancado = dados.get() == 1;
+                    // Registros antigos não têm o byte de armado: com trava, o alarme estava armado
+                    handler.alarm(ativo, trancado, dados.hasRemaining() ? dados.get() == 1 : ativo);
+                    break;
+                case LOG:
+                    long sequencia = dados.getLong();
+                    long timestamp = dados.getLong();
+                    EventType tipoEvento = EventType.values()[dados.get()];
+                    String sensor = getString(dados);
+                    handler.log(new LogEvent(sequencia, timestamp, tipoEvento, sensor, getString(dados)));
+                    break;
+                case ZONE:
+                    String zoneId = getString(dados);
+                    String pai = getString(dados);
+                    handler.zone(zoneId, pai, dados.get() == 1);
+                    break;
+                case ZONE_REMOVED:
+                    handler.zoneRemoved(getString(dados));
+                    break;
+                case SENSOR_ZONE:
+                    String membro = getString(dados);
+                    handler.sensorZone(membro, getString(dados));
+                    break;
+                default:
+                    break;
+            }
+            return true;
+        });
+    }
+
+    private interface RecordVisitor {
+        boolean visit(int posicao, byte tipo, ByteBuffer dados);
+    }
+
+    // Para no primeiro registro vazio ou corrompido (escrita interrompida por queda)
+    private void readRecords(Path arquivo, int offset, RecordVisitor visitor) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            dados.position(offset);
+            CRC32 verificador = new CRC32();
+            while (dados.remaining() >= HEADER_SIZE) {
+                int posicao = dados.position();
+                int tamanho = dados.getInt();
+                int checksum = dados.getInt();
+                if (tamanho <= 0 || tamanho > dados.remaining()) {
+                    return;
+                }
+                ByteBuffer payload = dados.slice(dados.position(), tamanho);
+                verificador.reset();
+                verificador.update(payload.duplicate());
+                if ((int) verificador.getValue() != checksum) {
+                    return;
+                }
+                dados.position(dados.position() + tamanho);
+                if (!visitor.visit(posicao, payload.get(), payload)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // ESCRITA
+
+    // Abre um segmento novo e grava nele o checkpoint inicial, que apaga os segmentos anteriores
+    void start(CheckpointSource source) throws IOException {
+        synchronized (this) {
+            this.checkpointSource = source;
+            indiceSegmento = Math.max(indiceSegmento, lastSegmentIndex());
+            sincronizador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checkpointer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+            roll(false);
+        }
+        checkpoint();
+        sincronizador.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Lê e grava um item do checkpoint sem que uma mudança concorrente se intercale
+    synchronized void atomically(Runnable leituraEGravacao) {
+        leituraEGravacao.run();
+    }
+
+    void recordChange(StateChange change) {
+        switch (change.getType()) {
+            case SENSOR_UPDATED:
+                recordSensorState(change.getSensorId(), SensorState.valueOf(change.getStatus()));
+                break;
+            case SENSOR_REMOVED:
+                recordSensorRemoved(change.getSensorId());
+                break;
+            case ALARM:
+                recordAlarm(change.isAlarmActive(), change.isAlarmLocked(), change.isAlarmArmed());
+                break;
+            case ZONE_UPDATED:
+                recordZone(change.getZoneId(), change.getParentZoneId(), change.isZoneArmed());
+                break;
+            case ZONE_REMOVED:
+                recordZoneRemoved(change.getZoneId());
+                break;
+            case SENSOR_ZONE:
+                recordSensorZone(change.getSensorId(), change.getZoneId());
+                break;
+        }
+    }
+
+    synchronized void recordSensorState(String sensorId, SensorState state) {
+        begin(SENSOR_STATE);
+        putString(sensorId);
+        registro.put((byte) state.ordinal());
+        commit();
+    }
+
+    synchronized void recordSensorRemoved(String sensorId) {
+        begin(SENSOR_REMOVED);
+        putString(sensorId);
+        commit();
+    }
+
+    synchronized void recordAlarm(boolean active, boolean locked, boolean armed) {
+        begin(ALARM);
+        registro.put((byte) (active ? 1 : 0));
+        registro.put((byte) (locked ? 1 : 0));
+        registro.put((byte) (armed ? 1 : 0));
+        commit();
+    }
+
+    synchronized void recordZone(String zoneId, String parentZoneId, boolean armed) {
+        begin(ZONE);
+        putString(zoneId);
+        putString(parentZoneId);
+        registro.put((byte) (armed ? 1 : 0));
+        commit();
+    }
+
+    synchronized void recordZoneRemoved(String zoneId) {
+        begin(ZONE_REMOVED);
+        putString(zoneId);
+        commit();
+    }
+
+    synchronized void recordSensorZone(String sensorId, String zoneId) {
+        begin(SENSOR_ZONE);
+        putString(sensorId);
+        putString(zoneId);
+        commit();
+    }
+
+    synchronized void recordLog(LogEvent event) {
+        begin(LOG);
+        registro.putLong(event.getSequence());
+        registro.putLong(event.getTimestamp());
+        registro.put((byte) event.getType().ordinal());
+        putString(event.getSensorId());
+        putString(event.getMessage());
+        commit();
+    }
+
+    void sync() {
+        MappedByteBuffer atual;
+        synchronized (this) {
+            if (!sujo || segmento == null) {
+                return;
+            }
+            sujo = false;
+            atual = segmento;
+        }
+        atual.force();
+    }
+
+    @Override
+    public void close() {
+        if (checkpointer != null) {
+            checkpointer.shutdown();
+            try {
+                checkpointer.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (sincronizador != null) {
+                sincronizador.shutdown();
+            }
+            if (segmento != null) {
+                segmento.force();
+                segmento = null;
+            }
+        }
+    }
+
+    private void begin(byte tipo) {
+        registro.clear();
+        registro.position(HEADER_SIZE);
+        registro.put(tipo);
+    }
+
+    private void commit() {
+        if (segmento == null) {
+            return;
+        }
+        int tamanho = registro.position() - HEADER_SIZE;
+        // Mantém espaço para o marcador de fim (tamanho 0) depois do registro
+        if (segmento.remaining() < registro.position() + HEADER_SIZE) {
+            ByteBuffer pendente = ByteBuffer.allocate(registro.position());
+            pendente.put(registro.array(), 0, registro.position());
+            try {
+                roll(true);
+            } catch (IOException e) {
+                // Quem pediu a gravação falha junto: a mudança não pode ser confirmada sem estar no
+                // journal. O segmento cheio continua aberto e a próxima gravação tenta de novo
+                throw new UncheckedIOException("Falha ao abrir novo segmento do journal", e);
+            }
+            registro.clear();
+            registro.put(pendente.array());
+        }
+        crc.reset();
+        crc.update(registro.array(), HEADER_SIZE, tamanho);
+        registro.putInt(0, tamanho);
+        registro.putInt(4, (int) crc.getValue());
+        registro.flip();
+        segmento.put(registro);
+        gravados += registro.limit();
+        sujo = true;
+    }
+
+    // Só troca o arquivo: o fsync do anterior fica com a thread de sync e o checkpoint com a
+    // thread dele. Com um checkpoint em andamento, o novo segmento continua aquele.
+    private void roll(boolean agendarCheckpoint) throws IOException {
+        // O checkpoint deve ocupar no máximo um quarto do segmento, senão o journal passaria
+        // mais tempo reescrevendo checkpoints do que gravando mudanças.
+        long tamanho = Math.min(Math.max(segmentSize, 4L * tamanhoUltimoCheckpoint), Integer.MAX_VALUE);
+        Path arquivo = segmentPath(indiceSegmento + 1);
+        MappedByteBuffer novo;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            novo = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (IOException e) {
+            // Sem o arquivo pela metade, a próxima tentativa usa o mesmo índice
+            Files.deleteIfExists(arquivo);
+            throw e;
+        }
+        MappedByteBuffer anterior = segmento;
+        if (anterior != null) {
+            sincronizador.execute(anterior::force);
+        }
+        segmento = novo;
+        indiceSegmento++;
+        if (agendarCheckpoint && !emCheckpoint) {
+            emCheckpoint = true;
+            checkpointer.execute(this::checkpoint);
+        }
+    }
+
+    private void checkpoint() {
+        Position inicio;
+        long gravadosNoInicio;
+        synchronized (this) {
+            if (segmento == null) {
+                return;
+            }
+            emCheckpoint = true;
+            inicio = position();
+            gravadosNoInicio = gravados;
+            begin(CHECKPOINT_BEGIN);
+            commit();
+        }
+        try {
+            checkpointSource.writeCheckpoint(this);
+            MappedByteBuffer atual;
+            synchronized (this) {
+                if (segmento == null) {
+                    return;
+                }
+                begin(CHECKPOINT_END);
+                commit();
+                tamanhoUltimoCheckpoint = gravados - gravadosNoInicio;
+                atual = segmento;
+            }
+            // Depois do fim do checkpoint em disco, os segmentos anteriores ao início dele não são necessários
+            atual.force();
+            for (Path antigo : listSegments()) {
+                if (segmentIndex(antigo) < inicio.segment) {
+                    Files.deleteIfExists(antigo);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[JOURNAL] Falha no checkpoint: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                emCheckpoint = false;
+            }
+        }
+    }
+
+    private void putString(String valor) {
+        if (valor == null) {
+            registro.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        int tamanho = Math.min(bytes.length, MAX_STRING_BYTES);
+        // Corta antes de um byte de continuação para não partir um caractere multibyte
+        while (tamanho < bytes.length && tamanho > 0 && (bytes[tamanho] & 0xC0) == 0x80) {
+            tamanho--;
+        }
+        registro.putShort((short) tamanho);
+        registro.put(bytes, 0, tamanho);
+    }
+
+    private static String getString(ByteBuffer dados) {
+        short tamanho = dados.getShort();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        dados.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segmentos = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .forEach(segmentos::add);
+        }
+        return segmentos;
+    }
+
+    private long lastSegmentIndex() throws IOException {
+        List<Path> segmentos = listSegments();
+        return segmentos.isEmpty() ? 0 : segmentIndex(segmentos.get(segmentos.size() - 1));
+    }
+
+    private Path segmentPath(long indice) {
+        return diretorio.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, indice, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentIndex(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(SEGMENT_PREFIX.length(), nome.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,127 @@
+package br.com.securitysystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Buffer circular de capacidade fixa: o evento de sequência N fica no slot N % capacidade
+// e sobrescreve o mais antigo. Escritas e leituras não usam lock; o índice da busca só é
+// atualizado por quem encontra o lock dele livre, então nenhuma escrita espera por ele.
+class EventLog {
+
+    private final int capacity;
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final AtomicLong proximaSequencia = new AtomicLong();
+    private final EventIndex indice;
+
+    EventLog(int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.indice = new EventIndex(capacity, this::oldestRetained);
+    }
+
+    LogEvent append(EventType type, String sensorId, String message) {
+        long sequencia = proximaSequencia.getAndIncrement();
+        LogEvent evento = new LogEvent(sequencia, System.currentTimeMillis(), type, sensorId, message);
+        slots.set(slot(sequencia), evento);
+        indice.add(evento);
+        return evento;
+    }
+
+    // Grava o lote inteiro com uma única reserva de sequências consecutivas
+    List<LogEvent> appendAll(Batch batch) {
+        int total = batch.types.size();
+        if (total == 0) {
+            return List.of();
+        }
+        long primeira = proximaSequencia.getAndAdd(total);
+        long agora = System.currentTimeMillis();
+        List<LogEvent> eventos = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            LogEvent evento = new LogEvent(primeira + i, agora, batch.types.get(i), batch.sensorIds.get(i),
+                    batch.messages.get(i));
+            slots.set(slot(evento.getSequence()), evento);
+            eventos.add(evento);
+        }
+        indice.addAll(eventos);
+        return eventos;
+    }
+
+    // Usado na recuperação do journal: recoloca o evento com a sequência original
+    void restore(LogEvent evento) {
+        // O checkpoint do journal pode regravar um evento depois de um mais novo do mesmo slot
+        LogEvent atual = slots.get(slot(evento.getSequence()));
+        if (atual != null && atual.getSequence() >= evento.getSequence()) {
+            return;
+        }
+        slots.set(slot(evento.getSequence()), evento);
+        proximaSequencia.accumulateAndGet(evento.getSequence() + 1, Math::max);
+        indice.add(evento);
+    }
+
+    // Total de eventos já registrados, inclusive os que saíram do buffer
+    long count() {
+        return proximaSequencia.get();
+    }
+
+    int size() {
+        return (int) Math.min(count(), capacity);
+    }
+
+    List<LogEvent> latest(int limit) {
+        return before(Long.MAX_VALUE, limit);
+    }
+
+    // Eventos com sequência menor que a informada, do mais recente para o mais antigo
+    List<LogEvent> before(long sequence, int limit) {
+        long proxima = proximaSequencia.get();
+        long fim = Math.min(sequence, proxima);
+        long inicio = Math.max(0, proxima - capacity);
+        List<LogEvent> eventos = new ArrayList<>(Math.max(0, Math.min(limit, (int) (fim - inicio))));
+        for (long seq = fim - 1; seq >= inicio && eventos.size() < limit; seq--) {
+            LogEvent evento = slots.get(slot(seq));
+            if (evento == null || evento.getSequence() < seq) {
+                // Sequência reservada mas ainda não gravada
+                continue;
+            }
+            if (evento.getSequence() > seq) {
+                // Já sobrescrito por um evento mais novo
+                break;
+            }
+            eventos.add(evento);
+        }
+        return eventos;
+    }
+
+    // Eventos que atendem à consulta com sequência menor que a informada, do mais recente para o
+    // mais antigo; usa o índice em vez de percorrer o buffer
+    List<LogEvent> search(EventQuery query, long sequence, int limit) {
+        return indice.search(query, sequence, limit, this::get);
+    }
+
+    private LogEvent get(long sequence) {
+        LogEvent evento = slots.get(slot(sequence));
+        return evento != null && evento.getSequence() == sequence ? evento : null;
+    }
+
+    private long oldestRetained() {
+        return Math.max(0, proximaSequencia.get() - capacity);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    static final class Batch {
+        private final List<EventType> types = new ArrayList<>();
+        private final List<String> sensorIds = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+
+        void add(EventType type, String sensorId, String message) {
+            types.add(type);
+            sensorIds.add(sensorId);
+            messages.add(message);
+        }
+    }
+}
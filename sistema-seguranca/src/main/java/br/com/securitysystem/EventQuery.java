@@ -0,0 +1,92 @@
+package br.com.securitysystem;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Filtros da busca no log de eventos. Imutável: cada with* devolve uma cópia. Filtros não
+// informados não restringem nada; o intervalo de tempo é [de, até) em milissegundos.
+public class EventQuery implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String sensorId;
+    private final Set<EventType> types;
+    private final long from;
+    private final long to;
+    private final String text;
+
+    private EventQuery(String sensorId, Set<EventType> types, long from, long to, String text) {
+        this.sensorId = sensorId;
+        this.types = types;
+        this.from = from;
+        this.to = to;
+        this.text = text;
+    }
+
+    public static EventQuery all() {
+        return new EventQuery(null, null, Long.MIN_VALUE, Long.MAX_VALUE, null);
+    }
+
+    public EventQuery withSensor(String newSensorId) {
+        return new EventQuery(blankToNull(newSensorId), types, from, to, text);
+    }
+
+    public EventQuery withTypes(Set<EventType> newTypes) {
+        Set<EventType> copia = newTypes == null || newTypes.isEmpty() ? null
+                : Collections.unmodifiableSet(EnumSet.copyOf(newTypes));
+        return new EventQuery(sensorId, copia, from, to, text);
+    }
+
+    public EventQuery withTimeRange(long newFrom, long newTo) {
+        return new EventQuery(sensorId, types, newFrom, newTo, text);
+    }
+
+    // Busca sem diferenciar maiúsculas de minúsculas no texto da mensagem
+    public EventQuery withText(String newText) {
+        String normalizado = blankToNull(newText);
+        return new EventQuery(sensorId, types, from, to,
+                normalizado != null ? normalizado.toLowerCase(Locale.ROOT) : null);
+    }
+
+    public String getSensorId() {
+        return sensorId;
+    }
+
+    // null quando todos os tipos são aceitos
+    public Set<EventType> getTypes() {
+        return types;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean matches(LogEvent evento) {
+        if (sensorId != null && !sensorId.equals(evento.getSensorId())) {
+            return false;
+        }
+        if (types != null && !types.contains(evento.getType())) {
+            return false;
+        }
+        if (evento.getTimestamp() < from || evento.getTimestamp() >= to) {
+            return false;
+        }
+        return text == null || (evento.getMessage() != null
+                && evento.getMessage().toLowerCase(Locale.ROOT).contains(text));
+    }
+
+    private static String blankToNull(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.securitysystem;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+
+// Painel de busca no histórico de eventos: filtros por sensor, tipo, período e texto, com
+// páginas buscadas sob demanda a partir da sequência do evento mais antigo já exibido.
+class EventSearchDialog extends Dialog<Void> {
+
+    private static final int PAGE_SIZE = 100;
+    private static final String TODOS_OS_TIPOS = "Todos";
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final Supplier<AsyncSecuritySystem> servidor;
+    private final TextField sensorField = new TextField();
+    private final ComboBox<String> tipoBox = new ComboBox<>();
+    private final TextField deField = new TextField();
+    private final TextField ateField = new TextField();
+    private final TextField textoField = new TextField();
+    private final ListView<String> resultados = new ListView<>();
+    private final Button buscarButton = new Button("Buscar");
+    private final Button maisButton = new Button("Carregar mais");
+    private final Label statusLabel = new Label();
+
+    private EventQuery consulta = null;
+    private long proximaSequencia = Long.MAX_VALUE;
+    // Respostas de buscas já substituídas por outra são descartadas
+    private int buscaAtual = 0;
+
+    EventSearchDialog(Supplier<AsyncSecuritySystem> servidor, String sensorInicial) {
+        this.servidor = servidor;
+        setTitle("Buscar Eventos");
+        setHeaderText(null);
+        setResizable(true);
+        initModality(Modality.NONE);
+
+        sensorField.setText(sensorInicial != null ? sensorInicial : "");
+        sensorField.setPromptText("todos");
+        tipoBox.getItems().add(TODOS_OS_TIPOS);
+        for (EventType tipo : EventType.values()) {
+            tipoBox.getItems().add(tipo.name());
+        }
+        tipoBox.setValue(TODOS_OS_TIPOS);
+        deField.setPromptText("dd/MM/aaaa HH:mm");
+        ateField.setPromptText("dd/MM/aaaa HH:mm");
+        textoField.setPromptText("trecho da mensagem");
+
+        GridPane filtros = new GridPane();
+        filtros.setHgap(10);
+        filtros.setVgap(8);
+        filtros.addRow(0, new Label("Sensor:"), sensorField, new Label("Tipo:"), tipoBox);
+        filtros.addRow(1, new Label("De:"), deField, new Label("Até:"), ateField);
+        filtros.addRow(2, new Label("Texto:"), textoField);
+        GridPane.setColumnSpan(textoField, 3);
+
+        buscarButton.setDefaultButton(true);
+        buscarButton.setOnAction(event -> search());
+        maisButton.setDisable(true);
+        maisButton.setOnAction(event -> loadPage(buscaAtual));
+        HBox acoes = new HBox(10, buscarButton, maisButton, statusLabel);
+
+        resultados.setPrefSize(760, 420);
+        VBox.setVgrow(resultados, Priority.ALWAYS);
+        VBox conteudo = new VBox(10, filtros, acoes, resultados);
+        conteudo.setPadding(new Insets(10));
+
+        getDialogPane().setContent(conteudo);
+        getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+    }
+
+    private void search() {
+        EventQuery nova;
+        try {
+            nova = EventQuery.all()
+                    .withSensor(sensorField.getText())
+                    .withTimeRange(parseTime(deField.getText(), Long.MIN_VALUE), parseTime(ateField.getText(), Long.MAX_VALUE))
+                    .withText(textoField.getText());
+        } catch (DateTimeParseException e) {
+            statusLabel.setText("Data inválida: use dd/MM/aaaa HH:mm");
+            return;
+        }
+        if (!TODOS_OS_TIPOS.equals(tipoBox.getValue())) {
+            nova = nova.withTypes(EnumSet.of(EventType.valueOf(tipoBox.getValue())));
+        }
+        consulta = nova;
+        proximaSequencia = Long.MAX_VALUE;
+        resultados.getItems().clear();
+        loadPage(++buscaAtual);
+    }
+
+    private void loadPage(int busca) {
+        AsyncSecuritySystem atual = servidor.get();
+        if (atual == null) {
+            statusLabel.setText("Sem conexão com o servidor.");
+            return;
+        }
+        buscarButton.setDisable(true);
+        maisButton.setDisable(true);
+        statusLabel.setText("Buscando...");
+        atual.searchLogEvents(consulta, proximaSequencia, PAGE_SIZE).whenComplete((pagina, erro) -> Platform.runLater(() -> {
+            if (busca != buscaAtual) {
+                return;
+            }
+            buscarButton.setDisable(false);
+            if (erro != null) {
+                Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+                statusLabel.setText("Falha na busca: " + causa.getMessage());
+                return;
+            }
+            for (LogEvent evento : pagina.getEvents()) {
+                resultados.getItems().add(format(evento));
+            }
+            if (pagina.size() > 0) {
+                proximaSequencia = pagina.getOldestSequence();
+            }
+            maisButton.setDisable(pagina.size() < PAGE_SIZE);
+            statusLabel.setText(resultados.getItems().isEmpty() ? "Nenhum evento encontrado."
+                    : resultados.getItems().size() + " evento(s)");
+        }));
+    }
+
+    private static String format(LogEvent evento) {
+        String sensor = evento.getSensorId() != null ? " " + evento.getSensorId() : "";
+        return evento + "   (" + evento.getType() + sensor + ")";
+    }
+
+    private static long parseTime(String texto, long padrao) {
+        if (texto == null || texto.isBlank()) {
+            return padrao;
+        }
+        return LocalDateTime.parse(texto.trim(), DATA_HORA).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
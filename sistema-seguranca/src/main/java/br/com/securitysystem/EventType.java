@@ -0,0 +1,5 @@
+package br.com.securitysystem;
+
+public enum EventType {
+    SYSTEM, ALARM, SENSOR, VIOLATION, EXTERNAL, SUPERVISION
+}
@@ -0,0 +1,119 @@
+package br.com.securitysystem;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latência no estilo HDR: buckets log-lineares (16 por potência de 2, erro
+// relativo de até ~6%) contados com incrementos atômicos, sem locks nem alocação. Os contadores
+// são espalhados em faixas por thread para que chamadas concorrentes não disputem a mesma linha.
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Até 2^40 ns (~18 minutos); valores maiores caem no último bucket
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final int STRIPES = 4;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(BUCKETS * STRIPES);
+    private final LongAdder soma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int faixa = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        contagens.getAndIncrement(faixa * BUCKETS + bucketOf(nanos));
+        soma.add(nanos);
+        long atual = maximo.get();
+        while (nanos > atual && !maximo.compareAndSet(atual, nanos)) {
+            atual = maximo.get();
+        }
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(nanos);
+        if (expoente > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (nanos >>> (expoente - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (expoente - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // Maior valor que cai no bucket
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int expoente = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (expoente - SUB_BUCKET_BITS)) - 1;
+    }
+
+    Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < contagens.length(); i++) {
+            long valor = contagens.get(i);
+            buckets[i % BUCKETS] += valor;
+            total += valor;
+        }
+        return new Snapshot(buckets, total, soma.sum(), maximo.get());
+    }
+
+    void reset() {
+        for (int i = 0; i < contagens.length(); i++) {
+            contagens.set(i, 0);
+        }
+        soma.reset();
+        maximo.set(0);
+    }
+
+    // Leitura consistente o bastante para métricas: os buckets são lidos um a um, então
+    // registros concorrentes podem aparecer só em parte
+    static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        long getMax() {
+            return max;
+        }
+
+        long percentile(double percentil) {
+            if (count == 0) {
+                return 0;
+            }
+            long alvo = Math.max(1, (long) Math.ceil(count * percentil / 100.0));
+            long acumulado = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                acumulado += buckets[i];
+                if (acumulado >= alvo) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
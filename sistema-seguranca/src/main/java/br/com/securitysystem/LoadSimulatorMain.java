@@ -0,0 +1,345 @@
+package br.com.securitysystem;
+
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Simulador de prédio sem interface gráfica: registra N sensores, gera tráfego de vários clientes
+// concorrentes (abrir/fechar, armar/desarmar, reset) e mantém M painéis consultando o servidor como
+// o DashboardController faz. Ao final mostra vazão, percentis de latência e erros por operação.
+//
+// Com -Dsim.rate cada cliente segue uma agenda fixa e a latência é medida a partir do horário
+// previsto da chamada, não de quando ela saiu; um servidor lento não esconde a própria fila.
+public class LoadSimulatorMain {
+
+    private static final String SENSOR_PREFIX = "sim_";
+    private static final long REPORT_INTERVAL_MS = 5000;
+    // Um painel abre a lista de eventos a cada tantas atualizações
+    private static final int LOG_VIEW_EVERY = 10;
+
+    enum Operation {
+        SET_SENSOR_STATUS("setSensorStatus", 80),
+        GET_SENSOR_STATUS("getSensorStatus", 10),
+        RESET_SENSOR_ALARM("resetSensorAlarm", 6),
+        HEARTBEATS("heartbeats", 3),
+        SET_ALARM_STATUS("setAlarmStatus", 1),
+        GET_DASHBOARD_SNAPSHOT("getDashboardSnapshot", 0),
+        GET_LOG_PAGE("getLogPage", 0);
+
+        private final String nome;
+        // Peso no sorteio das operações dos clientes; 0 = não sorteada
+        private final int peso;
+        private final LatencyHistogram latencia = new LatencyHistogram();
+        private final LongAdder erros = new LongAdder();
+
+        Operation(String nome, int peso) {
+            this.nome = nome;
+            this.peso = peso;
+        }
+    }
+
+    private static final Operation[] SORTEADAS;
+    private static final int PESO_TOTAL;
+
+    static {
+        List<Operation> sorteadas = new ArrayList<>();
+        int total = 0;
+        for (Operation operacao : Operation.values()) {
+            if (operacao.peso > 0) {
+                sorteadas.add(operacao);
+                total += operacao.peso;
+            }
+        }
+        SORTEADAS = sorteadas.toArray(new Operation[0]);
+        PESO_TOTAL = total;
+    }
+
+    private final String host;
+    private final int porta;
+    private final int sensores;
+    private final int clientes;
+    private final int paineis;
+    private final long duracaoMs;
+    private final long aquecimentoMs;
+    private final double taxaPorCliente;
+    private final long intervaloPainelMs;
+
+    private volatile boolean rodando = true;
+    private final LongAdder concluidas = new LongAdder();
+
+    LoadSimulatorMain(String host, int porta, int sensores, int clientes, int paineis, long duracaoMs,
+            long aquecimentoMs, double taxaPorCliente, long intervaloPainelMs) {
+        this.host = host;
+        this.porta = porta;
+        this.sensores = Math.max(1, sensores);
+        this.clientes = Math.max(1, clientes);
+        this.paineis = Math.max(0, paineis);
+        this.duracaoMs = duracaoMs;
+        this.aquecimentoMs = aquecimentoMs;
+        this.taxaPorCliente = taxaPorCliente;
+        this.intervaloPainelMs = Math.max(1, intervaloPainelMs);
+    }
+
+    // -Dsim.host=localhost -Dsim.port=1099 -Dsim.sensors=1000 -Dsim.clients=16 -Dsim.dashboards=4
+    // -Dsim.duration.s=60 -Dsim.warmup.s=5 -Dsim.rate=0 (chamadas/s por cliente; 0 = sem pausa)
+    // -Dsim.dashboard.poll.ms=2000; -Dsim.embedded=true sobe um servidor neste processo
+    public static void main(String[] args) throws Exception {
+        String host = System.getProperty("sim.host", "localhost");
+        int porta = Integer.getInteger("sim.port", 1099);
+        System.setProperty("java.rmi.server.hostname", host);
+        if (Boolean.getBoolean("sim.embedded")) {
+            startEmbeddedServer(porta);
+        }
+        LoadSimulatorMain simulador = new LoadSimulatorMain(host, porta,
+                Integer.getInteger("sim.sensors", 1000),
+                Integer.getInteger("sim.clients", 16),
+                Integer.getInteger("sim.dashboards", 4),
+                Long.getLong("sim.duration.s", 60) * 1000,
+                Long.getLong("sim.warmup.s", 5) * 1000,
+                Double.parseDouble(System.getProperty("sim.rate", "0")),
+                Long.getLong("sim.dashboard.poll.ms", 2000));
+        simulador.run();
+        System.exit(0);
+    }
+
+    private static void startEmbeddedServer(int porta) throws Exception {
+        SecuritySystemImpl sistema = new SecuritySystemImpl();
+        Registry registry = LocateRegistry.createRegistry(porta);
+        registry.rebind("SecuritySystemService", sistema);
+        System.out.println("[SIM] Servidor embutido publicado na porta " + porta);
+    }
+
+    void run() throws Exception {
+        System.out.printf("[SIM] %d sensores, %d clientes, %d painéis, %d s (+%d s de aquecimento) em %s:%d%n",
+                sensores, clientes, paineis, duracaoMs / 1000, aquecimentoMs / 1000, host, porta);
+        registerSensors();
+
+        ExecutorService threads = Executors.newFixedThreadPool(clientes + paineis, runnable -> {
+            Thread thread = new Thread(runnable, "sim-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < clientes; i++) {
+            int cliente = i;
+            threads.execute(() -> runClient(cliente));
+        }
+        for (int i = 0; i < paineis; i++) {
+            threads.execute(this::runDashboard);
+        }
+
+        if (aquecimentoMs > 0) {
+            Thread.sleep(aquecimentoMs);
+            for (Operation operacao : Operation.values()) {
+                operacao.latencia.reset();
+                operacao.erros.reset();
+            }
+            concluidas.reset();
+        }
+        long inicio = System.nanoTime();
+        long fim = inicio + TimeUnit.MILLISECONDS.toNanos(duracaoMs);
+        long anteriores = 0;
+        while (System.nanoTime() < fim) {
+            Thread.sleep(Math.min(REPORT_INTERVAL_MS, Math.max(1, TimeUnit.NANOSECONDS.toMillis(fim - System.nanoTime()))));
+            long total = concluidas.sum();
+            double decorrido = (System.nanoTime() - inicio) / 1e9;
+            System.out.printf("[SIM] %5.0f s: %,d chamadas (%,.0f/s no intervalo)%n", decorrido, total,
+                    (total - anteriores) * 1000.0 / REPORT_INTERVAL_MS);
+            anteriores = total;
+        }
+        rodando = false;
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        threads.shutdown();
+        threads.awaitTermination(10, TimeUnit.SECONDS);
+        report(segundos);
+    }
+
+    // Registro dos sensores em paralelo, uma conexão por cliente; não entra nas estatísticas
+    private void registerSensors() throws Exception {
+        long inicio = System.nanoTime();
+        ExecutorService threads = Executors.newFixedThreadPool(clientes);
+        LongAdder falhas = new LongAdder();
+        for (int i = 0; i < clientes; i++) {
+            int cliente = i;
+            threads.execute(() -> {
+                try {
+                    SecuritySystem servidor = connect();
+                    for (int sensor = cliente; sensor < sensores; sensor += clientes) {
+                        servidor.addSensor(sensorId(sensor));
+                    }
+                } catch (Exception e) {
+                    falhas.increment();
+                    System.err.println("[SIM] Falha ao registrar sensores: " + e);
+                }
+            });
+        }
+        threads.shutdown();
+        threads.awaitTermination(10, TimeUnit.MINUTES);
+        if (falhas.sum() > 0) {
+            throw new IllegalStateException("registro dos sensores falhou em " + falhas.sum() + " cliente(s)");
+        }
+        System.out.printf("[SIM] Sensores registrados em %.1f s%n", (System.nanoTime() - inicio) / 1e9);
+    }
+
+    // Cada cliente cuida dos sensores i, i + clientes, ... e mantém o último estado enviado
+    // para alternar aberto/fechado como uma porta de verdade
+    private void runClient(int cliente) {
+        SecuritySystem servidor;
+        try {
+            servidor = connect();
+        } catch (Exception e) {
+            System.err.println("[SIM] Cliente " + cliente + " sem conexão: " + e);
+            return;
+        }
+        int meus = (sensores - cliente + clientes - 1) / clientes;
+        if (meus == 0) {
+            return;
+        }
+        boolean[] abertos = new boolean[meus];
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        long periodo = taxaPorCliente > 0 ? (long) (1e9 / taxaPorCliente) : 0;
+        long previsto = System.nanoTime();
+        while (rodando) {
+            if (periodo > 0) {
+                previsto += periodo;
+                if (!sleepUntil(previsto)) {
+                    return;
+                }
+            } else {
+                previsto = System.nanoTime();
+            }
+            int local = aleatorio.nextInt(meus);
+            String sensorId = sensorId(cliente + local * clientes);
+            Operation operacao = pick(aleatorio.nextInt(PESO_TOTAL));
+            try {
+                switch (operacao) {
+                    case SET_SENSOR_STATUS:
+                        abertos[local] = !abertos[local];
+                        servidor.setSensorStatus(sensorId, abertos[local]);
+                        break;
+                    case GET_SENSOR_STATUS:
+                        servidor.getSensorStatus(sensorId);
+                        break;
+                    case RESET_SENSOR_ALARM:
+                        servidor.resetSensorAlarm(sensorId);
+                        break;
+                    case HEARTBEATS:
+                        servidor.heartbeats(heartbeatBatch(cliente, meus, aleatorio));
+                        break;
+                    case SET_ALARM_STATUS:
+                        servidor.setAlarmStatus(aleatorio.nextBoolean());
+                        break;
+                    default:
+                        throw new IllegalStateException("operação não sorteável: " + operacao);
+                }
+                operacao.latencia.record(System.nanoTime() - previsto);
+            } catch (Exception e) {
+                operacao.erros.increment();
+            }
+            concluidas.increment();
+        }
+    }
+
+    private void runDashboard() {
+        SecuritySystem servidor;
+        try {
+            servidor = connect();
+        } catch (Exception e) {
+            System.err.println("[SIM] Painel sem conexão: " + e);
+            return;
+        }
+        // Painéis desencontrados, como vários operadores abrindo o sistema em horários diferentes
+        long previsto = System.nanoTime() + ThreadLocalRandom.current().nextLong(TimeUnit.MILLISECONDS.toNanos(intervaloPainelMs));
+        long atualizacoes = 0;
+        while (rodando && sleepUntil(previsto)) {
+            call(Operation.GET_DASHBOARD_SNAPSHOT, previsto, servidor::getDashboardSnapshot);
+            if (++atualizacoes % LOG_VIEW_EVERY == 0) {
+                call(Operation.GET_LOG_PAGE, System.nanoTime(), () -> servidor.getLogPage(Long.MAX_VALUE, 20));
+            }
+            previsto += TimeUnit.MILLISECONDS.toNanos(intervaloPainelMs);
+        }
+    }
+
+    private void call(Operation operacao, long previsto, RemoteCall chamada) {
+        try {
+            chamada.invoke();
+            operacao.latencia.record(System.nanoTime() - previsto);
+        } catch (Exception e) {
+            operacao.erros.increment();
+        }
+        concluidas.increment();
+    }
+
+    private static boolean sleepUntil(long previsto) {
+        long espera = previsto - System.nanoTime();
+        if (espera > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(espera);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<String> heartbeatBatch(int cliente, int meus, ThreadLocalRandom aleatorio) {
+        int tamanho = Math.min(meus, 16);
+        List<String> lote = new ArrayList<>(tamanho);
+        int primeiro = aleatorio.nextInt(meus);
+        for (int i = 0; i < tamanho; i++) {
+            lote.add(sensorId(cliente + ((primeiro + i) % meus) * clientes));
+        }
+        return lote;
+    }
+
+    private void report(double segundos) {
+        System.out.printf("%n[SIM] Resultado em %.1f s%n", segundos);
+        System.out.printf("%-22s %12s %10s %10s %10s %10s %10s %10s %8s%n",
+                "operação", "chamadas", "por s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms", "erros");
+        long totalChamadas = 0;
+        long totalErros = 0;
+        for (Operation operacao : Operation.values()) {
+            LatencyHistogram.Snapshot s = operacao.latencia.snapshot();
+            long erros = operacao.erros.sum();
+            if (s.getCount() == 0 && erros == 0) {
+                continue;
+            }
+            totalChamadas += s.getCount() + erros;
+            totalErros += erros;
+            System.out.printf("%-22s %,12d %,10.0f %10.3f %10.3f %10.3f %10.3f %10.3f %,8d%n",
+                    operacao.nome, s.getCount() + erros, (s.getCount() + erros) / segundos,
+                    s.percentile(50) / 1e6, s.percentile(90) / 1e6, s.percentile(99) / 1e6,
+                    s.percentile(99.9) / 1e6, s.getMax() / 1e6, erros);
+        }
+        System.out.printf("%-22s %,12d %,10.0f %54s %,8d%n", "total", totalChamadas, totalChamadas / segundos, "", totalErros);
+    }
+
+    private SecuritySystem connect() throws Exception {
+        Registry registry = LocateRegistry.getRegistry(host, porta);
+        return (SecuritySystem) registry.lookup("SecuritySystemService");
+    }
+
+    private static Operation pick(int sorteio) {
+        for (Operation operacao : SORTEADAS) {
+            sorteio -= operacao.peso;
+            if (sorteio < 0) {
+                return operacao;
+            }
+        }
+        return SORTEADAS[SORTEADAS.length - 1];
+    }
+
+    private static String sensorId(int indice) {
+        return SENSOR_PREFIX + indice;
+    }
+
+    private interface RemoteCall {
+        void invoke() throws Exception;
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.securitysystem;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+public class LogEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    private final long sequence;
+    private final long timestamp;
+    private final EventType type;
+    private final String sensorId;
+    private final String message;
+
+    public LogEvent(long sequence, long timestamp, EventType type, String sensorId, String message) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.sensorId = sensorId;
+        this.message = message;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public String getSensorId() {
+        return sensorId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(timestamp)) + "] " + message;
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.securitysystem;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Página do log de eventos na forma compacta usada pelo RMI, do mais recente para o mais
+// antigo. Sequência e horário vão como diferença para o evento anterior em varint, que numa
+// página costuma caber em um ou dois bytes:
+// [int eventos]{[varint Δseq][varint Δts][byte tipo][utf8 sensor][utf8 mensagem]}
+public final class LogPage implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<LogEvent> eventos;
+
+    // Exigido pelo Externalizable
+    public LogPage() {
+        this(List.of());
+    }
+
+    LogPage(List<LogEvent> eventos) {
+        this.eventos = Collections.unmodifiableList(eventos);
+    }
+
+    public List<LogEvent> getEvents() {
+        return eventos;
+    }
+
+    public int size() {
+        return eventos.size();
+    }
+
+    // Sequência a passar em getLogPage para buscar os eventos mais antigos que esta página
+    public long getOldestSequence() {
+        return eventos.isEmpty() ? -1 : eventos.get(eventos.size() - 1).getSequence();
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput saida) throws IOException {
+        WireFormat.Writer corpo = new WireFormat.Writer(8 + eventos.size() * 64);
+        corpo.writeInt(eventos.size());
+        long sequencia = 0;
+        long timestamp = 0;
+        for (LogEvent evento : eventos) {
+            corpo.writeVarLong(zigZag(evento.getSequence() - sequencia));
+            corpo.writeVarLong(zigZag(evento.getTimestamp() - timestamp));
+            corpo.writeByte(evento.getType().ordinal());
+            corpo.writeString(evento.getSensorId());
+            corpo.writeString(evento.getMessage());
+            sequencia = evento.getSequence();
+            timestamp = evento.getTimestamp();
+        }
+        WireFormat.writeTo(saida, corpo);
+    }
+
+    @Override
+    public void readExternal(ObjectInput entrada) throws IOException {
+        WireFormat.Reader corpo = WireFormat.readFrom(entrada);
+        int total = corpo.readInt();
+        if (total < 0) {
+            throw new InvalidObjectException("Total de eventos inválido: " + total);
+        }
+        EventType[] tipos = EventType.values();
+        List<LogEvent> lidos = new ArrayList<>(total);
+        long sequencia = 0;
+        long timestamp = 0;
+        for (int i = 0; i < total; i++) {
+            sequencia += unZigZag(corpo.readVarLong());
+            timestamp += unZigZag(corpo.readVarLong());
+            int tipo = corpo.readByte();
+            if (tipo < 0 || tipo >= tipos.length) {
+                throw new InvalidObjectException("Tipo de evento inválido: " + tipo);
+            }
+            String sensorId = corpo.readString();
+            lidos.add(new LogEvent(sequencia, timestamp, tipos[tipo], sensorId, corpo.readString()));
+        }
+        eventos = Collections.unmodifiableList(lidos);
+    }
+
+    private static long zigZag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long unZigZag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+}
@@ -0,0 +1,259 @@
+package br.com.securitysystem;
+
+import java.nio.charset.StandardCharsets;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+
+// Consome leituras de sensores via MQTT (building/<predio>/sensor/<id>, payload ABERTO/FECHADO ou HEARTBEAT)
+// e as aplica em lotes no SecuritySystem. A fila é limitada: se encher, a thread de callback
+// do Paho bloqueia e o broker deixa de receber ACKs, em vez de acumular mensagens em memória.
+// Disparos de alarme e violações são publicados de volta no broker.
+public class MqttSensorGateway implements MqttCallbackExtended, SecuritySystemListener {
+
+    public static final String DEFAULT_TOPIC = "building/+/sensor/+";
+    private static final String ALARM_TOPIC = "building/alarm";
+    private static final String DEFAULT_BUILDING = "geral";
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_INFLIGHT = 1000;
+
+    private final SecuritySystem sistema;
+    private final String topicFilter;
+    private final MqttAsyncClient client;
+    private final BlockingQueue<SensorReading> fila = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<String, String> predioPorSensor = new ConcurrentHashMap<>();
+    private final Thread consumidor;
+    private volatile boolean rodando = false;
+
+    private final AtomicLong recebidas = new AtomicLong();
+    private final AtomicLong aplicadas = new AtomicLong();
+    private final AtomicLong invalidas = new AtomicLong();
+    private final AtomicLong publicacoesPerdidas = new AtomicLong();
+
+    public MqttSensorGateway(SecuritySystem sistema, String brokerUrl, String topicFilter) throws MqttException {
+        this.sistema = sistema;
+        this.topicFilter = topicFilter;
+        this.client = new MqttAsyncClient(brokerUrl, "security-system-" + System.nanoTime(), new MemoryPersistence());
+        this.client.setCallback(this);
+        this.consumidor = new Thread(this::consume, "mqtt-sensor-consumer");
+        this.consumidor.setDaemon(true);
+    }
+
+    public void start() throws MqttException, RemoteException {
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(true);
+        options.setMaxInflight(MAX_INFLIGHT);
+        rodando = true;
+        consumidor.start();
+        client.connect(options).waitForCompletion();
+        sistema.registerListener(this);
+    }
+
+    public void stop() {
+        rodando = false;
+        consumidor.interrupt();
+        try {
+            sistema.unregisterListener(this);
+        } catch (RemoteException e) {
+            System.err.println("[MQTT] Falha ao cancelar notificações: " + e.getMessage());
+        }
+        try {
+            client.disconnect().waitForCompletion();
+            client.close();
+        } catch (MqttException e) {
+            System.err.println("[MQTT] Falha ao desconectar: " + e.getMessage());
+        }
+    }
+
+    public int getQueueDepth() {
+        return fila.size();
+    }
+
+    public long getReceivedCount() {
+        return recebidas.get();
+    }
+
+    public long getAppliedCount() {
+        return aplicadas.get();
+    }
+
+    public long getInvalidCount() {
+        return invalidas.get();
+    }
+
+    public long getDroppedPublishCount() {
+        return publicacoesPerdidas.get();
+    }
+
+    // CALLBACKS MQTT
+
+    @Override
+    public void connectComplete(boolean reconnect, String serverUri) {
+        try {
+            // Com sessão limpa, a assinatura precisa ser refeita a cada reconexão
+            client.subscribe(topicFilter, 1);
+            System.out.println("[MQTT] Conectado a " + serverUri + ", assinando " + topicFilter);
+        } catch (MqttException e) {
+            System.err.println("[MQTT] Falha ao assinar " + topicFilter + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        System.err.println("[MQTT] Conexão perdida: " + cause.getMessage() + ". Tentando reconectar...");
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) throws Exception {
+        recebidas.incrementAndGet();
+        SensorReading leitura = SensorReading.parse(topic, message.getPayload());
+        if (leitura == null) {
+            invalidas.incrementAndGet();
+            return;
+        }
+        predioPorSensor.put(leitura.sensorId, leitura.predio);
+        fila.put(leitura);
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+    }
+
+    // NOTIFICAÇÕES DO SISTEMA
+
+    @Override
+    public void onStateChanged(List<StateChange> changes) {
+        for (StateChange change : changes) {
+            if (change.getType() == StateChange.Type.ALARM) {
+                String estado = change.isAlarmLocked() ? "TRANCADO" : change.isAlarmActive() ? "ATIVO" : "DESATIVADO";
+                publish(ALARM_TOPIC, estado, true);
+            } else if (change.getType() == StateChange.Type.SENSOR_UPDATED
+                    && SensorState.ALERTA_TRANCADO.name().equals(change.getStatus())) {
+                String predio = predioPorSensor.getOrDefault(change.getSensorId(), DEFAULT_BUILDING);
+                publish("building/" + predio + "/sensor/" + change.getSensorId() + "/alert", change.getStatus(), false);
+            }
+        }
+    }
+
+    private void publish(String topic, String payload, boolean retained) {
+        try {
+            client.publish(topic, payload.getBytes(StandardCharsets.UTF_8), 1, retained);
+        } catch (MqttException e) {
+            // Broker fora ou janela de envio cheia: não bloqueia a entrega de notificações
+            publicacoesPerdidas.incrementAndGet();
+        }
+    }
+
+    // CONSUMO EM LOTES
+
+    private void consume() {
+        List<SensorReading> pendentes = new ArrayList<>(MAX_BATCH_SIZE);
+        while (rodando) {
+            try {
+                pendentes.add(fila.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            fila.drainTo(pendentes, MAX_BATCH_SIZE - 1);
+            applyInOrder(pendentes);
+            pendentes.clear();
+        }
+    }
+
+    // Um lote não pode ter o mesmo sensor duas vezes (abrir e fechar viraria só fechar),
+    // então ele é cortado na primeira repetição. Os heartbeats do lote vão numa única chamada.
+    private void applyInOrder(List<SensorReading> leituras) {
+        Map<String, Boolean> lote = new LinkedHashMap<>();
+        List<String> vivos = new ArrayList<>();
+        for (SensorReading leitura : leituras) {
+            if (leitura.heartbeat) {
+                vivos.add(leitura.sensorId);
+                continue;
+            }
+            if (lote.containsKey(leitura.sensorId)) {
+                apply(lote);
+                lote = new LinkedHashMap<>();
+            }
+            lote.put(leitura.sensorId, leitura.open);
+        }
+        apply(lote);
+        if (!vivos.isEmpty()) {
+            try {
+                sistema.heartbeats(vivos);
+            } catch (RemoteException | RuntimeException e) {
+                System.err.println("[MQTT] Falha ao repassar " + vivos.size() + " heartbeats: " + e.getMessage());
+            }
+        }
+    }
+
+    private void apply(Map<String, Boolean> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            sistema.setSensorStatuses(lote);
+            aplicadas.addAndGet(lote.size());
+        } catch (RemoteException | RuntimeException e) {
+            // Inclui falha do journal: o lote é perdido, mas a thread de consumo continua
+            System.err.println("[MQTT] Falha ao aplicar lote de " + lote.size() + " leituras: " + e.getMessage());
+        }
+    }
+
+    private static final class SensorReading {
+        private final String predio;
+        private final String sensorId;
+        private final boolean open;
+        // Só sinal de vida, sem estado
+        private final boolean heartbeat;
+
+        private SensorReading(String predio, String sensorId, boolean open, boolean heartbeat) {
+            this.predio = predio;
+            this.sensorId = sensorId;
+            this.open = open;
+            this.heartbeat = heartbeat;
+        }
+
+        static SensorReading parse(String topic, byte[] payload) {
+            String[] partes = topic.split("/");
+            if (partes.length != 4 || !partes[2].equals("sensor") || partes[3].isEmpty()) {
+                return null;
+            }
+            String valor = new String(payload, StandardCharsets.UTF_8).trim().toUpperCase();
+            switch (valor) {
+                case "ABERTO":
+                case "OPEN":
+                case "1":
+                case "TRUE":
+                    return new SensorReading(partes[1], partes[3], true, false);
+                case "FECHADO":
+                case "CLOSED":
+                case "0":
+                case "FALSE":
+                    return new SensorReading(partes[1], partes[3], false, false);
+                case "HEARTBEAT":
+                case "PING":
+                    return new SensorReading(partes[1], partes[3], false, true);
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package br.com.securitysystem;
+
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Mantém um SecuritySystemImpl em standby como cópia do primário. O primário entrega as
+// mudanças em lotes pelo ChangeNotifier (fila própria por listener, com o próximo lote se
+// acumulando enquanto o anterior está em voo); lacunas de versão, reconexões e um listener
+// descartado são resolvidos com getChangesSince.
+//
+// A promoção é manual (JMX, type=Replication, operação promote): o standby não tem como saber se
+// o primário caiu ou só ficou inacessível para ele, e promover sozinho deixaria dois primários
+// aceitando escritas. O operador garante que o antigo primário parou e então promove; o standby
+// só avisa no log quando o primário passa do limite sem contato.
+class ReplicaSync implements ReplicationMetricsMXBean {
+
+    private static final String SERVICE_NAME = "SecuritySystemService";
+    private static final long HEARTBEAT_MS = 500;
+    private static final long DEFAULT_WARN_AFTER_MS = 3000;
+
+    private final SecuritySystemImpl replica;
+    private final String endereco;
+    private final long avisarAposMs;
+    private final Runnable aoPromover;
+    private final LatencyHistogram atraso = new LatencyHistogram();
+    private final LongAdder aplicadas = new LongAdder();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SecuritySystem primario;
+    private ClientChangeListener listener;
+    private long versao = -1;
+    private boolean alarmeArmado;
+    private boolean avisado;
+    private volatile long ultimoContato = System.currentTimeMillis();
+    private volatile boolean conectado;
+    private volatile boolean promovido;
+
+    ReplicaSync(SecuritySystemImpl replica, String endereco, long avisarAposMs, Runnable aoPromover) {
+        this.replica = replica;
+        this.endereco = endereco;
+        this.avisarAposMs = avisarAposMs;
+        this.aoPromover = aoPromover;
+    }
+
+    // -Dreplica.warn.after.ms=3000
+    static ReplicaSync fromSystemProperties(SecuritySystemImpl replica, String endereco, Runnable aoPromover) {
+        return new ReplicaSync(replica, endereco, Long.getLong("replica.warn.after.ms", DEFAULT_WARN_AFTER_MS),
+                aoPromover);
+    }
+
+    void start() {
+        heartbeat.scheduleWithFixedDelay(this::heartbeat, 0, HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Reassina (registerListener não duplica) e busca o que faltar: cobre listener descartado,
+    // lotes perdidos e o primário reiniciado
+    private synchronized void heartbeat() {
+        if (promovido) {
+            return;
+        }
+        try {
+            if (primario == null) {
+                int separador = endereco.lastIndexOf(':');
+                primario = (SecuritySystem) LocateRegistry.getRegistry(endereco.substring(0, separador),
+                        Integer.parseInt(endereco.substring(separador + 1))).lookup(SERVICE_NAME);
+            }
+            if (listener == null) {
+                listener = new ClientChangeListener(this::onChanges);
+            }
+            primario.registerListener(listener);
+            resync();
+            if (!conectado) {
+                System.out.println("[REPLICA] Sincronizado com o primário " + endereco + " (versão " + versao + ").");
+            }
+            conectado = true;
+            avisado = false;
+            ultimoContato = System.currentTimeMillis();
+        } catch (RemoteException | NotBoundException | RuntimeException e) {
+            primario = null;
+            if (conectado) {
+                System.err.println("[REPLICA] Primário " + endereco + " inacessível: " + e.getMessage());
+            }
+            conectado = false;
+            if (!avisado && versao >= 0 && System.currentTimeMillis() - ultimoContato >= avisarAposMs) {
+                avisado = true;
+                System.err.println("[REPLICA] Sem contato com o primário há " + (System.currentTimeMillis() - ultimoContato)
+                        + " ms. Depois de garantir que ele parou, promova este standby pelo JMX (promote).");
+            }
+        }
+    }
+
+    private synchronized void onChanges(List<StateChange> changes) {
+        if (promovido || primario == null) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        try {
+            for (StateChange change : changes) {
+                if (change.getVersion() <= versao) {
+                    continue;
+                }
+                if (versao < 0 || change.getVersion() != versao + 1) {
+                    // Lacuna: busca o delta; o que o delta já cobriu é pulado no resto do lote
+                    resync();
+                    continue;
+                }
+                apply(change);
+                versao = change.getVersion();
+                aplicadas.increment();
+                atraso.record(Math.max(0, agora - change.getTimestamp()) * 1_000_000);
+            }
+            ultimoContato = agora;
+        } catch (RemoteException e) {
+            // O heartbeat tenta de novo e decide sobre a promoção
+            System.err.println("[REPLICA] Falha ao buscar mudanças do primário: " + e.getMessage());
+        }
+    }
+
+    private void apply(StateChange change) {
+        switch (change.getType()) {
+            case SENSOR_UPDATED:
+                replica.applyReplicatedSensor(change.getSensorId(), SensorState.valueOf(change.getStatus()));
+                break;
+            case SENSOR_REMOVED:
+                replica.applyReplicatedRemoval(change.getSensorId());
+                break;
+            case ALARM:
+                if (change.isAlarmArmed() != alarmeArmado) {
+                    alarmeArmado = change.isAlarmArmed();
+                    replica.applyReplicatedAlarm(alarmeArmado);
+                }
+                break;
+            case ZONE_UPDATED:
+                replica.applyReplicatedZone(change.getZoneId(), change.getParentZoneId(), change.isZoneArmed());
+                break;
+            case ZONE_REMOVED:
+                replica.applyReplicatedZoneRemoval(change.getZoneId());
+                break;
+            case SENSOR_ZONE:
+                replica.applyReplicatedSensorZone(change.getSensorId(), change.getZoneId());
+                break;
+        }
+    }
+
+    // O delta não traz o alarme nem as zonas; eles são lidos depois, então nunca são mais antigos
+    // que os sensores. As zonas só são relidas quando o delta avançou (pode ter pulado mudanças de
+    // zona); as mudanças seguintes chegam pelo push. A trava vem dos sensores em alerta; do
+    // primário só se copia se o alarme está armado
+    private void resync() throws RemoteException {
+        SensorChanges changes = primario.getChangesSince(versao);
+        if (changes.isFullSnapshot()) {
+            replica.retainReplicatedSensors(changes.getUpdated().keySet());
+        } else {
+            for (String sensorId : changes.getRemoved()) {
+                replica.applyReplicatedRemoval(sensorId);
+            }
+        }
+        for (Map.Entry<String, String> sensor : changes.getUpdated().entrySet()) {
+            replica.applyReplicatedSensor(sensor.getKey(), SensorState.valueOf(sensor.getValue()));
+        }
+        boolean armado = primario.isAlarmArmed();
+        if (versao < 0 || armado != alarmeArmado) {
+            alarmeArmado = armado;
+            replica.applyReplicatedAlarm(armado);
+        }
+        if (versao < 0 || changes.getVersion() != versao) {
+            replica.retainReplicatedZones(primario.getZoneStatuses(), primario.getSensorZones());
+        }
+        versao = Math.max(versao, changes.getVersion());
+    }
+
+    @Override
+    public synchronized void promote() {
+        if (promovido) {
+            return;
+        }
+        if (versao < 0) {
+            throw new IllegalStateException("O standby ainda não sincronizou com o primário " + endereco);
+        }
+        promovido = true;
+        heartbeat.shutdown();
+        if (listener != null) {
+            try {
+                UnicastRemoteObject.unexportObject(listener, true);
+            } catch (RemoteException e) {
+                // Já não estava exportado
+            }
+        }
+        replica.promoteReplica(alarmeArmado);
+        System.out.println("[REPLICA] Standby promovido a primário (última versão do antigo primário: " + versao + ").");
+        aoPromover.run();
+    }
+
+    @Override
+    public String getPrimary() {
+        return endereco;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return conectado;
+    }
+
+    @Override
+    public boolean isPromoted() {
+        return promovido;
+    }
+
+    @Override
+    public synchronized long getLastAppliedVersion() {
+        return versao;
+    }
+
+    @Override
+    public long getAppliedChanges() {
+        return aplicadas.sum();
+    }
+
+    @Override
+    public long getMillisSinceLastContact() {
+        return System.currentTimeMillis() - ultimoContato;
+    }
+
+    @Override
+    public double getLagMeanMillis() {
+        return atraso.snapshot().getMean() / 1_000_000.0;
+    }
+
+    @Override
+    public double getLagP50Millis() {
+        return atraso.snapshot().percentile(50) / 1_000_000.0;
+    }
+
+    @Override
+    public double getLagP99Millis() {
+        return atraso.snapshot().percentile(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getLagMaxMillis() {
+        return atraso.snapshot().getMax() / 1_000_000.0;
+    }
+
+    @Override
+    public void resetLag() {
+        atraso.reset();
+    }
+}
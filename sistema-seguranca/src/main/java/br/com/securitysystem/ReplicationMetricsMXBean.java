@@ -0,0 +1,31 @@
+package br.com.securitysystem;
+
+// Estado da replicação no standby. O atraso compara o horário em que o primário versionou cada
+// mudança com o horário em que o standby a aplicou, então supõe relógios sincronizados (NTP).
+public interface ReplicationMetricsMXBean {
+
+    String getPrimary();
+
+    boolean isConnected();
+
+    boolean isPromoted();
+
+    long getLastAppliedVersion();
+
+    long getAppliedChanges();
+
+    long getMillisSinceLastContact();
+
+    double getLagMeanMillis();
+
+    double getLagP50Millis();
+
+    double getLagP99Millis();
+
+    double getLagMaxMillis();
+
+    void resetLag();
+
+    // Promove o standby a primário; só depois de garantir que o antigo primário parou
+    void promote();
+}
@@ -0,0 +1,21 @@
+package br.com.securitysystem;
+
+// Latências em microssegundos, medidas dentro do servidor (sem a rede e a serialização do RMI)
+public interface RmiMethodMetricsMXBean {
+
+    long getCallCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
@@ -11,19 +11,81 @@ public interface SecuritySystem extends Remote {
 
     boolean isAlarmActive() throws RemoteException;
 
+    // Armado pelo operador, independentemente de violações que tranquem o alarme
+    boolean isAlarmArmed() throws RemoteException;
+
     String setSensorStatus(String sensorId, boolean isOpen) throws RemoteException;
 
+    Map<String, String> setSensorStatuses(Map<String, Boolean> updates) throws RemoteException;
+
+    // Mesmas mudanças de setSensorStatuses, para gateways: devolve o estado de cada sensor logo
+    // depois da sua mudança, lido junto com ela (nome de SensorState, ou null se o sensor não existe)
+    Map<String, String> applySensorReadings(Map<String, Boolean> readings) throws RemoteException;
+
     String getSensorStatus(String sensorId) throws RemoteException;
 
+    // Sinal de vida do sensor: o primeiro coloca o sensor sob supervisão, e quem passar do prazo
+    // sem sinal vira OFFLINE. Retorna false para sensor desconhecido
+    boolean heartbeat(String sensorId) throws RemoteException;
+
+    // Vários sinais de vida de uma vez, para gateways; retorna quantos sensores eram conhecidos
+    int heartbeats(List<String> sensorIds) throws RemoteException;
+
     Map<String, String> getAllSensorStatus() throws RemoteException;
 
+    // Mesmo conteúdo de getAllSensorStatus, em formato compacto
+    SensorStatusSnapshot getSensorStatusSnapshot() throws RemoteException;
+
+    SensorChanges getChangesSince(long version) throws RemoteException;
+
+    DashboardSnapshot getDashboardSnapshot() throws RemoteException;
+
     void registerEvent(String event) throws RemoteException;
 
     List<String> getLogEvents(int limit) throws RemoteException;
 
+    List<LogEvent> getLogEventsBefore(long sequence, int limit) throws RemoteException;
+
+    // Mesmo conteúdo de getLogEventsBefore, em formato compacto
+    LogPage getLogPage(long sequence, int limit) throws RemoteException;
+
+    // Eventos que atendem à consulta, do mais recente para o mais antigo, com sequência menor que a
+    // informada; a próxima página começa em getOldestSequence() da anterior
+    LogPage searchLogEvents(EventQuery query, long sequence, int limit) throws RemoteException;
+
+    long getLogEventCount() throws RemoteException;
+
     String resetSensorAlarm(String sensorId) throws RemoteException;
 
     String addSensor(String sensorId) throws RemoteException;
 
     String removeSensor(String sensorId) throws RemoteException;
+
+    // Zonas: grupos de sensores que podem se aninhar, com alarme próprio. Uma abertura dispara o
+    // alarme se o geral, a zona do sensor ou qualquer zona acima dela estiver armada
+    String addZone(String zoneId, String parentZoneId) throws RemoteException;
+
+    // Só remove zonas sem sensores nem subzonas
+    String removeZone(String zoneId) throws RemoteException;
+
+    // Um sensor fica em no máximo uma zona; zoneId null tira o sensor da zona atual
+    String setSensorZone(String sensorId, String zoneId) throws RemoteException;
+
+    String setZoneAlarmStatus(String zoneId, boolean status) throws RemoteException;
+
+    // Reseta os sensores em alerta da zona e das subzonas
+    String resetZoneAlarm(String zoneId) throws RemoteException;
+
+    // Contadores mantidos a cada transição: não depende do número de sensores. Null se a zona não existe
+    ZoneStatus getZoneStatus(String zoneId) throws RemoteException;
+
+    // Todas as zonas, cada zona-pai antes das filhas
+    List<ZoneStatus> getZoneStatuses() throws RemoteException;
+
+    // Zona direta de cada sensor que está em alguma zona
+    Map<String, String> getSensorZones() throws RemoteException;
+
+    boolean registerListener(SecuritySystemListener listener) throws RemoteException;
+
+    boolean unregisterListener(SecuritySystemListener listener) throws RemoteException;
 }
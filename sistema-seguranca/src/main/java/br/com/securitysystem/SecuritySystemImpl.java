@@ -1,174 +1,1186 @@
 package br.com.securitysystem;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 public class SecuritySystemImpl extends UnicastRemoteObject implements SecuritySystem {
 
-    private final Map<String, String> sensores;
-    private final List<String> logEventos;
-    private boolean alarmeAtivado;
-    private boolean alarmeTrancado;
+    private static final long serialVersionUID = 1L;
+
+    private final SensorRegistry sensores;
+    private final ZoneRegistry zonas = new ZoneRegistry();
+    private final EventLog logEventos;
+    private final AsyncEventLogger consoleLog = AsyncEventLogger.fromSystemProperties();
+    private final AtomicReference<AlarmState> alarme;
+    private final ChangeNotifier notifier = new ChangeNotifier(mensagem -> logEvent(EventType.SYSTEM, null, mensagem));
+    private final ChangeHistory historico = new ChangeHistory(MAX_CHANGE_HISTORY, System.currentTimeMillis() << 10);
+    private final EventJournal journal;
+    private final SnapshotStore snapshots;
+    private final ScheduledExecutorService snapshotScheduler;
+    private final ServerMetrics metricas = new ServerMetrics();
+    private final SensorDebouncer debounce = SensorDebouncer.fromSystemProperties();
+    private final SensorSupervisor supervisao = SensorSupervisor.fromSystemProperties();
+    // Estado de cada sensor antes de ficar OFFLINE, restaurado quando ele volta a mandar sinal
+    private final Map<String, SensorState> estadoAntesDeOffline = new ConcurrentHashMap<>();
+    // Snapshot do painel em cache, compartilhado por todos os consoles até a próxima mudança
+    private volatile DashboardSnapshot dashboardCache;
+    private final Object dashboardLock = new Object();
+
+    private static final int MAX_CHANGE_HISTORY = 4096;
+    private static final int MAX_LOG_EVENTS = 10_000;
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_S = 60;
 
     public SecuritySystemImpl() throws RemoteException {
-        sensores = new ConcurrentHashMap<>();
-        logEventos = new LinkedList<>();
-        alarmeAtivado = false;
-        alarmeTrancado = false;
+        this(null, null);
+    }
+
+    // Com journal e snapshots, o estado é restaurado do último snapshot válido mais o que o
+    // journal gravou depois dele, e toda mudança passa a ser persistida
+    public SecuritySystemImpl(EventJournal journal, SnapshotStore snapshots) throws RemoteException {
+        sensores = new SensorRegistry();
+        logEventos = new EventLog(MAX_LOG_EVENTS);
+        alarme = new AtomicReference<>(AlarmState.INITIAL);
+        this.journal = journal;
+        this.snapshots = snapshots;
+
+        boolean restaurado;
+        long inicio = System.nanoTime();
+        try {
+            restaurado = restoreState();
+            if (journal != null) {
+                journal.start(this::writeCheckpoint);
+            }
+        } catch (IOException e) {
+            throw new RemoteException("Falha ao restaurar o estado persistido", e);
+        }
+        if (restaurado) {
+            logEvent(EventType.SYSTEM, null, "Sistema restaurado com " + sensores.size()
+                    + " sensores em " + (System.nanoTime() - inicio) / 1_000_000 + " ms.");
+        } else if (Boolean.getBoolean("shard.node")) {
+            // -Dshard.node=true: os sensores padrão existiriam em todos os nós, mas o roteador só
+            // manda as mudanças de cada um ao dono no anel
+            logEvent(EventType.SYSTEM, null, "Nó de shard iniciado sem sensores.");
+        } else {
+            sensores.register("porta_apt1", SensorState.FECHADO);
+            sensores.register("porta_fundos", SensorState.FECHADO);
+            sensores.register("porta_principal", SensorState.FECHADO);
+            if (journal != null) {
+                sensores.forEach(journal::recordSensorState);
+            }
+            logEvent(EventType.SYSTEM, null, "Sistema iniciado com " + sensores.size() + " sensores.");
+        }
+
+        if (snapshots != null) {
+            long intervalo = Long.getLong("snapshot.interval.s", DEFAULT_SNAPSHOT_INTERVAL_S);
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::writeSnapshot, intervalo, intervalo, TimeUnit.SECONDS);
+        } else {
+            snapshotScheduler = null;
+        }
+        debounce.start(this::applyDebounced);
+        supervisao.start(this::sensorSilent);
+    }
+
+    private boolean restoreState() throws IOException {
+        StateReplay replay = new StateReplay();
+        SnapshotStore.Snapshot snapshot = snapshots != null ? snapshots.loadLatest() : null;
+        boolean restaurado = true;
+        if (snapshot != null && journal != null && snapshot.journalPosition != null
+                && journal.canResumeFrom(snapshot.journalPosition)) {
+            replay.apply(snapshot);
+            journal.recoverFrom(snapshot.journalPosition, replay);
+        } else if (journal != null && journal.recover(replay)) {
+            // O journal já passou por um checkpoint mais novo que o snapshot
+        } else if (snapshot != null) {
+            replay.apply(snapshot);
+        } else {
+            restaurado = false;
+        }
+        if (restaurado) {
+            // A trava é derivada dos sensores em alerta
+            int violacoes = sensores.count(SensorState.ALERTA_TRANCADO);
+            alarme.set(new AlarmState(replay.alarmeArmado, violacoes));
+        }
+        return restaurado;
+    }
+
+    private final class StateReplay implements EventJournal.ReplayHandler {
+        private boolean alarmeArmado = false;
+
+        void apply(SnapshotStore.Snapshot snapshot) {
+            for (int i = 0; i < snapshot.sensorIds.length; i++) {
+                sensorState(snapshot.sensorIds[i], SensorState.fromCode(snapshot.sensorStates[i]));
+            }
+            for (SnapshotStore.ZoneEntry zona : snapshot.zones) {
+                zone(zona.zoneId, zona.parentZoneId, zona.armed);
+                for (String sensorId : zona.sensorIds) {
+                    sensorZone(sensorId, zona.zoneId);
+                }
+            }
+            // O snapshot guarda do mais recente para o mais antigo; o índice da busca prefere a
+            // ordem de gravação
+            for (int i = snapshot.events.size() - 1; i >= 0; i--) {
+                logEventos.restore(snapshot.events.get(i));
+            }
+            alarmeArmado = snapshot.alarmArmed;
+        }
+
+        @Override
+        public void sensorState(String sensorId, SensorState state) {
+            int handle = sensores.handleOf(sensorId);
+            if (handle < 0) {
+                sensores.register(sensorId, state);
+            } else {
+                sensores.setState(handle, state);
+            }
+        }
+
+        @Override
+        public void sensorRemoved(String sensorId) {
+            int handle = sensores.handleOf(sensorId);
+            if (handle >= 0) {
+                unregisterSensor(handle, sensorId);
+            }
+        }
+
+        @Override
+        public void alarm(boolean active, boolean locked, boolean armed) {
+            alarmeArmado = armed;
+        }
+
+        @Override
+        public void log(LogEvent event) {
+            logEventos.restore(event);
+        }
+
+        @Override
+        public void zone(String zoneId, String parentZoneId, boolean armed) {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            if (zona == null) {
+                zona = zonas.create(zoneId, zonas.get(parentZoneId));
+            }
+            zona.armada = armed;
+        }
+
+        @Override
+        public void zoneRemoved(String zoneId) {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            if (zona != null) {
+                zonas.remove(zona);
+            }
+        }
+
+        @Override
+        public void sensorZone(String sensorId, String zoneId) {
+            int handle = sensores.handleOf(sensorId);
+            if (handle >= 0) {
+                sensores.setZone(handle, sensorId, zonas.get(zoneId));
+            }
+        }
+    }
+
+    public synchronized void writeSnapshot() {
+        if (snapshots == null) {
+            return;
+        }
+        try {
+            long inicio = System.nanoTime();
+            // A posição é lida antes do estado: tudo que vier depois dela é reaplicado do journal
+            EventJournal.Position posicao = journal != null ? journal.position() : null;
+            Path arquivo = snapshots.write(posicao, alarme.get(), sensores, logEventos.latest(MAX_LOG_EVENTS), zonas);
+            System.out.println("[SNAPSHOT] " + sensores.size() + " sensores gravados em " + arquivo.getFileName()
+                    + " (" + Files.size(arquivo) / 1024 + " KB, " + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[SNAPSHOT] Falha ao gravar snapshot: " + e.getMessage());
+        }
+    }
+
+    // Grava um último snapshot e fecha o journal; chamado no desligamento do servidor
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        // Mudanças ainda agrupadas entram no snapshot final
+        debounce.close();
+        debounce.flush(this::applyDebounced);
+        supervisao.close();
+        writeSnapshot();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // Roda na thread de checkpoint, com as mudanças continuando: cada item é relido dentro de
+    // atomically, então o que for gravado depois dele no journal é mais novo
+    private void writeCheckpoint(EventJournal destino) {
+        sensores.forEach((sensorId, lido) -> destino.atomically(() -> {
+            SensorState estado = sensores.stateOf(sensorId);
+            if (estado != null) {
+                destino.recordSensorState(sensorId, estado);
+            }
+        }));
+        destino.atomically(() -> {
+            AlarmState estado = alarme.get();
+            destino.recordAlarm(estado.isActive(), estado.isLocked(), estado.isArmed());
+        });
+        zonas.forEachTopDown(zona -> destino.atomically(() -> {
+            if (!zonas.isLive(zona)) {
+                return;
+            }
+            destino.recordZone(zona.id, zona.pai != null ? zona.pai.id : null, zona.armada);
+            for (String sensorId : zona.membros) {
+                destino.recordSensorZone(sensorId, zona.id);
+            }
+        }));
+        List<LogEvent> eventos = logEventos.latest(MAX_LOG_EVENTS);
+        for (int i = eventos.size() - 1; i >= 0; i--) {
+            destino.recordLog(eventos.get(i));
+        }
+    }
+
+    private void logEvent(EventType type, String sensorId, String event) {
+        LogEvent evento = logEventos.append(type, sensorId, event);
+        if (journal != null) {
+            journal.recordLog(evento);
+        }
+        consoleLog.submit(evento);
+    }
+
+    private void logEvents(EventLog.Batch batch) {
+        List<LogEvent> eventos = logEventos.appendAll(batch);
+        if (journal != null) {
+            for (LogEvent evento : eventos) {
+                journal.recordLog(evento);
+            }
+        }
+        consoleLog.submitAll(eventos);
+    }
+
+    public int getLogQueueDepth() {
+        return consoleLog.getQueueDepth();
+    }
+
+    public long getDroppedLogLineCount() {
+        return consoleLog.getDroppedCount();
+    }
+
+    // Publica as métricas dos métodos RMI e os gauges do estado no servidor JMX
+    public void registerMBeans(MBeanServer servidor) throws JMException {
+        metricas.register(servidor);
+        servidor.registerMBean(new SecuritySystemMetrics(sensores, logEventos, alarme, notifier, consoleLog, metricas, supervisao),
+                new ObjectName(ServerMetrics.DOMAIN + ":type=SecuritySystem"));
+    }
+
+    private void publish(StateChange change) {
+        StateChange versionada = historico.append(change);
+        if (journal != null) {
+            journal.recordChange(versionada);
+        }
+        notifier.publish(versionada);
+    }
+
+    // Chamado com o lock do sensor: grava o novo estado e publica se houve mudança
+    private void changeSensorState(int handle, String sensorId, SensorState previous, SensorState newState) {
+        if (newState != previous) {
+            sensores.setState(handle, newState);
+            publish(StateChange.sensorUpdated(sensorId, newState.name()));
+        }
+    }
+
+    // Publica o estado corrente do alarme; se outro CAS acontecer no meio, publica de novo,
+    // garantindo que a última mudança publicada reflita o estado final.
+    private void alarmChanged() {
+        AlarmState estado;
+        do {
+            estado = alarme.get();
+            publish(StateChange.alarm(estado.isActive(), estado.isLocked(), estado.isArmed()));
+        } while (alarme.get() != estado);
+    }
+
+    // Uma violação numa zona armada também tranca o alarme geral até o reset do sensor, como
+    // qualquer outra: a contagem de violações do AlarmState cobre todos os sensores em alerta
+    private boolean tryRegisterViolation(ZoneRegistry.Zone zona) {
+        while (true) {
+            AlarmState atual = alarme.get();
+            if (!atual.isArmed() && (zona == null || !zona.isArmed())) {
+                return false;
+            }
+            if (alarme.compareAndSet(atual, atual.withViolation())) {
+                metricas.violationFired();
+                return true;
+            }
+        }
+    }
+
+    private AlarmState releaseViolation() {
+        return alarme.updateAndGet(AlarmState::withoutViolation);
+    }
+
+    private Map<String, String> snapshotSensors() {
+        Map<String, String> statusPorSensor = new HashMap<>(sensores.size() * 2);
+        sensores.forEach((sensorId, state) -> statusPorSensor.put(sensorId, state.name()));
+        return statusPorSensor;
+    }
+
+    // Válido enquanto nenhuma mudança de estado ou evento tiver sido registrado depois dele
+    private boolean isCurrent(DashboardSnapshot snapshot) {
+        return snapshot != null && snapshot.getVersion() == historico.currentVersion()
+                && snapshot.getLogCount() == logEventos.count();
+    }
+
+    // Os sensores são lidos sem lock global; se a versão ou o alarme mudarem durante a leitura,
+    // a captura é refeita. Depois de algumas tentativas fica a versão lida antes dos sensores,
+    // que nunca é mais nova que eles: o cliente só recebe de novo mudanças que já tem.
+    private DashboardSnapshot buildDashboardSnapshot() {
+        for (int tentativa = 0;; tentativa++) {
+            long versao = historico.currentVersion();
+            long eventos = logEventos.count();
+            AlarmState estado = alarme.get();
+            boolean violacao = sensores.hasViolation();
+            Map<String, String> statusPorSensor = snapshotSensors();
+            if ((historico.currentVersion() == versao && alarme.get() == estado) || tentativa == 2) {
+                return new DashboardSnapshot(versao, estado.isActive(), estado.isLocked(), violacao, eventos,
+                        statusPorSensor);
+            }
+        }
+    }
+
+    // REPLICAÇÃO (standby): aplica o estado vindo do primário sem as regras de negócio, mas
+    // passando pelo histórico e pelo journal, para que o standby possa assumir a qualquer momento
+
+    void applyReplicatedSensor(String sensorId, SensorState state) {
+        int handle = sensores.handleOf(sensorId);
+        if (handle < 0) {
+            handle = sensores.register(sensorId, state);
+            if (handle >= 0) {
+                publish(StateChange.sensorUpdated(sensorId, state.name()));
+                return;
+            }
+            handle = sensores.handleOf(sensorId);
+        }
+        synchronized (sensores.lockFor(handle)) {
+            if (sensores.isLive(handle, sensorId)) {
+                changeSensorState(handle, sensorId, sensores.state(handle), state);
+            }
+        }
+    }
+
+    void applyReplicatedRemoval(String sensorId) {
+        int handle = sensores.handleOf(sensorId);
+        if (handle < 0) {
+            return;
+        }
+        synchronized (sensores.lockFor(handle)) {
+            if (sensores.isLive(handle, sensorId)) {
+                unregisterSensor(handle, sensorId);
+                publish(StateChange.sensorRemoved(sensorId));
+            }
+        }
+    }
+
+    // Snapshot completo do primário: remove o que ele não tem mais
+    void retainReplicatedSensors(Set<String> sensorIds) {
+        List<String> remover = new ArrayList<>();
+        sensores.forEach((sensorId, state) -> {
+            if (!sensorIds.contains(sensorId)) {
+                remover.add(sensorId);
+            }
+        });
+        for (String sensorId : remover) {
+            applyReplicatedRemoval(sensorId);
+        }
+    }
+
+    // A trava é recalculada a partir dos sensores em alerta, como na restauração do journal
+    void applyReplicatedAlarm(boolean armed) {
+        int violacoes = sensores.count(SensorState.ALERTA_TRANCADO);
+        alarme.set(new AlarmState(armed, violacoes));
+        alarmChanged();
+    }
+
+    // O primário publica a zona-pai antes das filhas e só remove zonas vazias, então aplicar na
+    // ordem recebida sempre encontra a pai e a zona já esvaziada
+    void applyReplicatedZone(String zoneId, String parentZoneId, boolean armed) {
+        synchronized (zonas) {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            if (zona == null) {
+                zona = zonas.create(zoneId, zonas.get(parentZoneId));
+            } else if (zona.armada == armed) {
+                return;
+            }
+            synchronized (zona) {
+                zona.armada = armed;
+            }
+            publish(StateChange.zoneUpdated(zoneId, parentZoneId, armed));
+        }
+    }
+
+    void applyReplicatedZoneRemoval(String zoneId) {
+        synchronized (zonas) {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            if (zona != null && zonas.remove(zona)) {
+                publish(StateChange.zoneRemoved(zoneId));
+            }
+        }
+    }
+
+    void applyReplicatedSensorZone(String sensorId, String zoneId) {
+        synchronized (zonas) {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            int handle = sensores.handleOf(sensorId);
+            if ((zoneId != null && zona == null) || handle < 0) {
+                return;
+            }
+            synchronized (sensores.lockFor(handle)) {
+                if (sensores.isLive(handle, sensorId) && sensores.zoneOf(handle) != zona) {
+                    sensores.setZone(handle, sensorId, zona);
+                    publish(StateChange.sensorZone(sensorId, zoneId));
+                }
+            }
+        }
+    }
 
-        sensores.put("porta_apt1", "FECHADO");
-        sensores.put("porta_fundos", "FECHADO");
-        sensores.put("porta_principal", "FECHADO");
-        logEventos.add(0, "Sistema iniciado com 4 sensores.");
+    // Zonas completas do primário, depois dos sensores: cria e arma as zonas (pai antes das
+    // filhas), acerta a zona de cada sensor e só então remove, das filhas para cima, as que ele
+    // não tem mais
+    void retainReplicatedZones(List<ZoneStatus> zones, Map<String, String> sensorZones) {
+        Set<String> existentes = new HashSet<>();
+        for (ZoneStatus zona : zones) {
+            existentes.add(zona.getZoneId());
+            applyReplicatedZone(zona.getZoneId(), zona.getParentZoneId(), zona.isArmed());
+        }
+        sensores.forEach((sensorId, state) -> applyReplicatedSensorZone(sensorId, sensorZones.get(sensorId)));
+        List<String> remover = new ArrayList<>();
+        zonas.forEachTopDown(zona -> {
+            if (!existentes.contains(zona.id)) {
+                remover.add(zona.id);
+            }
+        });
+        for (int i = remover.size() - 1; i >= 0; i--) {
+            applyReplicatedZoneRemoval(remover.get(i));
+        }
     }
 
-    private void logEvent(String event) {
-        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
-        String logEntry = "[" + timestamp + "] " + event;
-        logEventos.add(0, logEntry);
-        System.out.println("[SERVER LOG] " + logEntry);
+    void promoteReplica(boolean alarmArmed) {
+        applyReplicatedAlarm(alarmArmed);
+        logEvent(EventType.SYSTEM, null, "Standby promovido a primário com " + sensores.size() + " sensores.");
     }
 
     // MÉTODOS RMI
 
     @Override
     public boolean isAlarmActive() throws RemoteException {
-        return alarmeAtivado || alarmeTrancado;
+        long inicio = System.nanoTime();
+        try {
+            return alarme.get().isActive();
+        } finally {
+            metricas.record(ServerMetrics.Method.IS_ALARM_ACTIVE, inicio);
+        }
+    }
+
+    @Override
+    public boolean isAlarmArmed() throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return alarme.get().isArmed();
+        } finally {
+            metricas.record(ServerMetrics.Method.IS_ALARM_ARMED, inicio);
+        }
     }
 
     @Override
     public String setAlarmStatus(boolean status) throws RemoteException {
-        if (status) {
-            if (alarmeTrancado) {
-                logEvent("Tentativa de ativar: Alarme está trancado por violação. Reset necessário.");
-                return "Alarme está trancado. Use a função Resetar Alarme (Sensor).";
-            }
-            if (!alarmeAtivado) {
-                alarmeAtivado = true;
-                logEvent("Alarme ATIVADO.");
-                return "Alarme ATIVADO com sucesso.";
-            } else {
-                return "Alarme já estava ATIVADO.";
-            }
-        } else {
-            if (alarmeTrancado) {
-                logEvent("Tentativa de desativar: Alarme está trancado por violação. Reset necessário.");
-                return "Alarme está trancado. Use a função Resetar Alarme (Sensor).";
-            }
-            if (alarmeAtivado) {
-                alarmeAtivado = false;
-                logEvent("Alarme DESATIVADO.");
-                return "Alarme DESATIVADO com sucesso.";
-            } else {
-                return "Alarme já estava DESATIVADO.";
+        long inicio = System.nanoTime();
+        try {
+            while (true) {
+                AlarmState atual = alarme.get();
+                if (atual.isLocked()) {
+                    logEvent(EventType.ALARM, null, "Tentativa de " + (status ? "ativar" : "desativar")
+                            + ": Alarme está trancado por violação. Reset necessário.");
+                    return "Alarme está trancado. Use a função Resetar Alarme (Sensor).";
+                }
+                if (atual.isArmed() == status) {
+                    return status ? "Alarme já estava ATIVADO." : "Alarme já estava DESATIVADO.";
+                }
+                if (alarme.compareAndSet(atual, atual.withArmed(status))) {
+                    alarmChanged();
+                    if (status) {
+                        logEvent(EventType.ALARM, null, "Alarme ATIVADO.");
+                        return "Alarme ATIVADO com sucesso.";
+                    }
+                    logEvent(EventType.ALARM, null, "Alarme DESATIVADO.");
+                    return "Alarme DESATIVADO com sucesso.";
+                }
             }
+        } finally {
+            metricas.record(ServerMetrics.Method.SET_ALARM_STATUS, inicio);
         }
     }
 
     @Override
     public String setSensorStatus(String sensorId, boolean open) throws RemoteException {
-        if (!sensores.containsKey(sensorId)) {
+        long inicio = System.nanoTime();
+        try {
+            EventLog.Batch logs = new EventLog.Batch();
+            String resultado = applySensorStatus(sensorId, open, logs, true, null);
+            logEvents(logs);
+            return resultado;
+        } finally {
+            metricas.record(ServerMetrics.Method.SET_SENSOR_STATUS, inicio);
+        }
+    }
+
+    @Override
+    public Map<String, String> setSensorStatuses(Map<String, Boolean> updates) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            Map<String, String> resultados = new LinkedHashMap<>(updates.size() * 2);
+            EventLog.Batch logs = new EventLog.Batch();
+            for (Map.Entry<String, Boolean> update : updates.entrySet()) {
+                if (update.getValue() == null) {
+                    resultados.put(update.getKey(), "Status inválido para o sensor " + update.getKey() + ".");
+                    continue;
+                }
+                resultados.put(update.getKey(), applySensorStatus(update.getKey(), update.getValue(), logs, true, null));
+            }
+            logEvents(logs);
+            return resultados;
+        } finally {
+            metricas.record(ServerMetrics.Method.SET_SENSOR_STATUSES, inicio);
+        }
+    }
+
+    @Override
+    public Map<String, String> applySensorReadings(Map<String, Boolean> readings) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            Map<String, String> estados = new LinkedHashMap<>(readings.size() * 2);
+            EventLog.Batch logs = new EventLog.Batch();
+            SensorState[] estado = new SensorState[1];
+            for (Map.Entry<String, Boolean> leitura : readings.entrySet()) {
+                estado[0] = null;
+                if (leitura.getValue() != null) {
+                    applySensorStatus(leitura.getKey(), leitura.getValue(), logs, true, estado);
+                }
+                estados.put(leitura.getKey(), estado[0] != null ? estado[0].name() : null);
+            }
+            logEvents(logs);
+            return estados;
+        } finally {
+            metricas.record(ServerMetrics.Method.APPLY_SENSOR_READINGS, inicio);
+        }
+    }
+
+    // limitar: passa pelo debounce; falso só para a mudança agrupada que o próprio debounce aplica.
+    // estadoFinal, se informado, recebe o estado do sensor logo depois da mudança (null se não existe)
+    private String applySensorStatus(String sensorId, boolean open, EventLog.Batch logs, boolean limitar,
+            SensorState[] estadoFinal) {
+        int handle = sensores.handleOf(sensorId);
+        if (handle < 0) {
             return "Sensor ID " + sensorId + " não encontrado.";
         }
+        supervisao.touch(sensorId);
+
+        // A abertura com o alarme (geral ou da zona) armado nunca espera: a violação é registrada na hora
+        if (limitar && debounce.isEnabled() && !(open && (alarme.get().isActive() || isZoneArmed(handle)))) {
+            if (!debounce.tryAcquire(sensorId)) {
+                debounce.defer(sensorId, open);
+                if (estadoFinal != null) {
+                    estadoFinal[0] = sensores.stateOf(sensorId);
+                }
+                return "Sensor " + sensorId + " oscilando: mudança agrupada no resumo do período.";
+            }
+            // Esta mudança substitui o estado que estava guardado; fica só o resumo
+            int agrupadas = debounce.drain(sensorId);
+            if (agrupadas > 0) {
+                logs.add(EventType.SENSOR, sensorId, debounceSummary(sensorId, agrupadas));
+            }
+        }
+
+        synchronized (sensores.lockFor(handle)) {
+            if (!sensores.isLive(handle, sensorId)) {
+                return "Sensor ID " + sensorId + " não encontrado.";
+            }
+            String resultado = applyLocked(handle, sensorId, open, logs, limitar);
+            if (estadoFinal != null) {
+                estadoFinal[0] = sensores.state(handle);
+            }
+            return resultado;
+        }
+    }
 
-        String currentStatus = sensores.get(sensorId);
+    // Chamado com o lock do sensor
+    private String applyLocked(int handle, String sensorId, boolean open, EventLog.Batch logs, boolean limitar) {
+        SensorState currentStatus = sensores.state(handle);
 
         if (open) {
-            if (alarmeAtivado) {
-                if (!currentStatus.equals("VIOLADO") && !currentStatus.equals("ALERTA_TRANCADO")) {
-                    sensores.put(sensorId, "ALERTA_TRANCADO");
-                    alarmeTrancado = true;
-                    logEvent("!!! VIOLAÇÃO CRÍTICA DETECTADA !!! Sensor: " + sensorId + " - ALARME DISPARADO!");
-                    return "ALARME DISPARADO! Sensor " + sensorId + " violado e sistema trancado.";
-                } else {
-                    return "Sensor já estava em ALERTA_TRANCADO.";
-                }
-            } else {
-                sensores.put(sensorId, "ABERTO");
-                logEvent("Sensor " + sensorId + " aberto com alarme desativado.");
-                return "Sensor " + sensorId + " aberto (alarme desativado).";
+            if (currentStatus.isViolation()) {
+                return "Sensor já estava em ALERTA_TRANCADO.";
             }
+            // A violação só conta se o CAS a registrar com o alarme ainda armado. Uma abertura
+            // agrupada (limitar falso) foi pedida com o alarme desarmado, porque com ele armado a
+            // abertura não espera; armar antes do resumo não a transforma em violação
+            if (limitar && tryRegisterViolation(sensores.zoneOf(handle))) {
+                changeSensorState(handle, sensorId, currentStatus, SensorState.ALERTA_TRANCADO);
+                alarmChanged();
+                logs.add(EventType.VIOLATION, sensorId, "!!! VIOLAÇÃO CRÍTICA DETECTADA !!! Sensor: " + sensorId + " - ALARME DISPARADO!");
+                return "ALARME DISPARADO! Sensor " + sensorId + " violado e sistema trancado.";
+            }
+            changeSensorState(handle, sensorId, currentStatus, SensorState.ABERTO);
+            logs.add(EventType.SENSOR, sensorId, "Sensor " + sensorId + " aberto com alarme desativado.");
+            return "Sensor " + sensorId + " aberto (alarme desativado).";
         } else {
-            if (currentStatus.equals("ALERTA_TRANCADO")) {
-                logEvent("Tentativa de fechar sensor ALERTA_TRANCADO: " + sensorId + ". Necessário Reset.");
+            if (currentStatus == SensorState.ALERTA_TRANCADO) {
+                logs.add(EventType.SENSOR, sensorId, "Tentativa de fechar sensor ALERTA_TRANCADO: " + sensorId + ". Necessário Reset.");
                 return "Sensor " + sensorId + " trancado. Use 'Resetar Alarme (Sensor)'.";
             } else {
-                sensores.put(sensorId, "FECHADO");
-                logEvent("Sensor " + sensorId + " fechado/protegido.");
+                changeSensorState(handle, sensorId, currentStatus, SensorState.FECHADO);
+                logs.add(EventType.SENSOR, sensorId, "Sensor " + sensorId + " fechado/protegido.");
                 return "Sensor " + sensorId + " fechado/protegido.";
             }
         }
     }
 
+    private boolean isZoneArmed(int handle) {
+        ZoneRegistry.Zone zona = sensores.zoneOf(handle);
+        return zona != null && zona.isArmed();
+    }
+
+    private void applyDebounced(String sensorId, boolean open, int agrupadas) {
+        EventLog.Batch logs = new EventLog.Batch();
+        logs.add(EventType.SENSOR, sensorId, debounceSummary(sensorId, agrupadas));
+        applySensorStatus(sensorId, open, logs, false, null);
+        logEvents(logs);
+    }
+
+    private String debounceSummary(String sensorId, int agrupadas) {
+        return "Sensor " + sensorId + " oscilando: " + agrupadas + " mudança(s) agrupada(s) em até "
+                + debounce.getWindowMs() + " ms.";
+    }
+
     @Override
     public String resetSensorAlarm(String sensorId) throws RemoteException {
-        if (!sensores.containsKey(sensorId)) {
-            return "Sensor ID " + sensorId + " não encontrado.";
+        long inicio = System.nanoTime();
+        try {
+            switch (resetSensor(sensorId)) {
+                case RESETADO:
+                    return "Alarme do sensor " + sensorId
+                            + " resetado para FECHADO. Sistema destrancado se for o último alerta.";
+                case SEM_ALERTA:
+                    return "O sensor " + sensorId + " não estava em estado de alerta trancado.";
+                default:
+                    return "Sensor ID " + sensorId + " não encontrado.";
+            }
+        } finally {
+            metricas.record(ServerMetrics.Method.RESET_SENSOR_ALARM, inicio);
+        }
+    }
+
+    private enum ResetResult {
+        RESETADO, SEM_ALERTA, NAO_ENCONTRADO
+    }
+
+    private ResetResult resetSensor(String sensorId) {
+        int handle = sensores.handleOf(sensorId);
+        if (handle < 0) {
+            return ResetResult.NAO_ENCONTRADO;
         }
 
-        String currentStatus = sensores.get(sensorId);
-        if (currentStatus.equals("ALERTA_TRANCADO") || currentStatus.equals("VIOLADO")) {
-            sensores.put(sensorId, "FECHADO");
+        synchronized (sensores.lockFor(handle)) {
+            if (!sensores.isLive(handle, sensorId)) {
+                return ResetResult.NAO_ENCONTRADO;
+            }
+            SensorState currentStatus = sensores.state(handle);
+            if (!currentStatus.isViolation()) {
+                return ResetResult.SEM_ALERTA;
+            }
+            changeSensorState(handle, sensorId, currentStatus, SensorState.FECHADO);
 
-            boolean anotherViolation = sensores.containsValue("ALERTA_TRANCADO");
-            if (!anotherViolation) {
-                alarmeTrancado = false;
-                logEvent("Todos os sensores em alerta foram resetados. Sistema geral destrancado.");
+            if (currentStatus == SensorState.ALERTA_TRANCADO && !releaseViolation().isLocked()) {
+                alarmChanged();
+                logEvent(EventType.ALARM, null, "Todos os sensores em alerta foram resetados. Sistema geral destrancado.");
             }
 
-            logEvent("Alarme do sensor " + sensorId + " resetado para FECHADO.");
-            return "Alarme do sensor " + sensorId
-                    + " resetado para FECHADO. Sistema destrancado se for o último alerta.";
-        } else {
-            return "O sensor " + sensorId + " não estava em estado de alerta trancado.";
+            logEvent(EventType.ALARM, sensorId, "Alarme do sensor " + sensorId + " resetado para FECHADO.");
+            return ResetResult.RESETADO;
         }
     }
 
     @Override
     public void registerEvent(String event) throws RemoteException {
-        logEvent("Evento externo registrado: " + event);
+        long inicio = System.nanoTime();
+        try {
+            logEvent(EventType.EXTERNAL, null, "Evento externo registrado: " + event);
+        } finally {
+            metricas.record(ServerMetrics.Method.REGISTER_EVENT, inicio);
+        }
     }
 
     @Override
     public String getSensorStatus(String sensorId) throws RemoteException {
-        return sensores.getOrDefault(sensorId, "Sensor não encontrado");
+        long inicio = System.nanoTime();
+        try {
+            SensorState state = sensores.stateOf(sensorId);
+            return state != null ? state.name() : "Sensor não encontrado";
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_SENSOR_STATUS, inicio);
+        }
+    }
+
+    @Override
+    public boolean heartbeat(String sensorId) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return sensorAlive(sensorId);
+        } finally {
+            metricas.record(ServerMetrics.Method.HEARTBEAT, inicio);
+        }
+    }
+
+    @Override
+    public int heartbeats(List<String> sensorIds) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            int conhecidos = 0;
+            for (String sensorId : sensorIds) {
+                if (sensorAlive(sensorId)) {
+                    conhecidos++;
+                }
+            }
+            return conhecidos;
+        } finally {
+            metricas.record(ServerMetrics.Method.HEARTBEATS, inicio);
+        }
+    }
+
+    // Caminho comum do heartbeat: sem lock, log nem journal, a não ser que o sensor volte de OFFLINE
+    private boolean sensorAlive(String sensorId) {
+        int handle = sensores.handleOf(sensorId);
+        if (handle < 0 || !supervisao.isEnabled()) {
+            return handle >= 0;
+        }
+        supervisao.heartbeat(sensorId);
+        if (sensores.state(handle) != SensorState.OFFLINE) {
+            return true;
+        }
+        SensorState restaurado;
+        synchronized (sensores.lockFor(handle)) {
+            if (!sensores.isLive(handle, sensorId) || sensores.state(handle) != SensorState.OFFLINE) {
+                return true;
+            }
+            // Sem o estado anterior (ex.: depois de reiniciar), o sensor volta como FECHADO até a próxima leitura
+            restaurado = estadoAntesDeOffline.getOrDefault(sensorId, SensorState.FECHADO);
+            estadoAntesDeOffline.remove(sensorId);
+            changeSensorState(handle, sensorId, SensorState.OFFLINE, restaurado);
+        }
+        logEvent(EventType.SUPERVISION, sensorId, "Sensor " + sensorId + " voltou a se comunicar (" + restaurado + ").");
+        return true;
+    }
+
+    // Chamado pela supervisão quando o sensor passa do prazo sem sinal de vida
+    private void sensorSilent(String sensorId) {
+        int handle = sensores.handleOf(sensorId);
+        if (handle < 0) {
+            return;
+        }
+        SensorState atual;
+        synchronized (sensores.lockFor(handle)) {
+            // Um heartbeat pode ter chegado depois da expiração
+            if (!sensores.isLive(handle, sensorId) || !supervisao.isExpired(sensorId)) {
+                return;
+            }
+            atual = sensores.state(handle);
+            if (atual == SensorState.OFFLINE) {
+                return;
+            }
+            // Um sensor em alerta continua trancado; a perda de comunicação só é registrada
+            if (!atual.isViolation()) {
+                estadoAntesDeOffline.put(sensorId, atual);
+                changeSensorState(handle, sensorId, atual, SensorState.OFFLINE);
+            }
+        }
+        logEvent(EventType.SUPERVISION, sensorId, "Sensor " + sensorId + " sem comunicação há mais de "
+                + supervisao.getTimeoutMs() / 1000 + " s (estava " + atual + ")"
+                + (atual.isViolation() ? "." : ": marcado como OFFLINE."));
     }
 
     @Override
     public Map<String, String> getAllSensorStatus() throws RemoteException {
-        return new HashMap<>(sensores);
+        long inicio = System.nanoTime();
+        try {
+            return snapshotSensors();
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_ALL_SENSOR_STATUS, inicio);
+        }
+    }
+
+    @Override
+    public SensorStatusSnapshot getSensorStatusSnapshot() throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            SensorStatusSnapshot.Builder snapshot = new SensorStatusSnapshot.Builder(sensores.size() + 16);
+            sensores.forEach(snapshot::add);
+            return snapshot.build();
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_SENSOR_STATUS_SNAPSHOT, inicio);
+        }
+    }
+
+    @Override
+    public SensorChanges getChangesSince(long version) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return historico.changesSince(version, this::snapshotSensors);
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_CHANGES_SINCE, inicio);
+        }
+    }
+
+    @Override
+    public DashboardSnapshot getDashboardSnapshot() throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            DashboardSnapshot snapshot = dashboardCache;
+            if (isCurrent(snapshot)) {
+                return snapshot;
+            }
+            // Consoles que chegam juntos esperam a mesma construção em vez de repeti-la
+            synchronized (dashboardLock) {
+                snapshot = dashboardCache;
+                if (!isCurrent(snapshot)) {
+                    snapshot = buildDashboardSnapshot();
+                    dashboardCache = snapshot;
+                }
+                return snapshot;
+            }
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_DASHBOARD_SNAPSHOT, inicio);
+        }
     }
 
     @Override
     public String addSensor(String sensorId) throws RemoteException {
-        if (sensores.containsKey(sensorId)) {
-            return "Erro: Sensor ID " + sensorId + " já existe.";
+        long inicio = System.nanoTime();
+        try {
+            int handle = sensores.register(sensorId, SensorState.FECHADO);
+            if (handle < 0) {
+                return "Erro: Sensor ID " + sensorId + " já existe.";
+            }
+            synchronized (sensores.lockFor(handle)) {
+                // Publica o estado corrente: outra transição pode ter chegado antes deste lock
+                if (sensores.isLive(handle, sensorId)) {
+                    publish(StateChange.sensorUpdated(sensorId, sensores.state(handle).name()));
+                }
+            }
+            logEvent(EventType.SENSOR, sensorId, "Sensor " + sensorId + " adicionado ao sistema.");
+            return "Sensor " + sensorId + " adicionado com sucesso.";
+        } finally {
+            metricas.record(ServerMetrics.Method.ADD_SENSOR, inicio);
         }
-        sensores.put(sensorId, "FECHADO");
-        logEvent("Sensor " + sensorId + " adicionado ao sistema.");
-        return "Sensor " + sensorId + " adicionado com sucesso.";
     }
 
     @Override
     public String removeSensor(String sensorId) throws RemoteException {
-        if (!sensores.containsKey(sensorId)) {
-            return "Erro: Sensor ID " + sensorId + " não encontrado.";
+        long inicio = System.nanoTime();
+        try {
+            int handle = sensores.handleOf(sensorId);
+            if (handle < 0) {
+                return "Erro: Sensor ID " + sensorId + " não encontrado.";
+            }
+            synchronized (sensores.lockFor(handle)) {
+                if (!sensores.isLive(handle, sensorId)) {
+                    return "Erro: Sensor ID " + sensorId + " não encontrado.";
+                }
+                SensorState currentStatus = sensores.state(handle);
+                unregisterSensor(handle, sensorId);
+                publish(StateChange.sensorRemoved(sensorId));
+                // Remover um sensor em alerta também libera a trava que ele mantinha
+                if (currentStatus == SensorState.ALERTA_TRANCADO && !releaseViolation().isLocked()) {
+                    alarmChanged();
+                    logEvent(EventType.ALARM, null, "Todos os sensores em alerta foram resetados. Sistema geral destrancado.");
+                }
+            }
+            logEvent(EventType.SENSOR, sensorId, "Sensor " + sensorId + " removido do sistema.");
+            return "Sensor " + sensorId + " removido com sucesso.";
+        } finally {
+            metricas.record(ServerMetrics.Method.REMOVE_SENSOR, inicio);
+        }
+    }
+
+    // Toda remoção passa por aqui, para o sensor não continuar no debounce nem na supervisão
+    // (um ID reutilizado herdaria o estado, e a supervisão o marcaria OFFLINE)
+    private void unregisterSensor(int handle, String sensorId) {
+        sensores.unregister(handle, sensorId);
+        debounce.forget(sensorId);
+        supervisao.forget(sensorId);
+        estadoAntesDeOffline.remove(sensorId);
+    }
+
+    @Override
+    public String addZone(String zoneId, String parentZoneId) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            if (zoneId == null || zoneId.isBlank()) {
+                return "Erro: ID de zona inválido.";
+            }
+            synchronized (zonas) {
+                ZoneRegistry.Zone pai = zonas.get(parentZoneId);
+                if (parentZoneId != null && pai == null) {
+                    return "Erro: Zona " + parentZoneId + " não encontrada.";
+                }
+                if (zonas.create(zoneId, pai) == null) {
+                    return "Erro: Zona " + zoneId + " já existe.";
+                }
+                publish(StateChange.zoneUpdated(zoneId, parentZoneId, false));
+            }
+            logEvent(EventType.SYSTEM, null, "Zona " + zoneId + " criada" + (parentZoneId != null ? " em " + parentZoneId : "") + ".");
+            return "Zona " + zoneId + " criada com sucesso.";
+        } finally {
+            metricas.record(ServerMetrics.Method.ADD_ZONE, inicio);
+        }
+    }
+
+    @Override
+    public String removeZone(String zoneId) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            synchronized (zonas) {
+                ZoneRegistry.Zone zona = zonas.get(zoneId);
+                if (zona == null) {
+                    return "Erro: Zona " + zoneId + " não encontrada.";
+                }
+                if (!zonas.remove(zona)) {
+                    return "Erro: Zona " + zoneId + " ainda tem sensores ou subzonas.";
+                }
+                publish(StateChange.zoneRemoved(zoneId));
+            }
+            logEvent(EventType.SYSTEM, null, "Zona " + zoneId + " removida.");
+            return "Zona " + zoneId + " removida com sucesso.";
+        } finally {
+            metricas.record(ServerMetrics.Method.REMOVE_ZONE, inicio);
+        }
+    }
+
+    @Override
+    public String setSensorZone(String sensorId, String zoneId) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            synchronized (zonas) {
+                ZoneRegistry.Zone zona = zonas.get(zoneId);
+                if (zoneId != null && zona == null) {
+                    return "Erro: Zona " + zoneId + " não encontrada.";
+                }
+                int handle = sensores.handleOf(sensorId);
+                if (handle < 0) {
+                    return "Sensor ID " + sensorId + " não encontrado.";
+                }
+                synchronized (sensores.lockFor(handle)) {
+                    if (!sensores.isLive(handle, sensorId)) {
+                        return "Sensor ID " + sensorId + " não encontrado.";
+                    }
+                    sensores.setZone(handle, sensorId, zona);
+                    publish(StateChange.sensorZone(sensorId, zoneId));
+                }
+            }
+            return zoneId != null ? "Sensor " + sensorId + " associado à zona " + zoneId + "."
+                    : "Sensor " + sensorId + " retirado da zona.";
+        } finally {
+            metricas.record(ServerMetrics.Method.SET_SENSOR_ZONE, inicio);
+        }
+    }
+
+    @Override
+    public String setZoneAlarmStatus(String zoneId, boolean status) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            if (zona == null) {
+                return "Erro: Zona " + zoneId + " não encontrada.";
+            }
+            synchronized (zona) {
+                if (!zonas.isLive(zona)) {
+                    return "Erro: Zona " + zoneId + " não encontrada.";
+                }
+                if (zona.isLocked()) {
+                    logEvent(EventType.ALARM, null, "Tentativa de " + (status ? "ativar" : "desativar") + " a zona "
+                            + zoneId + ": zona trancada por violação. Reset necessário.");
+                    return "Zona " + zoneId + " está trancada. Use a função Resetar Alarme (Zona).";
+                }
+                if (zona.armada == status) {
+                    return "Zona " + zoneId + (status ? " já estava ATIVADA." : " já estava DESATIVADA.");
+                }
+                zona.armada = status;
+                publish(StateChange.zoneUpdated(zoneId, zona.pai != null ? zona.pai.id : null, status));
+            }
+            logEvent(EventType.ALARM, null, "Zona " + zoneId + (status ? " ATIVADA." : " DESATIVADA."));
+            return "Zona " + zoneId + (status ? " ATIVADA com sucesso." : " DESATIVADA com sucesso.");
+        } finally {
+            metricas.record(ServerMetrics.Method.SET_ZONE_ALARM_STATUS, inicio);
+        }
+    }
+
+    @Override
+    public String resetZoneAlarm(String zoneId) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            if (zona == null) {
+                return "Erro: Zona " + zoneId + " não encontrada.";
+            }
+            // Os contadores evitam percorrer os sensores quando não há o que resetar
+            if (!zona.hasViolation()) {
+                return "A zona " + zoneId + " não tinha sensores em alerta.";
+            }
+            int resetados = 0;
+            for (String sensorId : zonas.sensorsUnder(zona)) {
+                if (resetSensor(sensorId) == ResetResult.RESETADO) {
+                    resetados++;
+                }
+            }
+            return resetados + " sensor(es) da zona " + zoneId + " resetado(s) para FECHADO.";
+        } finally {
+            metricas.record(ServerMetrics.Method.RESET_ZONE_ALARM, inicio);
+        }
+    }
+
+    @Override
+    public ZoneStatus getZoneStatus(String zoneId) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            ZoneRegistry.Zone zona = zonas.get(zoneId);
+            return zona != null ? zona.status() : null;
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_ZONE_STATUS, inicio);
+        }
+    }
+
+    @Override
+    public List<ZoneStatus> getZoneStatuses() throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            List<ZoneStatus> situacoes = new ArrayList<>(zonas.size());
+            zonas.forEachTopDown(zona -> situacoes.add(zona.status()));
+            return situacoes;
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_ZONE_STATUSES, inicio);
+        }
+    }
+
+    @Override
+    public Map<String, String> getSensorZones() throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            Map<String, String> zonaPorSensor = new HashMap<>();
+            zonas.forEachTopDown(zona -> {
+                for (String sensorId : zona.membros) {
+                    zonaPorSensor.put(sensorId, zona.id);
+                }
+            });
+            return zonaPorSensor;
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_SENSOR_ZONES, inicio);
         }
-        sensores.remove(sensorId);
-        logEvent("Sensor " + sensorId + " removido do sistema.");
-        return "Sensor " + sensorId + " removido com sucesso.";
     }
 
     @Override
     public List<String> getLogEvents(int maxEntries) throws RemoteException {
-        int count = Math.min(maxEntries, logEventos.size());
-        return new LinkedList<>(logEventos.subList(0, count));
+        long inicio = System.nanoTime();
+        try {
+            List<LogEvent> eventos = logEventos.latest(maxEntries);
+            List<String> linhas = new ArrayList<>(eventos.size());
+            for (LogEvent evento : eventos) {
+                linhas.add(evento.toString());
+            }
+            return linhas;
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_LOG_EVENTS, inicio);
+        }
+    }
+
+    @Override
+    public List<LogEvent> getLogEventsBefore(long sequence, int maxEntries) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return logEventos.before(sequence, maxEntries);
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_LOG_EVENTS_BEFORE, inicio);
+        }
+    }
+
+    @Override
+    public LogPage getLogPage(long sequence, int maxEntries) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return new LogPage(logEventos.before(sequence, maxEntries));
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_LOG_PAGE, inicio);
+        }
+    }
+
+    @Override
+    public LogPage searchLogEvents(EventQuery query, long sequence, int maxEntries) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return new LogPage(logEventos.search(query, sequence, maxEntries));
+        } finally {
+            metricas.record(ServerMetrics.Method.SEARCH_LOG_EVENTS, inicio);
+        }
+    }
+
+    @Override
+    public long getLogEventCount() throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return logEventos.count();
+        } finally {
+            metricas.record(ServerMetrics.Method.GET_LOG_EVENT_COUNT, inicio);
+        }
+    }
+
+    @Override
+    public boolean registerListener(SecuritySystemListener listener) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            boolean registrado = notifier.register(listener);
+            if (registrado) {
+                logEvent(EventType.SYSTEM, null, "Listener de mudanças registrado (" + notifier.getListenerCount() + " ativos).");
+            }
+            return registrado;
+        } finally {
+            metricas.record(ServerMetrics.Method.REGISTER_LISTENER, inicio);
+        }
+    }
+
+    @Override
+    public boolean unregisterListener(SecuritySystemListener listener) throws RemoteException {
+        long inicio = System.nanoTime();
+        try {
+            return notifier.unregister(listener);
+        } finally {
+            metricas.record(ServerMetrics.Method.UNREGISTER_LISTENER, inicio);
+        }
     }
 }
@@ -0,0 +1,10 @@
+package br.com.securitysystem;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+
+public interface SecuritySystemListener extends Remote {
+
+    void onStateChanged(List<StateChange> changes) throws RemoteException;
+}
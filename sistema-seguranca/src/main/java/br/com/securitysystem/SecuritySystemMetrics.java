@@ -0,0 +1,102 @@
+package br.com.securitysystem;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Gauges do estado do servidor, lidos sob demanda pelo JMX a partir das estruturas que o
+// SecuritySystemImpl já mantém: nada é calculado no caminho das chamadas RMI
+class SecuritySystemMetrics implements SecuritySystemMetricsMXBean {
+
+    private final SensorRegistry sensores;
+    private final EventLog logEventos;
+    private final AtomicReference<AlarmState> alarme;
+    private final ChangeNotifier notifier;
+    private final AsyncEventLogger consoleLog;
+    private final ServerMetrics metricas;
+    private final SensorSupervisor supervisao;
+
+    SecuritySystemMetrics(SensorRegistry sensores, EventLog logEventos, AtomicReference<AlarmState> alarme,
+            ChangeNotifier notifier, AsyncEventLogger consoleLog, ServerMetrics metricas, SensorSupervisor supervisao) {
+        this.sensores = sensores;
+        this.logEventos = logEventos;
+        this.alarme = alarme;
+        this.notifier = notifier;
+        this.consoleLog = consoleLog;
+        this.metricas = metricas;
+        this.supervisao = supervisao;
+    }
+
+    @Override
+    public int getSensorCount() {
+        return sensores.size();
+    }
+
+    @Override
+    public int getClosedSensorCount() {
+        return sensores.count(SensorState.FECHADO);
+    }
+
+    @Override
+    public int getOpenSensorCount() {
+        return sensores.count(SensorState.ABERTO);
+    }
+
+    @Override
+    public int getLockedSensorCount() {
+        return sensores.count(SensorState.ALERTA_TRANCADO);
+    }
+
+    @Override
+    public int getViolatedSensorCount() {
+        return sensores.count(SensorState.VIOLADO);
+    }
+
+    @Override
+    public int getOfflineSensorCount() {
+        return sensores.count(SensorState.OFFLINE);
+    }
+
+    @Override
+    public int getSupervisedSensorCount() {
+        return supervisao.size();
+    }
+
+    @Override
+    public boolean isAlarmActive() {
+        return alarme.get().isActive();
+    }
+
+    @Override
+    public long getViolationCount() {
+        return metricas.getViolationCount();
+    }
+
+    @Override
+    public long getViolationsLastMinute() {
+        return metricas.getViolationsLastMinute();
+    }
+
+    @Override
+    public int getEventLogSize() {
+        return logEventos.size();
+    }
+
+    @Override
+    public long getEventLogTotal() {
+        return logEventos.count();
+    }
+
+    @Override
+    public int getConnectedClients() {
+        return notifier.getListenerCount();
+    }
+
+    @Override
+    public int getLogQueueDepth() {
+        return consoleLog.getQueueDepth();
+    }
+
+    @Override
+    public long getDroppedLogLines() {
+        return consoleLog.getDroppedCount();
+    }
+}
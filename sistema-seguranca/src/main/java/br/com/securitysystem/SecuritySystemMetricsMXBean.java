@@ -0,0 +1,34 @@
+package br.com.securitysystem;
+
+public interface SecuritySystemMetricsMXBean {
+
+    int getSensorCount();
+
+    int getClosedSensorCount();
+
+    int getOpenSensorCount();
+
+    int getLockedSensorCount();
+
+    int getViolatedSensorCount();
+
+    int getOfflineSensorCount();
+
+    int getSupervisedSensorCount();
+
+    boolean isAlarmActive();
+
+    long getViolationCount();
+
+    long getViolationsLastMinute();
+
+    int getEventLogSize();
+
+    long getEventLogTotal();
+
+    int getConnectedClients();
+
+    int getLogQueueDepth();
+
+    long getDroppedLogLines();
+}
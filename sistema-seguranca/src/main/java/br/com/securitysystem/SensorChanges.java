@@ -0,0 +1,48 @@
+package br.com.securitysystem;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class SensorChanges implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long version;
+    private final boolean fullSnapshot;
+    private final Map<String, String> updated;
+    private final List<String> removed;
+
+    public SensorChanges(long version, boolean fullSnapshot, Map<String, String> updated, List<String> removed) {
+        this.version = version;
+        this.fullSnapshot = fullSnapshot;
+        this.updated = updated;
+        this.removed = removed;
+    }
+
+    public static SensorChanges snapshot(long version, Map<String, String> allSensors) {
+        return new SensorChanges(version, true, allSensors, Collections.emptyList());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Quando true, "updated" contém todos os sensores e o cliente deve descartar o que tinha
+    public boolean isFullSnapshot() {
+        return fullSnapshot;
+    }
+
+    public Map<String, String> getUpdated() {
+        return updated;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return !fullSnapshot && updated.isEmpty() && removed.isEmpty();
+    }
+}
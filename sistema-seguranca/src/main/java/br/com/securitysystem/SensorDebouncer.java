@@ -0,0 +1,170 @@
+package br.com.securitysystem;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Limite de mudanças por sensor na entrada de setSensorStatus, contra sensores com mau contato.
+// Cada sensor tem um token bucket sem lock (capacidade = rajada, reposição = taxa por segundo).
+// Uma mudança sem token não é aplicada na hora: guarda-se só o último estado pedido, aplicado
+// uma vez por janela junto com um evento de resumo.
+class SensorDebouncer {
+
+    // Recebe, a cada janela, o último estado pedido e quantas mudanças foram agrupadas
+    interface Sink {
+        void apply(String sensorId, boolean open, int agrupadas);
+    }
+
+    private static final int DEFAULT_BURST = 10;
+    private static final long DEFAULT_RATE_PER_SECOND = 5;
+    private static final long DEFAULT_WINDOW_MS = 1000;
+
+    // Estado do bucket num long: [40 bits ms desde a criação][24 bits milésimos de token]
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    private final long capacidade;
+    private final long taxaPorSegundo;
+    private final long janelaMs;
+    private final long origem = System.currentTimeMillis();
+    private final Map<String, Gate> porSensor = new ConcurrentHashMap<>();
+    private ScheduledExecutorService agendador;
+
+    SensorDebouncer(int burst, long ratePerSecond, long windowMs) {
+        // O campo de tokens comporta até 16 mil tokens
+        this.capacidade = Math.min(Math.max(1, burst), TOKEN_MASK / MILLI) * MILLI;
+        this.taxaPorSegundo = ratePerSecond;
+        this.janelaMs = Math.max(1, windowMs);
+    }
+
+    // -Ddebounce.burst=10 -Ddebounce.rate=5 -Ddebounce.window.ms=1000; debounce.rate=0 desliga
+    static SensorDebouncer fromSystemProperties() {
+        return new SensorDebouncer(Integer.getInteger("debounce.burst", DEFAULT_BURST),
+                Long.getLong("debounce.rate", DEFAULT_RATE_PER_SECOND),
+                Long.getLong("debounce.window.ms", DEFAULT_WINDOW_MS));
+    }
+
+    boolean isEnabled() {
+        return taxaPorSegundo > 0;
+    }
+
+    void start(Sink destino) {
+        if (!isEnabled()) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sensor-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(() -> flush(destino), janelaMs, janelaMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Espera a janela em andamento terminar, para o flush final não concorrer com ela
+    void close() {
+        if (agendador == null) {
+            return;
+        }
+        agendador.shutdown();
+        try {
+            agendador.awaitTermination(janelaMs + 5000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Consome um token; sem token, a mudança deve ir para defer
+    boolean tryAcquire(String sensorId) {
+        Gate gate = porSensor.computeIfAbsent(sensorId, id -> new Gate(now(), capacidade));
+        long agora = now();
+        gate.ultimoUso = agora;
+        while (true) {
+            long estado = gate.bucket.get();
+            long tokens = refill(estado, agora);
+            if (tokens < MILLI) {
+                return false;
+            }
+            if (gate.bucket.compareAndSet(estado, pack(agora, tokens - MILLI))) {
+                return true;
+            }
+        }
+    }
+
+    void defer(String sensorId, boolean open) {
+        Gate gate = porSensor.computeIfAbsent(sensorId, id -> new Gate(now(), capacidade));
+        gate.desejado = open;
+        gate.agrupadas.incrementAndGet();
+    }
+
+    // Mudanças agrupadas ainda não resumidas; zera a contagem. Usado quando uma mudança passa
+    // pelo limite e torna obsoleto o estado que estava guardado
+    int drain(String sensorId) {
+        Gate gate = porSensor.get(sensorId);
+        return gate != null ? gate.agrupadas.getAndSet(0) : 0;
+    }
+
+    void forget(String sensorId) {
+        porSensor.remove(sensorId);
+    }
+
+    void flush(Sink destino) {
+        if (!isEnabled()) {
+            return;
+        }
+        long agora = now();
+        // Sem uso por tempo suficiente para encher, o bucket equivale a um novo
+        long ociosoMs = capacidade / taxaPorSegundo + janelaMs;
+        Iterator<Map.Entry<String, Gate>> entradas = porSensor.entrySet().iterator();
+        while (entradas.hasNext()) {
+            Map.Entry<String, Gate> entrada = entradas.next();
+            Gate gate = entrada.getValue();
+            int agrupadas = gate.agrupadas.getAndSet(0);
+            if (agrupadas > 0) {
+                try {
+                    destino.apply(entrada.getKey(), gate.desejado, agrupadas);
+                } catch (RuntimeException e) {
+                    System.err.println("[SERVER LOG] Falha ao aplicar mudança agrupada de " + entrada.getKey() + ": " + e);
+                }
+            } else if (agora - gate.ultimoUso > ociosoMs) {
+                entradas.remove();
+            }
+        }
+    }
+
+    long getWindowMs() {
+        return janelaMs;
+    }
+
+    private long refill(long estado, long agora) {
+        long decorrido = Math.max(0, agora - (estado >>> TOKEN_BITS));
+        // taxa tokens/s = taxa milésimos de token por ms
+        long repostos = decorrido >= capacidade ? capacidade : decorrido * taxaPorSegundo;
+        return Math.min(capacidade, (estado & TOKEN_MASK) + repostos);
+    }
+
+    private long now() {
+        return System.currentTimeMillis() - origem;
+    }
+
+    private static long pack(long agora, long tokens) {
+        return (agora << TOKEN_BITS) | tokens;
+    }
+
+    private static final class Gate {
+        final AtomicLong bucket;
+        final AtomicInteger agrupadas = new AtomicInteger();
+        volatile boolean desejado;
+        volatile long ultimoUso;
+
+        Gate(long agora, long capacidade) {
+            bucket = new AtomicLong(pack(agora, capacidade));
+            ultimoUso = agora;
+        }
+    }
+}
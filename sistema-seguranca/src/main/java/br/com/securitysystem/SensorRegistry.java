@@ -0,0 +1,183 @@
+package br.com.securitysystem;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiConsumer;
+
+// Cada sensor recebe um handle inteiro; o estado fica num byte em páginas de arrays
+// indexadas pelo handle. Transições de estado devem ser feitas com lockFor(handle),
+// e os contadores por estado, globais e da zona do sensor, são mantidos a cada transição.
+class SensorRegistry {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int STRIPES = 256;
+    private static final byte FREE = -1;
+
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle IDS = MethodHandles.arrayElementVarHandle(String[].class);
+    private static final VarHandle ZONES = MethodHandles.arrayElementVarHandle(ZoneRegistry.Zone[].class);
+
+    private final Map<String, Integer> handles = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicIntegerArray contagemPorEstado = new AtomicIntegerArray(SensorState.values().length);
+
+    // Protege a alocação de handles e o crescimento das páginas
+    private final Object alocacao = new Object();
+    private final ArrayDeque<Integer> handlesLivres = new ArrayDeque<>();
+    private int proximoHandle = 0;
+    private volatile byte[][] estados = new byte[0][];
+    private volatile String[][] ids = new String[0][];
+    private volatile ZoneRegistry.Zone[][] zonas = new ZoneRegistry.Zone[0][];
+
+    SensorRegistry() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Retorna o handle do novo sensor, ou -1 se o ID já existe
+    int register(String sensorId, SensorState initial) {
+        synchronized (alocacao) {
+            if (handles.containsKey(sensorId)) {
+                return -1;
+            }
+            int handle = handlesLivres.isEmpty() ? allocate() : handlesLivres.pop();
+            STATES.setRelease(estados[handle >>> PAGE_BITS], handle & PAGE_MASK, (byte) initial.ordinal());
+            IDS.setRelease(ids[handle >>> PAGE_BITS], handle & PAGE_MASK, sensorId);
+            contagemPorEstado.incrementAndGet(initial.ordinal());
+            handles.put(sensorId, handle);
+            return handle;
+        }
+    }
+
+    // Deve ser chamado com lockFor(handle)
+    void unregister(int handle, String sensorId) {
+        SensorState atual = state(handle);
+        ZoneRegistry.Zone zona = zoneOf(handle);
+        if (zona != null) {
+            zona.count(atual, -1);
+            zona.membros.remove(sensorId);
+            ZONES.setRelease(zonas[handle >>> PAGE_BITS], handle & PAGE_MASK, (ZoneRegistry.Zone) null);
+        }
+        handles.remove(sensorId, handle);
+        IDS.setRelease(ids[handle >>> PAGE_BITS], handle & PAGE_MASK, (String) null);
+        STATES.setRelease(estados[handle >>> PAGE_BITS], handle & PAGE_MASK, FREE);
+        contagemPorEstado.decrementAndGet(atual.ordinal());
+        synchronized (alocacao) {
+            handlesLivres.push(handle);
+        }
+    }
+
+    int handleOf(String sensorId) {
+        Integer handle = handles.get(sensorId);
+        return handle != null ? handle : -1;
+    }
+
+    Object lockFor(int handle) {
+        return locks[handle & (STRIPES - 1)];
+    }
+
+    // Um handle pode ter sido liberado e reaproveitado por outro ID entre o
+    // handleOf() e a obtenção do lock; com o lock, isso confirma o dono.
+    boolean isLive(int handle, String sensorId) {
+        return sensorId.equals(IDS.getAcquire(ids[handle >>> PAGE_BITS], handle & PAGE_MASK));
+    }
+
+    SensorState state(int handle) {
+        return SensorState.fromCode((byte) STATES.getAcquire(estados[handle >>> PAGE_BITS], handle & PAGE_MASK));
+    }
+
+    // Deve ser chamado com lockFor(handle)
+    void setState(int handle, SensorState newState) {
+        SensorState atual = state(handle);
+        if (atual == newState) {
+            return;
+        }
+        STATES.setRelease(estados[handle >>> PAGE_BITS], handle & PAGE_MASK, (byte) newState.ordinal());
+        contagemPorEstado.decrementAndGet(atual.ordinal());
+        contagemPorEstado.incrementAndGet(newState.ordinal());
+        ZoneRegistry.Zone zona = zoneOf(handle);
+        if (zona != null) {
+            zona.move(atual, newState);
+        }
+    }
+
+    ZoneRegistry.Zone zoneOf(int handle) {
+        return (ZoneRegistry.Zone) ZONES.getAcquire(zonas[handle >>> PAGE_BITS], handle & PAGE_MASK);
+    }
+
+    // Deve ser chamado com lockFor(handle), e com o lock do ZoneRegistry fora da restauração;
+    // null tira o sensor da zona
+    void setZone(int handle, String sensorId, ZoneRegistry.Zone nova) {
+        ZoneRegistry.Zone antiga = zoneOf(handle);
+        if (antiga == nova) {
+            return;
+        }
+        SensorState atual = state(handle);
+        if (antiga != null) {
+            antiga.count(atual, -1);
+            antiga.membros.remove(sensorId);
+        }
+        if (nova != null) {
+            nova.count(atual, 1);
+            nova.membros.add(sensorId);
+        }
+        ZONES.setRelease(zonas[handle >>> PAGE_BITS], handle & PAGE_MASK, nova);
+    }
+
+    SensorState stateOf(String sensorId) {
+        int handle = handleOf(sensorId);
+        if (handle < 0) {
+            return null;
+        }
+        byte codigo = (byte) STATES.getAcquire(estados[handle >>> PAGE_BITS], handle & PAGE_MASK);
+        return codigo == FREE || !isLive(handle, sensorId) ? null : SensorState.fromCode(codigo);
+    }
+
+    int count(SensorState state) {
+        return contagemPorEstado.get(state.ordinal());
+    }
+
+    boolean hasViolation() {
+        return count(SensorState.ALERTA_TRANCADO) > 0 || count(SensorState.VIOLADO) > 0;
+    }
+
+    int size() {
+        return handles.size();
+    }
+
+    void forEach(BiConsumer<String, SensorState> action) {
+        for (Map.Entry<String, Integer> entry : handles.entrySet()) {
+            int handle = entry.getValue();
+            byte codigo = (byte) STATES.getAcquire(estados[handle >>> PAGE_BITS], handle & PAGE_MASK);
+            if (codigo != FREE && isLive(handle, entry.getKey())) {
+                action.accept(entry.getKey(), SensorState.fromCode(codigo));
+            }
+        }
+    }
+
+    private int allocate() {
+        int handle = proximoHandle++;
+        int pagina = handle >>> PAGE_BITS;
+        if (pagina == estados.length) {
+            byte[][] novosEstados = Arrays.copyOf(estados, pagina + 1);
+            String[][] novosIds = Arrays.copyOf(ids, pagina + 1);
+            ZoneRegistry.Zone[][] novasZonas = Arrays.copyOf(zonas, pagina + 1);
+            novosEstados[pagina] = new byte[PAGE_SIZE];
+            novosIds[pagina] = new String[PAGE_SIZE];
+            novasZonas[pagina] = new ZoneRegistry.Zone[PAGE_SIZE];
+            Arrays.fill(novosEstados[pagina], FREE);
+            zonas = novasZonas;
+            ids = novosIds;
+            estados = novosEstados;
+        }
+        return handle;
+    }
+}
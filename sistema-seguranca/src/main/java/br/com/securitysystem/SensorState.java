@@ -0,0 +1,18 @@
+package br.com.securitysystem;
+
+// Os nomes são os mesmos textos de status que os clientes já recebem via RMI. O código gravado
+// em snapshots e no journal é o ordinal: estados novos entram sempre no fim.
+public enum SensorState {
+    // OFFLINE: sensor supervisionado que parou de mandar sinal de vida
+    FECHADO, ABERTO, ALERTA_TRANCADO, VIOLADO, OFFLINE;
+
+    private static final SensorState[] VALUES = values();
+
+    public boolean isViolation() {
+        return this == ALERTA_TRANCADO || this == VIOLADO;
+    }
+
+    static SensorState fromCode(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.securitysystem;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Status de todos os sensores, na forma compacta usada pelo RMI. Em vez do HashMap de
+// getAllSensorStatus (descritor de classe, entradas e o texto do status repetido a cada
+// sensor), vai um único bloco: [int sensores]{[varint prefixo][utf8 sufixo][byte código do SensorState]}.
+// O ID é codificado pelo prefixo que compartilha com o anterior; na ordem do registro os IDs
+// vizinhos costumam diferir só nos últimos caracteres.
+public final class SensorStatusSnapshot implements Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String[] ids;
+    private byte[] estados;
+
+    // Exigido pelo Externalizable
+    public SensorStatusSnapshot() {
+        this(new String[0], new byte[0]);
+    }
+
+    private SensorStatusSnapshot(String[] ids, byte[] estados) {
+        this.ids = ids;
+        this.estados = estados;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public String getSensorId(int index) {
+        return ids[index];
+    }
+
+    public SensorState getState(int index) {
+        return SensorState.fromCode(estados[index]);
+    }
+
+    // Mesmo conteúdo de getAllSensorStatus
+    public Map<String, String> toMap() {
+        Map<String, String> statusPorSensor = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            statusPorSensor.put(ids[i], SensorState.fromCode(estados[i]).name());
+        }
+        return statusPorSensor;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput saida) throws IOException {
+        WireFormat.Writer corpo = new WireFormat.Writer(8 + ids.length * 12);
+        corpo.writeInt(ids.length);
+        String anterior = "";
+        for (int i = 0; i < ids.length; i++) {
+            int comum = commonPrefix(anterior, ids[i]);
+            corpo.writeVarLong(comum);
+            corpo.writeString(ids[i].substring(comum));
+            corpo.writeByte(estados[i]);
+            anterior = ids[i];
+        }
+        WireFormat.writeTo(saida, corpo);
+    }
+
+    @Override
+    public void readExternal(ObjectInput entrada) throws IOException {
+        WireFormat.Reader corpo = WireFormat.readFrom(entrada);
+        int total = corpo.readInt();
+        if (total < 0) {
+            throw new InvalidObjectException("Total de sensores inválido: " + total);
+        }
+        String[] lidos = new String[total];
+        byte[] codigos = new byte[total];
+        int limite = SensorState.values().length;
+        String anterior = "";
+        for (int i = 0; i < total; i++) {
+            long comum = corpo.readVarLong();
+            String sufixo = corpo.readString();
+            if (comum > anterior.length() || sufixo == null) {
+                throw new InvalidObjectException("ID de sensor malformado na posição " + i);
+            }
+            lidos[i] = comum == 0 ? sufixo : anterior.substring(0, (int) comum).concat(sufixo);
+            anterior = lidos[i];
+            int codigo = corpo.readByte();
+            if (codigo < 0 || codigo >= limite) {
+                throw new InvalidObjectException("Estado de sensor inválido: " + codigo);
+            }
+            codigos[i] = (byte) codigo;
+        }
+        ids = lidos;
+        estados = codigos;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int limite = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < limite && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        // Não separa um par substituto entre o prefixo e o sufixo
+        if (i > 0 && Character.isHighSurrogate(a.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    static final class Builder {
+        private String[] ids;
+        private byte[] estados;
+        private int total;
+
+        Builder(int capacidade) {
+            ids = new String[Math.max(8, capacidade)];
+            estados = new byte[ids.length];
+        }
+
+        Builder add(String sensorId, SensorState state) {
+            if (total == ids.length) {
+                ids = Arrays.copyOf(ids, total * 2);
+                estados = Arrays.copyOf(estados, total * 2);
+            }
+            ids[total] = sensorId;
+            estados[total] = (byte) state.ordinal();
+            total++;
+            return this;
+        }
+
+        Builder addAll(SensorStatusSnapshot outro) {
+            for (int i = 0; i < outro.ids.length; i++) {
+                add(outro.ids[i], SensorState.fromCode(outro.estados[i]));
+            }
+            return this;
+        }
+
+        SensorStatusSnapshot build() {
+            return new SensorStatusSnapshot(Arrays.copyOf(ids, total), Arrays.copyOf(estados, total));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package br.com.securitysystem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Supervisão dos sensores que mandam heartbeat: quem passa do prazo sem se comunicar é
+// entregue ao callback de expiração. Os prazos ficam numa roda de tempo (hashed timing wheel)
+// com um slot por tick; cada tick só visita o slot da vez, nunca a lista de sensores.
+//
+// O heartbeat não mexe na roda: só atualiza o prazo da entrada. Quando o slot onde a entrada
+// está chega, ela é reagendada para o prazo novo ou expira. Cada sensor ativo é visitado uma
+// vez por período de timeout, não a cada heartbeat nem a cada tick.
+class SensorSupervisor {
+
+    private static final int WHEEL_SLOTS = 1024;
+    private static final long DEFAULT_TIMEOUT_S = 60;
+    private static final long DEFAULT_TICK_MS = 1000;
+
+    private final boolean habilitada;
+    private final long timeoutTicks;
+    private final long tickMs;
+    private final long origem = System.currentTimeMillis();
+    private final Map<String, Entry> porSensor = new ConcurrentHashMap<>();
+    // Entradas novas ou de volta depois de expirar; só a thread do tick mexe nos slots
+    private final ConcurrentLinkedQueue<Entry> entrando = new ConcurrentLinkedQueue<>();
+    private final List<ArrayDeque<Entry>> slots = new ArrayList<>(WHEEL_SLOTS);
+    private long tickAtual = 0;
+    private ScheduledExecutorService agendador;
+
+    SensorSupervisor(long timeoutMs, long tickMs) {
+        this.habilitada = timeoutMs > 0;
+        this.tickMs = Math.max(1, tickMs);
+        this.timeoutTicks = Math.max(1, (timeoutMs + this.tickMs - 1) / this.tickMs);
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            slots.add(new ArrayDeque<>());
+        }
+    }
+
+    // -Dsupervision.timeout.s=60 -Dsupervision.tick.ms=1000; supervision.timeout.s=0 desliga
+    static SensorSupervisor fromSystemProperties() {
+        return new SensorSupervisor(Long.getLong("supervision.timeout.s", DEFAULT_TIMEOUT_S) * 1000,
+                Long.getLong("supervision.tick.ms", DEFAULT_TICK_MS));
+    }
+
+    boolean isEnabled() {
+        return habilitada;
+    }
+
+    long getTimeoutMs() {
+        return timeoutTicks * tickMs;
+    }
+
+    void start(Consumer<String> aoExpirar) {
+        if (!habilitada) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sensor-supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleAtFixedRate(() -> {
+            try {
+                advance(now(), aoExpirar);
+            } catch (RuntimeException e) {
+                System.err.println("[SERVER LOG] Falha na supervisão de sensores: " + e);
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    void close() {
+        if (agendador != null) {
+            agendador.shutdown();
+        }
+    }
+
+    // O primeiro heartbeat coloca o sensor sob supervisão
+    void heartbeat(String sensorId) {
+        Entry entrada = porSensor.get(sensorId);
+        if (entrada == null) {
+            Entry nova = new Entry(sensorId, now() + timeoutTicks);
+            entrada = porSensor.putIfAbsent(sensorId, nova);
+            if (entrada == null) {
+                entrando.add(nova);
+                return;
+            }
+        }
+        renew(entrada);
+    }
+
+    // Qualquer leitura prova que o sensor está vivo, mas só renova quem já está sob supervisão
+    void touch(String sensorId) {
+        Entry entrada = porSensor.get(sensorId);
+        if (entrada != null) {
+            renew(entrada);
+        }
+    }
+
+    private void renew(Entry entrada) {
+        entrada.prazo = now() + timeoutTicks;
+        // Expirada, a entrada saiu da roda e precisa voltar
+        if (entrada.expirada.compareAndSet(true, false)) {
+            entrando.add(entrada);
+        }
+    }
+
+    boolean isExpired(String sensorId) {
+        Entry entrada = porSensor.get(sensorId);
+        return entrada != null && entrada.expirada.get();
+    }
+
+    boolean isSupervised(String sensorId) {
+        return porSensor.containsKey(sensorId);
+    }
+
+    int size() {
+        return porSensor.size();
+    }
+
+    void forget(String sensorId) {
+        Entry entrada = porSensor.remove(sensorId);
+        if (entrada != null) {
+            entrada.cancelada = true;
+        }
+    }
+
+    // Processa os ticks até o informado; chamado só pela thread do tick
+    void advance(long ate, Consumer<String> aoExpirar) {
+        for (Entry entrada; (entrada = entrando.poll()) != null;) {
+            schedule(entrada);
+        }
+        while (tickAtual < ate) {
+            tickAtual++;
+            ArrayDeque<Entry> slot = slots.get((int) (tickAtual & (WHEEL_SLOTS - 1)));
+            for (int restantes = slot.size(); restantes > 0; restantes--) {
+                Entry entrada = slot.poll();
+                if (entrada.cancelada) {
+                    continue;
+                }
+                if (entrada.agendadaPara > tickAtual) {
+                    // Prazo mais de uma volta à frente
+                    slot.add(entrada);
+                } else if (entrada.prazo > tickAtual) {
+                    schedule(entrada);
+                } else if (entrada.expirada.compareAndSet(false, true)) {
+                    aoExpirar.accept(entrada.sensorId);
+                }
+            }
+        }
+    }
+
+    private void schedule(Entry entrada) {
+        long alvo = Math.max(entrada.prazo, tickAtual + 1);
+        entrada.agendadaPara = alvo;
+        slots.get((int) (alvo & (WHEEL_SLOTS - 1))).add(entrada);
+    }
+
+    private long now() {
+        return (System.currentTimeMillis() - origem) / tickMs;
+    }
+
+    private static final class Entry {
+        final String sensorId;
+        final AtomicBoolean expirada = new AtomicBoolean();
+        // Tick limite para o próximo sinal de vida, atualizado por quem recebe o heartbeat
+        volatile long prazo;
+        volatile boolean cancelada;
+        // Tick do slot em que a entrada está; só a thread do tick usa
+        long agendadaPara;
+
+        Entry(String sensorId, long prazo) {
+            this.sensorId = sensorId;
+            this.prazo = prazo;
+        }
+    }
+}
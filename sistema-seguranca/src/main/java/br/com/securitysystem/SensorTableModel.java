@@ -0,0 +1,111 @@
+package br.com.securitysystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+// Linhas da tabela de sensores indexadas pelo ID. Uma linha existente nunca é recriada: o
+// status muda pelo statusProperty, e a TableView só redesenha a célula afetada. Inserções e
+// remoções saem em lote, com um único evento de mudança na lista. Só a thread de UI usa.
+class SensorTableModel {
+
+    private final ObservableList<SensorData> linhas = FXCollections.observableArrayList();
+    private final Map<String, SensorData> porId = new HashMap<>();
+    // Sensores em VIOLADO ou ALERTA_TRANCADO, mantido a cada troca de status
+    private int violacoes = 0;
+
+    ObservableList<SensorData> getRows() {
+        return linhas;
+    }
+
+    int size() {
+        return porId.size();
+    }
+
+    boolean hasViolation() {
+        return violacoes > 0;
+    }
+
+    SensorData get(String sensorId) {
+        return porId.get(sensorId);
+    }
+
+    void put(String sensorId, String status) {
+        SensorData linha = porId.get(sensorId);
+        if (linha == null) {
+            linhas.add(create(sensorId, status));
+        } else {
+            updateStatus(linha, status);
+        }
+    }
+
+    void remove(String sensorId) {
+        SensorData linha = porId.remove(sensorId);
+        if (linha != null) {
+            if (isViolation(linha.getStatus())) {
+                violacoes--;
+            }
+            linhas.remove(linha);
+        }
+    }
+
+    // Iguala a tabela ao estado completo do servidor mexendo só no que mudou
+    void sync(Map<String, String> estado) {
+        List<SensorData> novas = new ArrayList<>();
+        for (Map.Entry<String, String> entry : estado.entrySet()) {
+            SensorData linha = porId.get(entry.getKey());
+            if (linha == null) {
+                novas.add(create(entry.getKey(), entry.getValue()));
+            } else {
+                updateStatus(linha, entry.getValue());
+            }
+        }
+        // Depois das inserções todo ID do estado está no índice; o excedente saiu do servidor
+        if (porId.size() > estado.size()) {
+            linhas.removeIf(linha -> {
+                if (estado.containsKey(linha.getId())) {
+                    return false;
+                }
+                porId.remove(linha.getId());
+                if (isViolation(linha.getStatus())) {
+                    violacoes--;
+                }
+                return true;
+            });
+        }
+        if (!novas.isEmpty()) {
+            linhas.addAll(novas);
+        }
+    }
+
+    private SensorData create(String sensorId, String status) {
+        SensorData linha = new SensorData(sensorId, status);
+        porId.put(sensorId, linha);
+        if (isViolation(status)) {
+            violacoes++;
+        }
+        return linha;
+    }
+
+    private void updateStatus(SensorData linha, String status) {
+        String anterior = linha.getStatus();
+        if (anterior.equals(status)) {
+            return;
+        }
+        if (isViolation(anterior)) {
+            violacoes--;
+        }
+        if (isViolation(status)) {
+            violacoes++;
+        }
+        linha.setStatus(status);
+    }
+
+    private static boolean isViolation(String status) {
+        return status.equals("VIOLADO") || status.equals("ALERTA_TRANCADO");
+    }
+}
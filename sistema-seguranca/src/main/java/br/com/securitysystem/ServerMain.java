@@ -1,30 +1,106 @@
 package br.com.securitysystem;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.Arrays;
+
+import javax.management.ObjectName;
+
+import org.eclipse.paho.client.mqttv3.MqttException;
 
 public class ServerMain {
 
     private static final int RMI_PORT = 1099;
     // IP do Servidor RMI
     private static final String RMI_HOST = "10.239.171.7";
+    // Tempo máximo de uma notificação a um cliente antes de considerá-lo morto
+    private static final String CALLBACK_TIMEOUT_MS = "5000";
 
     public static void main(String[] args) {
         try {
-            System.setProperty("java.rmi.server.hostname", RMI_HOST);
+            // -Drmi.host/-Drmi.port permitem vários nós na mesma máquina (modo shard)
+            String host = System.getProperty("rmi.host", RMI_HOST);
+            int porta = Integer.getInteger("rmi.port", RMI_PORT);
+            System.setProperty("java.rmi.server.hostname", host);
+            System.setProperty("sun.rmi.transport.tcp.responseTimeout", CALLBACK_TIMEOUT_MS);
+
+            SecuritySystem remoteObj;
+            // Modo shard: -Dshard.nodes=host:porta,host:porta,... faz deste processo só o roteador
+            String nosShard = System.getProperty("shard.nodes");
+            if (nosShard != null) {
+                ShardedSecuritySystem roteador = new ShardedSecuritySystem(Arrays.asList(nosShard.split(",")));
+                Runtime.getRuntime().addShutdownHook(new Thread(roteador::close, "shard-shutdown"));
+                System.out.println("[SERVER INIT] Modo shard: roteando para " + roteador.getShardCount() + " nós.");
+                remoteObj = roteador;
+            } else {
+                // Estado persistido em data/: o último snapshot válido é carregado e completado pelo
+                // journal antes de o serviço ser publicado no registry
+                EventJournal journal = EventJournal.fromSystemProperties();
+                SnapshotStore snapshots = SnapshotStore.fromSystemProperties();
 
-            SecuritySystem remoteObj = new SecuritySystemImpl();
+                SecuritySystemImpl sistema = new SecuritySystemImpl(journal, snapshots);
+                Runtime.getRuntime().addShutdownHook(new Thread(sistema::close, "state-shutdown"));
+                // Métricas via JMX (jconsole/VisualVM): br.com.securitysystem:type=RmiMethod,* e type=SecuritySystem
+                sistema.registerMBeans(ManagementFactory.getPlatformMBeanServer());
+                remoteObj = sistema;
 
-            Registry registry = LocateRegistry.createRegistry(RMI_PORT);
+                // Standby: -Dreplica.of=host:porta mantém uma cópia do primário e só publica o
+                // serviço quando for promovido
+                String primario = System.getProperty("replica.of");
+                if (primario != null) {
+                    Registry registry = LocateRegistry.createRegistry(porta);
+                    ReplicaSync replica = ReplicaSync.fromSystemProperties(sistema, primario, () -> {
+                        try {
+                            registry.rebind("SecuritySystemService", sistema);
+                            System.out.println("[SERVER INIT] Serviço 'SecuritySystemService' publicado em " + host + ":" + porta);
+                            startGateways(sistema);
+                        } catch (IOException | MqttException e) {
+                            System.err.println("[SERVER INIT] Falha ao publicar o serviço promovido: " + e.getMessage());
+                        }
+                    });
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(replica,
+                            new ObjectName(ServerMetrics.DOMAIN + ":type=Replication"));
+                    replica.start();
+                    System.out.println("\n[SERVER INIT] Standby do primário " + primario + " em " + host + ":" + porta
+                            + "; o serviço será publicado na promoção.");
+                    return;
+                }
+            }
+
+            Registry registry = LocateRegistry.createRegistry(porta);
 
             registry.bind("SecuritySystemService", remoteObj);
 
-            System.out.println("\n[SERVER INIT] Servidor RMI SecuritySystem iniciado em " + RMI_HOST + ":" + RMI_PORT);
+            System.out.println("\n[SERVER INIT] Servidor RMI SecuritySystem iniciado em " + host + ":" + porta);
             System.out.println("[SERVER INIT] Serviço 'SecuritySystemService' pronto.");
 
+            startGateways(remoteObj);
+
         } catch (Exception e) {
             System.err.println("\nErro Crítico no Servidor RMI: " + e.toString());
             e.printStackTrace();
         }
     }
+
+    // Pontos de entrada dos sensores além do RMI; no standby, só depois da promoção
+    private static void startGateways(SecuritySystem remoteObj) throws IOException, MqttException {
+        // Protocolo binário opcional para gateways: -Dbinary.port=1200 [-Dbinary.threads=4]
+        if (System.getProperty("binary.port") != null) {
+            BinaryProtocolServer binario = BinaryProtocolServer.fromSystemProperties(remoteObj);
+            binario.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(binario::close, "binary-shutdown"));
+            System.out.println("[SERVER INIT] Protocolo binário na porta " + binario.getPort());
+        }
+
+        // Gateway MQTT opcional: -Dmqtt.broker=tcp://localhost:1883 [-Dmqtt.topic=building/+/sensor/+]
+        String mqttBroker = System.getProperty("mqtt.broker");
+        if (mqttBroker != null) {
+            MqttSensorGateway gateway = new MqttSensorGateway(remoteObj, mqttBroker,
+                    System.getProperty("mqtt.topic", MqttSensorGateway.DEFAULT_TOPIC));
+            gateway.start();
+            System.out.println("[SERVER INIT] Gateway MQTT conectado a " + mqttBroker);
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package br.com.securitysystem;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Contadores e histogramas de latência dos métodos RMI. Registrar uma chamada custa um
+// System.nanoTime() e alguns incrementos atômicos; nada é alocado no caminho das chamadas.
+class ServerMetrics {
+
+    static final String DOMAIN = "br.com.securitysystem";
+
+    enum Method {
+        IS_ALARM_ACTIVE("isAlarmActive"),
+        IS_ALARM_ARMED("isAlarmArmed"),
+        SET_ALARM_STATUS("setAlarmStatus"),
+        SET_SENSOR_STATUS("setSensorStatus"),
+        SET_SENSOR_STATUSES("setSensorStatuses"),
+        APPLY_SENSOR_READINGS("applySensorReadings"),
+        RESET_SENSOR_ALARM("resetSensorAlarm"),
+        REGISTER_EVENT("registerEvent"),
+        GET_SENSOR_STATUS("getSensorStatus"),
+        HEARTBEAT("heartbeat"),
+        HEARTBEATS("heartbeats"),
+        GET_ALL_SENSOR_STATUS("getAllSensorStatus"),
+        GET_SENSOR_STATUS_SNAPSHOT("getSensorStatusSnapshot"),
+        GET_CHANGES_SINCE("getChangesSince"),
+        GET_DASHBOARD_SNAPSHOT("getDashboardSnapshot"),
+        ADD_SENSOR("addSensor"),
+        REMOVE_SENSOR("removeSensor"),
+        ADD_ZONE("addZone"),
+        REMOVE_ZONE("removeZone"),
+        SET_SENSOR_ZONE("setSensorZone"),
+        SET_ZONE_ALARM_STATUS("setZoneAlarmStatus"),
+        RESET_ZONE_ALARM("resetZoneAlarm"),
+        GET_ZONE_STATUS("getZoneStatus"),
+        GET_ZONE_STATUSES("getZoneStatuses"),
+        GET_SENSOR_ZONES("getSensorZones"),
+        GET_LOG_EVENTS("getLogEvents"),
+        GET_LOG_EVENTS_BEFORE("getLogEventsBefore"),
+        GET_LOG_PAGE("getLogPage"),
+        SEARCH_LOG_EVENTS("searchLogEvents"),
+        GET_LOG_EVENT_COUNT("getLogEventCount"),
+        REGISTER_LISTENER("registerListener"),
+        UNREGISTER_LISTENER("unregisterListener");
+
+        private final String nome;
+
+        Method(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    private static final Method[] METHODS = Method.values();
+    private static final int WINDOW_SECONDS = 60;
+
+    private final MethodMetrics[] porMetodo = new MethodMetrics[METHODS.length];
+    private final LongAdder violacoes = new LongAdder();
+    // Janela deslizante de um minuto: um contador por segundo, marcado com o segundo a que pertence
+    private final AtomicLongArray violacoesPorSegundo = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray segundoDoSlot = new AtomicLongArray(WINDOW_SECONDS);
+
+    ServerMetrics() {
+        for (Method metodo : METHODS) {
+            porMetodo[metodo.ordinal()] = new MethodMetrics();
+        }
+    }
+
+    // Uso: long inicio = System.nanoTime(); try { ... } finally { metricas.record(METODO, inicio); }
+    void record(Method metodo, long inicioNanos) {
+        porMetodo[metodo.ordinal()].histograma.record(System.nanoTime() - inicioNanos);
+    }
+
+    void violationFired() {
+        violacoes.increment();
+        long segundo = System.currentTimeMillis() / 1000;
+        int slot = (int) (segundo % WINDOW_SECONDS);
+        long marcado = segundoDoSlot.get(slot);
+        if (marcado != segundo && segundoDoSlot.compareAndSet(slot, marcado, segundo)) {
+            violacoesPorSegundo.set(slot, 0);
+        }
+        violacoesPorSegundo.incrementAndGet(slot);
+    }
+
+    long getViolationCount() {
+        return violacoes.sum();
+    }
+
+    long getViolationsLastMinute() {
+        long agora = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+            if (agora - segundoDoSlot.get(slot) < WINDOW_SECONDS) {
+                total += violacoesPorSegundo.get(slot);
+            }
+        }
+        return total;
+    }
+
+    LatencyHistogram.Snapshot latencyOf(Method metodo) {
+        return porMetodo[metodo.ordinal()].histograma.snapshot();
+    }
+
+    // Um MBean por método: br.com.securitysystem:type=RmiMethod,name=<método>
+    void register(MBeanServer servidor) throws JMException {
+        for (Method metodo : METHODS) {
+            servidor.registerMBean(porMetodo[metodo.ordinal()],
+                    new ObjectName(DOMAIN + ":type=RmiMethod,name=" + metodo.nome));
+        }
+    }
+
+    private static final class MethodMetrics implements RmiMethodMetricsMXBean {
+        private final LatencyHistogram histograma = new LatencyHistogram();
+
+        @Override
+        public long getCallCount() {
+            return histograma.snapshot().getCount();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            return histograma.snapshot().getMean() / 1000.0;
+        }
+
+        @Override
+        public double getP50Micros() {
+            return histograma.snapshot().percentile(50) / 1000.0;
+        }
+
+        @Override
+        public double getP90Micros() {
+            return histograma.snapshot().percentile(90) / 1000.0;
+        }
+
+        @Override
+        public double getP99Micros() {
+            return histograma.snapshot().percentile(99) / 1000.0;
+        }
+
+        @Override
+        public double getP999Micros() {
+            return histograma.snapshot().percentile(99.9) / 1000.0;
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return histograma.snapshot().getMax() / 1000.0;
+        }
+
+        @Override
+        public void reset() {
+            histograma.reset();
+        }
+    }
+}
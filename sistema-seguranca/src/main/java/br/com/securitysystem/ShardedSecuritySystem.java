@@ -0,0 +1,659 @@
+package br.com.securitysystem;
+
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fachada de roteamento do modo shard: implementa SecuritySystem sobre vários nós
+// SecuritySystemImpl (um por site), cada um publicado no seu próprio registry RMI.
+// Operações de um sensor vão para o nó dono do ID no anel de hash consistente; consultas
+// globais são feitas em paralelo em todos os nós e combinadas.
+//
+// O alarme é de cada site: uma violação tranca só o nó onde aconteceu, e ativar/desativar é
+// repassado a todos os nós, com o resultado de cada um. Para os clientes, o alarme aparece
+// ativo (ou trancado) se estiver assim em algum site.
+//
+// As sequências do log são de cada nó, então os eventos devolvidos pelo roteador levam na
+// sequência um cursor do próprio roteador, que guarda a posição em cada nó logo depois daquele
+// evento. As páginas seguintes continuam de onde cada nó parou.
+public class ShardedSecuritySystem extends UnicastRemoteObject implements SecuritySystem {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String SERVICE_NAME = "SecuritySystemService";
+    private static final int MAX_CHANGE_HISTORY = 4096;
+    // Ressincronização periódica: recupera mudanças perdidas se um nó descartar nosso listener
+    private static final long RESYNC_INTERVAL_MS = 1000;
+    // Cursores de log lembrados; um cliente que pagina mais devagar que isso recomeça a busca
+    private static final int MAX_LOG_CURSORS = 16_384;
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final ConsistentHashRing anel;
+    private final ChangeHistory historico = new ChangeHistory(MAX_CHANGE_HISTORY, System.currentTimeMillis() << 10);
+    // O roteador não tem EventLog: os avisos vão direto para o console, fora das threads de chamada
+    private final AsyncEventLogger consoleLog = AsyncEventLogger.fromSystemProperties();
+    private final ChangeNotifier notifier = new ChangeNotifier(mensagem -> consoleLog.submit(
+            new LogEvent(0, System.currentTimeMillis(), EventType.SYSTEM, null, mensagem)));
+    private final Object alarmeLock = new Object();
+    private final ExecutorService chamadas = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shard-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService sincronizador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong proximoCursor = new AtomicLong();
+    // Cursor -> sequência a pedir a cada nó, na ordem de shards; protegido por ele mesmo
+    private final Map<Long, long[]> cursores = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> maisAntigo) {
+            return size() > MAX_LOG_CURSORS;
+        }
+    };
+
+    // Endereços no formato host:porta; a ordem não importa para o roteamento
+    public ShardedSecuritySystem(List<String> enderecos) throws RemoteException, NotBoundException {
+        for (String endereco : enderecos) {
+            shards.add(new Shard(shards.size(), endereco.trim(), lookup(endereco.trim())));
+        }
+        List<String> nomes = new ArrayList<>();
+        for (Shard shard : shards) {
+            nomes.add(shard.nome);
+        }
+        anel = new ConsistentHashRing(nomes);
+        for (Shard shard : shards) {
+            shard.subscribe();
+            shard.sync();
+        }
+        sincronizador.scheduleWithFixedDelay(this::resyncAll, RESYNC_INTERVAL_MS, RESYNC_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private static SecuritySystem lookup(String endereco) throws RemoteException, NotBoundException {
+        int separador = endereco.lastIndexOf(':');
+        if (separador < 0) {
+            throw new IllegalArgumentException("Endereço de nó inválido (esperado host:porta): " + endereco);
+        }
+        String host = endereco.substring(0, separador);
+        int porta = Integer.parseInt(endereco.substring(separador + 1));
+        return (SecuritySystem) LocateRegistry.getRegistry(host, porta).lookup(SERVICE_NAME);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    // Cancela as assinaturas nos nós; chamado no desligamento do roteador
+    public void close() {
+        sincronizador.shutdownNow();
+        for (Shard shard : shards) {
+            shard.unsubscribe();
+        }
+    }
+
+    private Shard shardFor(String sensorId) {
+        return shards.get(anel.nodeFor(sensorId));
+    }
+
+    // Um sensor pode existir em mais de um nó (cadastrado antes do shard, ou direto no nó), mas só
+    // o dono no anel recebe as mudanças: as visões combinadas usam só a cópia dele
+    private boolean owns(Shard shard, String sensorId) {
+        return anel.nodeFor(sensorId) == shard.indice;
+    }
+
+    private void resyncAll() {
+        for (Shard shard : shards) {
+            try {
+                shard.subscribe();
+                shard.sync();
+            } catch (RemoteException | RuntimeException e) {
+                System.err.println("[SHARD] Nó " + shard.nome + " indisponível: " + e.getMessage());
+            }
+        }
+    }
+
+    private void publish(StateChange change) {
+        notifier.publish(historico.append(change));
+    }
+
+    // Serializado: cada publicação lê os estados depois de gravados, então a última publicada
+    // sempre reflete todos os sites
+    private void publishAlarm() {
+        synchronized (alarmeLock) {
+            boolean ativo = false;
+            boolean trancado = false;
+            for (Shard shard : shards) {
+                ativo |= shard.alarmeAtivo;
+                trancado |= shard.alarmeTrancado;
+            }
+            publish(StateChange.alarm(ativo, trancado));
+        }
+    }
+
+    private Map<String, String> mergedView() {
+        Map<String, String> todos = new HashMap<>();
+        for (Shard shard : shards) {
+            shard.copyTo(todos);
+        }
+        return todos;
+    }
+
+    private interface RemoteCall<T> {
+        T call(Shard shard) throws RemoteException;
+    }
+
+    // Executa a chamada em paralelo nos nós; a falha de qualquer um falha a operação inteira
+    private <T> List<T> fanOut(List<Shard> alvos, RemoteCall<T> chamada) throws RemoteException {
+        List<Future<T>> futuros = new ArrayList<>(alvos.size());
+        for (Shard shard : alvos) {
+            futuros.add(chamadas.submit(() -> chamada.call(shard)));
+        }
+        List<T> resultados = new ArrayList<>(alvos.size());
+        for (int i = 0; i < alvos.size(); i++) {
+            try {
+                resultados.add(futuros.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RemoteException("Interrompido aguardando o nó " + alvos.get(i).nome, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RemoteException) {
+                    throw (RemoteException) e.getCause();
+                }
+                throw new RemoteException("Falha no nó " + alvos.get(i).nome, e.getCause());
+            }
+        }
+        return resultados;
+    }
+
+    private interface PageCall {
+        LogPage call(Shard shard, long sequence) throws RemoteException;
+    }
+
+    private List<LogEvent> mergedLogEvents(long sequence, int limit) throws RemoteException {
+        return mergedLogEvents(shards, sequence, limit, (shard, posicao) -> shard.no.getLogPage(posicao, limit));
+    }
+
+    // Junta as páginas dos nós do mais recente para o mais antigo (empate: ordem de shards),
+    // preservando a ordem de cada nó, e troca a sequência de cada evento por um cursor
+    private List<LogEvent> mergedLogEvents(List<Shard> alvos, long sequence, int limit, PageCall chamada)
+            throws RemoteException {
+        long[] posicoes = positionsFor(sequence);
+        List<LogPage> partes = fanOut(alvos, shard -> chamada.call(shard, posicoes[shard.indice]));
+        int[] proximo = new int[partes.size()];
+        List<LogEvent> eventos = new ArrayList<>(Math.max(0, limit));
+        while (eventos.size() < limit) {
+            int escolhida = -1;
+            for (int i = 0; i < partes.size(); i++) {
+                List<LogEvent> parte = partes.get(i).getEvents();
+                if (proximo[i] < parte.size() && (escolhida < 0 || parte.get(proximo[i]).getTimestamp()
+                        > partes.get(escolhida).getEvents().get(proximo[escolhida]).getTimestamp())) {
+                    escolhida = i;
+                }
+            }
+            if (escolhida < 0) {
+                break;
+            }
+            LogEvent evento = partes.get(escolhida).getEvents().get(proximo[escolhida]++);
+            posicoes[alvos.get(escolhida).indice] = evento.getSequence();
+            long cursor = proximoCursor.getAndIncrement();
+            synchronized (cursores) {
+                cursores.put(cursor, posicoes.clone());
+            }
+            eventos.add(new LogEvent(cursor, evento.getTimestamp(), evento.getType(), evento.getSensorId(),
+                    evento.getMessage()));
+        }
+        return eventos;
+    }
+
+    private long[] positionsFor(long sequence) {
+        long[] posicoes;
+        if (sequence == Long.MAX_VALUE) {
+            posicoes = new long[shards.size()];
+            Arrays.fill(posicoes, Long.MAX_VALUE);
+            return posicoes;
+        }
+        synchronized (cursores) {
+            posicoes = cursores.get(sequence);
+        }
+        if (posicoes == null) {
+            throw new IllegalArgumentException("Cursor de log desconhecido ou expirado: " + sequence);
+        }
+        return posicoes.clone();
+    }
+
+    // MÉTODOS RMI
+
+    @Override
+    public String setAlarmStatus(boolean status) throws RemoteException {
+        return perShard(fanOut(shards, shard -> shard.no.setAlarmStatus(status)));
+    }
+
+    // Uma linha por nó, na ordem de shards
+    private String perShard(List<String> resultados) {
+        if (shards.size() == 1) {
+            return resultados.get(0);
+        }
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < shards.size(); i++) {
+            if (i > 0) {
+                texto.append('\n');
+            }
+            texto.append("Site ").append(shards.get(i).nome).append(": ").append(resultados.get(i));
+        }
+        return texto.toString();
+    }
+
+    @Override
+    public boolean isAlarmActive() throws RemoteException {
+        for (boolean ativo : fanOut(shards, shard -> shard.no.isAlarmActive())) {
+            if (ativo) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isAlarmArmed() throws RemoteException {
+        for (boolean armado : fanOut(shards, shard -> shard.no.isAlarmArmed())) {
+            if (armado) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String setSensorStatus(String sensorId, boolean isOpen) throws RemoteException {
+        return shardFor(sensorId).no.setSensorStatus(sensorId, isOpen);
+    }
+
+    @Override
+    public Map<String, String> setSensorStatuses(Map<String, Boolean> updates) throws RemoteException {
+        return perSensorShard(updates, (shard, parte) -> shard.no.setSensorStatuses(parte));
+    }
+
+    @Override
+    public Map<String, String> applySensorReadings(Map<String, Boolean> readings) throws RemoteException {
+        return perSensorShard(readings, (shard, parte) -> shard.no.applySensorReadings(parte));
+    }
+
+    private interface BatchCall {
+        Map<String, String> call(Shard shard, Map<String, Boolean> parte) throws RemoteException;
+    }
+
+    // Divide o lote pelo dono de cada sensor e chama os nós em paralelo
+    private Map<String, String> perSensorShard(Map<String, Boolean> updates, BatchCall chamada) throws RemoteException {
+        Map<Shard, Map<String, Boolean>> porShard = new LinkedHashMap<>();
+        for (Map.Entry<String, Boolean> update : updates.entrySet()) {
+            porShard.computeIfAbsent(shardFor(update.getKey()), shard -> new LinkedHashMap<>())
+                    .put(update.getKey(), update.getValue());
+        }
+        List<Shard> alvos = new ArrayList<>(porShard.keySet());
+        Map<String, String> respostas = new HashMap<>(updates.size() * 2);
+        for (Map<String, String> parte : fanOut(alvos, shard -> chamada.call(shard, porShard.get(shard)))) {
+            respostas.putAll(parte);
+        }
+        // Mantém a ordem do pedido, como o SecuritySystemImpl
+        Map<String, String> resultados = new LinkedHashMap<>(updates.size() * 2);
+        for (String sensorId : updates.keySet()) {
+            resultados.put(sensorId, respostas.get(sensorId));
+        }
+        return resultados;
+    }
+
+    @Override
+    public String getSensorStatus(String sensorId) throws RemoteException {
+        return shardFor(sensorId).no.getSensorStatus(sensorId);
+    }
+
+    @Override
+    public boolean heartbeat(String sensorId) throws RemoteException {
+        return shardFor(sensorId).no.heartbeat(sensorId);
+    }
+
+    @Override
+    public int heartbeats(List<String> sensorIds) throws RemoteException {
+        Map<Shard, List<String>> porShard = new LinkedHashMap<>();
+        for (String sensorId : sensorIds) {
+            porShard.computeIfAbsent(shardFor(sensorId), shard -> new ArrayList<>()).add(sensorId);
+        }
+        int conhecidos = 0;
+        for (int parte : fanOut(new ArrayList<>(porShard.keySet()), shard -> shard.no.heartbeats(porShard.get(shard)))) {
+            conhecidos += parte;
+        }
+        return conhecidos;
+    }
+
+    @Override
+    public Map<String, String> getAllSensorStatus() throws RemoteException {
+        List<Map<String, String>> partes = fanOut(shards, shard -> shard.no.getAllSensorStatus());
+        int total = 0;
+        for (Map<String, String> parte : partes) {
+            total += parte.size();
+        }
+        Map<String, String> todos = new HashMap<>(total * 2);
+        for (int i = 0; i < partes.size(); i++) {
+            copyOwned(shards.get(i), partes.get(i), todos);
+        }
+        return todos;
+    }
+
+    private void copyOwned(Shard shard, Map<String, String> parte, Map<String, String> destino) {
+        for (Map.Entry<String, String> sensor : parte.entrySet()) {
+            if (owns(shard, sensor.getKey())) {
+                destino.put(sensor.getKey(), sensor.getValue());
+            }
+        }
+    }
+
+    @Override
+    public SensorStatusSnapshot getSensorStatusSnapshot() throws RemoteException {
+        List<SensorStatusSnapshot> partes = fanOut(shards, shard -> shard.no.getSensorStatusSnapshot());
+        int total = 0;
+        for (SensorStatusSnapshot parte : partes) {
+            total += parte.size();
+        }
+        SensorStatusSnapshot.Builder todos = new SensorStatusSnapshot.Builder(total);
+        for (int i = 0; i < partes.size(); i++) {
+            SensorStatusSnapshot parte = partes.get(i);
+            for (int j = 0; j < parte.size(); j++) {
+                if (owns(shards.get(i), parte.getSensorId(j))) {
+                    todos.add(parte.getSensorId(j), parte.getState(j));
+                }
+            }
+        }
+        return todos.build();
+    }
+
+    // As versões são do roteador: cada nó tem as suas, então as mudanças dos nós são trazidas
+    // para o histórico local antes de responder
+    @Override
+    public SensorChanges getChangesSince(long version) throws RemoteException {
+        fanOut(shards, shard -> {
+            shard.sync();
+            return null;
+        });
+        return historico.changesSince(version, this::mergedView);
+    }
+
+    // Os nós são sincronizados antes de a versão ser lida, e os snapshots deles são tirados
+    // depois: o estado combinado nunca é mais antigo que a versão informada
+    @Override
+    public DashboardSnapshot getDashboardSnapshot() throws RemoteException {
+        fanOut(shards, shard -> {
+            shard.sync();
+            return null;
+        });
+        long versao = historico.currentVersion();
+        List<DashboardSnapshot> partes = fanOut(shards, shard -> shard.no.getDashboardSnapshot());
+        boolean ativo = false;
+        boolean trancado = false;
+        long eventos = 0;
+        int total = 0;
+        for (DashboardSnapshot parte : partes) {
+            ativo |= parte.isAlarmActive();
+            trancado |= parte.isAlarmLocked();
+            eventos += parte.getLogCount();
+            total += parte.getSensorCount();
+        }
+        Map<String, String> sensores = new HashMap<>(total * 2);
+        for (int i = 0; i < partes.size(); i++) {
+            copyOwned(shards.get(i), partes.get(i).getSensors(), sensores);
+        }
+        // Recalculada sobre as cópias dos donos: a de outro nó pode estar parada em outro estado
+        boolean violacao = sensores.containsValue(SensorState.ALERTA_TRANCADO.name());
+        return new DashboardSnapshot(versao, ativo, trancado, violacao, eventos, sensores);
+    }
+
+    // Eventos externos não têm sensor; ficam registrados no primeiro nó
+    @Override
+    public void registerEvent(String event) throws RemoteException {
+        shards.get(0).no.registerEvent(event);
+    }
+
+    @Override
+    public List<String> getLogEvents(int limit) throws RemoteException {
+        List<LogEvent> eventos = mergedLogEvents(Long.MAX_VALUE, limit);
+        List<String> linhas = new ArrayList<>(eventos.size());
+        for (LogEvent evento : eventos) {
+            linhas.add(evento.toString());
+        }
+        return linhas;
+    }
+
+    @Override
+    public List<LogEvent> getLogEventsBefore(long sequence, int limit) throws RemoteException {
+        return mergedLogEvents(sequence, limit);
+    }
+
+    @Override
+    public LogPage getLogPage(long sequence, int limit) throws RemoteException {
+        return new LogPage(mergedLogEvents(sequence, limit));
+    }
+
+    // Os eventos de um sensor ficam no nó dele; as demais buscas vão a todos os nós
+    @Override
+    public LogPage searchLogEvents(EventQuery query, long sequence, int limit) throws RemoteException {
+        List<Shard> alvos = query.getSensorId() != null ? List.of(shardFor(query.getSensorId())) : shards;
+        return new LogPage(mergedLogEvents(alvos, sequence, limit,
+                (shard, posicao) -> shard.no.searchLogEvents(query, posicao, limit)));
+    }
+
+    @Override
+    public long getLogEventCount() throws RemoteException {
+        long total = 0;
+        for (long parte : fanOut(shards, shard -> shard.no.getLogEventCount())) {
+            total += parte;
+        }
+        return total;
+    }
+
+    @Override
+    public String resetSensorAlarm(String sensorId) throws RemoteException {
+        return shardFor(sensorId).no.resetSensorAlarm(sensorId);
+    }
+
+    @Override
+    public String addSensor(String sensorId) throws RemoteException {
+        return shardFor(sensorId).no.addSensor(sensorId);
+    }
+
+    @Override
+    public String removeSensor(String sensorId) throws RemoteException {
+        return shardFor(sensorId).no.removeSensor(sensorId);
+    }
+
+    // As zonas existem em todos os nós, cada um com os contadores dos próprios sensores; a
+    // situação de uma zona é a soma das partes
+
+    @Override
+    public String addZone(String zoneId, String parentZoneId) throws RemoteException {
+        return perShard(fanOut(shards, shard -> shard.no.addZone(zoneId, parentZoneId)));
+    }
+
+    @Override
+    public String removeZone(String zoneId) throws RemoteException {
+        return perShard(fanOut(shards, shard -> shard.no.removeZone(zoneId)));
+    }
+
+    @Override
+    public String setSensorZone(String sensorId, String zoneId) throws RemoteException {
+        return shardFor(sensorId).no.setSensorZone(sensorId, zoneId);
+    }
+
+    @Override
+    public String setZoneAlarmStatus(String zoneId, boolean status) throws RemoteException {
+        return perShard(fanOut(shards, shard -> shard.no.setZoneAlarmStatus(zoneId, status)));
+    }
+
+    @Override
+    public String resetZoneAlarm(String zoneId) throws RemoteException {
+        return perShard(fanOut(shards, shard -> shard.no.resetZoneAlarm(zoneId)));
+    }
+
+    @Override
+    public ZoneStatus getZoneStatus(String zoneId) throws RemoteException {
+        ZoneStatus total = null;
+        for (ZoneStatus parte : fanOut(shards, shard -> shard.no.getZoneStatus(zoneId))) {
+            if (parte != null) {
+                total = total == null ? parte : total.merge(parte);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public List<ZoneStatus> getZoneStatuses() throws RemoteException {
+        Map<String, ZoneStatus> porZona = new LinkedHashMap<>();
+        for (List<ZoneStatus> parte : fanOut(shards, shard -> shard.no.getZoneStatuses())) {
+            for (ZoneStatus zona : parte) {
+                porZona.merge(zona.getZoneId(), zona, ZoneStatus::merge);
+            }
+        }
+        return new ArrayList<>(porZona.values());
+    }
+
+    @Override
+    public Map<String, String> getSensorZones() throws RemoteException {
+        List<Map<String, String>> partes = fanOut(shards, shard -> shard.no.getSensorZones());
+        Map<String, String> todas = new HashMap<>();
+        for (int i = 0; i < partes.size(); i++) {
+            copyOwned(shards.get(i), partes.get(i), todas);
+        }
+        return todas;
+    }
+
+    @Override
+    public boolean registerListener(SecuritySystemListener listener) throws RemoteException {
+        return notifier.register(listener);
+    }
+
+    @Override
+    public boolean unregisterListener(SecuritySystemListener listener) throws RemoteException {
+        return notifier.unregister(listener);
+    }
+
+    // Um nó e a cópia local dos seus sensores, usada para converter as mudanças do nó (inclusive
+    // snapshots completos) em mudanças versionadas do roteador
+    private final class Shard {
+        private final int indice;
+        private final String nome;
+        private final SecuritySystem no;
+        // Só os sensores que o anel atribui a este nó
+        private final Map<String, String> sensores = new HashMap<>();
+        private long versao = -1;
+        private volatile boolean alarmeAtivo;
+        private volatile boolean alarmeTrancado;
+        private ClientChangeListener listener;
+
+        private Shard(int indice, String nome, SecuritySystem no) {
+            this.indice = indice;
+            this.nome = nome;
+            this.no = no;
+        }
+
+        private synchronized void subscribe() throws RemoteException {
+            if (listener == null) {
+                listener = new ClientChangeListener(this::onChanges);
+                DashboardSnapshot estado = no.getDashboardSnapshot();
+                alarmeAtivo = estado.isAlarmActive();
+                alarmeTrancado = estado.isAlarmLocked();
+            }
+            no.registerListener(listener);
+        }
+
+        private synchronized void unsubscribe() {
+            if (listener == null) {
+                return;
+            }
+            try {
+                no.unregisterListener(listener);
+            } catch (RemoteException e) {
+                // O nó já caiu; nada a cancelar
+            }
+            try {
+                UnicastRemoteObject.unexportObject(listener, true);
+            } catch (RemoteException e) {
+                // Já não estava exportado
+            }
+            listener = null;
+        }
+
+        // Push do nó: o alarme é repassado direto; mudanças de sensores disparam um sync, que
+        // também recupera o que tiver ficado para trás
+        private void onChanges(List<StateChange> changes) {
+            boolean sensoresMudaram = false;
+            for (StateChange change : changes) {
+                if (change.getType() == StateChange.Type.ALARM) {
+                    alarmeAtivo = change.isAlarmActive();
+                    alarmeTrancado = change.isAlarmLocked();
+                    publishAlarm();
+                } else if (change.getType() == StateChange.Type.SENSOR_UPDATED
+                        || change.getType() == StateChange.Type.SENSOR_REMOVED) {
+                    sensoresMudaram = true;
+                }
+            }
+            if (sensoresMudaram) {
+                try {
+                    sync();
+                } catch (RemoteException e) {
+                    System.err.println("[SHARD] Falha ao sincronizar o nó " + nome + ": " + e.getMessage());
+                }
+            }
+        }
+
+        private synchronized void sync() throws RemoteException {
+            SensorChanges changes = no.getChangesSince(versao);
+            if (changes.isFullSnapshot()) {
+                Iterator<String> ids = sensores.keySet().iterator();
+                while (ids.hasNext()) {
+                    String sensorId = ids.next();
+                    if (!changes.getUpdated().containsKey(sensorId)) {
+                        ids.remove();
+                        publish(StateChange.sensorRemoved(sensorId));
+                    }
+                }
+            } else {
+                for (String sensorId : changes.getRemoved()) {
+                    if (sensores.remove(sensorId) != null) {
+                        publish(StateChange.sensorRemoved(sensorId));
+                    }
+                }
+            }
+            for (Map.Entry<String, String> sensor : changes.getUpdated().entrySet()) {
+                if (!owns(this, sensor.getKey())) {
+                    continue;
+                }
+                if (!sensor.getValue().equals(sensores.put(sensor.getKey(), sensor.getValue()))) {
+                    publish(StateChange.sensorUpdated(sensor.getKey(), sensor.getValue()));
+                }
+            }
+            versao = changes.getVersion();
+        }
+
+        private synchronized void copyTo(Map<String, String> destino) {
+            destino.putAll(sensores);
+        }
+    }
+}
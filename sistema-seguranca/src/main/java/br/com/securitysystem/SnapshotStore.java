@@ -0,0 +1,270 @@
+package br.com.securitysystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Snapshots binários compactos do estado (sensores, alarme e cauda do log). O arquivo é
+// gravado em um .tmp, sincronizado e renomeado atomicamente, então um snapshot visível
+// está sempre completo; o CRC32 no final protege contra corrupção no disco.
+//
+// Formato: [int magic][short versão][long criadoEm][long segmentoJournal][int offsetJournal]
+// [byte alarmeArmado][int sensores]{[short tamanho][utf8 id][byte estado]}
+// [int eventos]{[long seq][long ts][byte tipo][short tamanho][utf8 sensor][short tamanho][utf8 msg]}
+// [int zonas]{[short tamanho][utf8 id][short tamanho][utf8 pai][byte armada][int membros]{[short tamanho][utf8 sensor]}}
+// [int crc32]
+// A versão 1 não tinha a seção de zonas e continua sendo lida; nela o byte do alarme era o de
+// ativo, que sem zonas só é verdadeiro com o alarme armado.
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x53534E50;
+    private static final short FORMAT_VERSION = 2;
+    private static final short FORMAT_VERSION_SEM_ZONAS = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final int SNAPSHOTS_TO_KEEP = 2;
+
+    static final class Snapshot {
+        final long createdAt;
+        final EventJournal.Position journalPosition;
+        final boolean alarmArmed;
+        final String[] sensorIds;
+        final byte[] sensorStates;
+        final List<LogEvent> events;
+        // Zonas-pai antes das filhas
+        final List<ZoneEntry> zones;
+
+        private Snapshot(long createdAt, EventJournal.Position journalPosition, boolean alarmArmed,
+                String[] sensorIds, byte[] sensorStates, List<LogEvent> events, List<ZoneEntry> zones) {
+            this.createdAt = createdAt;
+            this.journalPosition = journalPosition;
+            this.alarmArmed = alarmArmed;
+            this.sensorIds = sensorIds;
+            this.sensorStates = sensorStates;
+            this.events = events;
+            this.zones = zones;
+        }
+    }
+
+    static final class ZoneEntry {
+        final String zoneId;
+        final String parentZoneId;
+        final boolean armed;
+        final String[] sensorIds;
+
+        private ZoneEntry(String zoneId, String parentZoneId, boolean armed, String[] sensorIds) {
+            this.zoneId = zoneId;
+            this.parentZoneId = parentZoneId;
+            this.armed = armed;
+            this.sensorIds = sensorIds;
+        }
+    }
+
+    private final Path diretorio;
+
+    public SnapshotStore(Path diretorio) throws IOException {
+        this.diretorio = diretorio;
+        Files.createDirectories(diretorio);
+    }
+
+    // -Dsnapshot.dir=data/snapshots
+    public static SnapshotStore fromSystemProperties() throws IOException {
+        return new SnapshotStore(Path.of(System.getProperty("snapshot.dir", "data/snapshots")));
+    }
+
+    // Não bloqueia quem altera o estado: lê o registro e o log sem locks. O que mudar durante
+    // a leitura está no journal depois da posição gravada e é reaplicado na recuperação.
+    Path write(EventJournal.Position journalPosition, AlarmState alarme, SensorRegistry sensores,
+            List<LogEvent> eventos, ZoneRegistry zonas) throws IOException {
+        ByteArrayOutputStream corpoSensores = new ByteArrayOutputStream(Math.max(64, sensores.size() * 24));
+        DataOutputStream saidaSensores = new DataOutputStream(corpoSensores);
+        int[] total = { 0 };
+        IOException[] erro = { null };
+        sensores.forEach((sensorId, state) -> {
+            try {
+                writeString(saidaSensores, sensorId);
+                saidaSensores.writeByte(state.ordinal());
+                total[0]++;
+            } catch (IOException e) {
+                erro[0] = e;
+            }
+        });
+        if (erro[0] != null) {
+            throw erro[0];
+        }
+
+        long criadoEm = System.currentTimeMillis();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(corpoSensores.size() + eventos.size() * 96 + 64);
+        DataOutputStream saida = new DataOutputStream(bytes);
+        saida.writeInt(MAGIC);
+        saida.writeShort(FORMAT_VERSION);
+        saida.writeLong(criadoEm);
+        saida.writeLong(journalPosition != null ? journalPosition.segment : -1);
+        saida.writeInt(journalPosition != null ? journalPosition.offset : 0);
+        saida.writeBoolean(alarme.isArmed());
+        saida.writeInt(total[0]);
+        corpoSensores.writeTo(saida);
+        saida.writeInt(eventos.size());
+        for (LogEvent evento : eventos) {
+            saida.writeLong(evento.getSequence());
+            saida.writeLong(evento.getTimestamp());
+            saida.writeByte(evento.getType().ordinal());
+            writeString(saida, evento.getSensorId());
+            writeString(saida, evento.getMessage());
+        }
+        List<ZoneRegistry.Zone> todasAsZonas = new ArrayList<>(zonas.size());
+        zonas.forEachTopDown(todasAsZonas::add);
+        saida.writeInt(todasAsZonas.size());
+        for (ZoneRegistry.Zone zona : todasAsZonas) {
+            writeString(saida, zona.id);
+            writeString(saida, zona.pai != null ? zona.pai.id : null);
+            saida.writeBoolean(zona.armada);
+            String[] membros = zona.membros.toArray(new String[0]);
+            saida.writeInt(membros.length);
+            for (String membro : membros) {
+                writeString(saida, membro);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        saida.writeInt((int) crc.getValue());
+
+        Path destino = diretorio.resolve(String.format("%s%015d%s", PREFIX, criadoEm, SUFFIX));
+        Path temporario = diretorio.resolve(destino.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer conteudo = ByteBuffer.wrap(bytes.toByteArray());
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        deleteOlderSnapshots();
+        return destino;
+    }
+
+    // Carrega o snapshot válido mais recente; arquivos corrompidos são ignorados
+    Snapshot loadLatest() throws IOException {
+        List<Path> arquivos = listSnapshots();
+        for (int i = arquivos.size() - 1; i >= 0; i--) {
+            Snapshot snapshot = read(arquivos.get(i));
+            if (snapshot != null) {
+                return snapshot;
+            }
+            System.err.println("[SNAPSHOT] Ignorando snapshot inválido: " + arquivos.get(i).getFileName());
+        }
+        return null;
+    }
+
+    private Snapshot read(Path arquivo) throws IOException {
+        byte[] conteudo = Files.readAllBytes(arquivo);
+        if (conteudo.length < 4) {
+            return null;
+        }
+        ByteBuffer dados = ByteBuffer.wrap(conteudo);
+        CRC32 crc = new CRC32();
+        crc.update(conteudo, 0, conteudo.length - 4);
+        if ((int) crc.getValue() != dados.getInt(conteudo.length - 4)) {
+            return null;
+        }
+        dados.limit(conteudo.length - 4);
+        try {
+            if (dados.getInt() != MAGIC) {
+                return null;
+            }
+            short versao = dados.getShort();
+            if (versao != FORMAT_VERSION && versao != FORMAT_VERSION_SEM_ZONAS) {
+                return null;
+            }
+            long criadoEm = dados.getLong();
+            long segmento = dados.getLong();
+            int offset = dados.getInt();
+            boolean alarmeArmado = dados.get() != 0;
+            int totalSensores = dados.getInt();
+            String[] ids = new String[totalSensores];
+            byte[] estados = new byte[totalSensores];
+            for (int i = 0; i < totalSensores; i++) {
+                ids[i] = readString(dados);
+                estados[i] = dados.get();
+            }
+            int totalEventos = dados.getInt();
+            List<LogEvent> eventos = new ArrayList<>(totalEventos);
+            for (int i = 0; i < totalEventos; i++) {
+                long sequencia = dados.getLong();
+                long timestamp = dados.getLong();
+                EventType tipo = EventType.values()[dados.get()];
+                String sensorId = readString(dados);
+                eventos.add(new LogEvent(sequencia, timestamp, tipo, sensorId, readString(dados)));
+            }
+            List<ZoneEntry> zonas = new ArrayList<>();
+            if (versao != FORMAT_VERSION_SEM_ZONAS) {
+                int totalZonas = dados.getInt();
+                for (int i = 0; i < totalZonas; i++) {
+                    String zoneId = readString(dados);
+                    String pai = readString(dados);
+                    boolean armada = dados.get() != 0;
+                    String[] membros = new String[dados.getInt()];
+                    for (int j = 0; j < membros.length; j++) {
+                        membros[j] = readString(dados);
+                    }
+                    zonas.add(new ZoneEntry(zoneId, pai, armada, membros));
+                }
+            }
+            EventJournal.Position posicao = segmento >= 0 ? new EventJournal.Position(segmento, offset) : null;
+            return new Snapshot(criadoEm, posicao, alarmeArmado, ids, estados, eventos, zonas);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void deleteOlderSnapshots() throws IOException {
+        List<Path> arquivos = listSnapshots();
+        for (int i = 0; i < arquivos.size() - SNAPSHOTS_TO_KEEP; i++) {
+            Files.deleteIfExists(arquivos.get(i));
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> arquivos = new ArrayList<>();
+        try (Stream<Path> conteudo = Files.list(diretorio)) {
+            conteudo.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                    && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .forEach(arquivos::add);
+        }
+        return arquivos;
+    }
+
+    private static void writeString(DataOutputStream saida, String valor) throws IOException {
+        if (valor == null) {
+            saida.writeShort(-1);
+            return;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        int tamanho = Math.min(bytes.length, Short.MAX_VALUE);
+        saida.writeShort(tamanho);
+        saida.write(bytes, 0, tamanho);
+    }
+
+    private static String readString(ByteBuffer dados) {
+        short tamanho = dados.getShort();
+        if (tamanho < 0) {
+            return null;
+        }
+        String valor = new String(dados.array(), dados.position(), tamanho, StandardCharsets.UTF_8);
+        dados.position(dados.position() + tamanho);
+        return valor;
+    }
+}
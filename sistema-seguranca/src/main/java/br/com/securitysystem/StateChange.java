@@ -0,0 +1,138 @@
+package br.com.securitysystem;
+
+import java.io.Serializable;
+
+public class StateChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        SENSOR_UPDATED, SENSOR_REMOVED, ALARM, ZONE_UPDATED, ZONE_REMOVED, SENSOR_ZONE
+    }
+
+    private final long version;
+    // Momento em que o servidor versionou a mudança (ms); usado para medir o atraso da replicação
+    private final long timestamp;
+    private final Type type;
+    private final String sensorId;
+    private final String status;
+    // ZONE_UPDATED cobre a criação e o armar/desarmar da zona; SENSOR_ZONE com zoneId null tira o sensor da zona
+    private final String zoneId;
+    private final String parentZoneId;
+    private final boolean zoneArmed;
+    private final boolean alarmActive;
+    private final boolean alarmLocked;
+    // Só o alarme geral armado; ativo também inclui a trava, que uma violação de zona pode causar
+    private final boolean alarmArmed;
+
+    private StateChange(long version, long timestamp, Type type, String sensorId, String status, String zoneId,
+            String parentZoneId, boolean zoneArmed, boolean alarmActive, boolean alarmLocked, boolean alarmArmed) {
+        this.version = version;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.sensorId = sensorId;
+        this.status = status;
+        this.zoneId = zoneId;
+        this.parentZoneId = parentZoneId;
+        this.zoneArmed = zoneArmed;
+        this.alarmActive = alarmActive;
+        this.alarmLocked = alarmLocked;
+        this.alarmArmed = alarmArmed;
+    }
+
+    public static StateChange sensorUpdated(String sensorId, String status) {
+        return new StateChange(0, 0, Type.SENSOR_UPDATED, sensorId, status, null, null, false, false, false, false);
+    }
+
+    public static StateChange sensorRemoved(String sensorId) {
+        return new StateChange(0, 0, Type.SENSOR_REMOVED, sensorId, null, null, null, false, false, false, false);
+    }
+
+    // Sem a informação de armado (ex.: roteador de shards), vale a regra antiga: trava implica armado
+    public static StateChange alarm(boolean active, boolean locked) {
+        return alarm(active, locked, active);
+    }
+
+    public static StateChange alarm(boolean active, boolean locked, boolean armed) {
+        return new StateChange(0, 0, Type.ALARM, null, null, null, null, false, active, locked, armed);
+    }
+
+    public static StateChange zoneUpdated(String zoneId, String parentZoneId, boolean armed) {
+        return new StateChange(0, 0, Type.ZONE_UPDATED, null, null, zoneId, parentZoneId, armed, false, false, false);
+    }
+
+    public static StateChange zoneRemoved(String zoneId) {
+        return new StateChange(0, 0, Type.ZONE_REMOVED, null, null, zoneId, null, false, false, false, false);
+    }
+
+    public static StateChange sensorZone(String sensorId, String zoneId) {
+        return new StateChange(0, 0, Type.SENSOR_ZONE, sensorId, null, zoneId, null, false, false, false, false);
+    }
+
+    StateChange withVersion(long newVersion, long newTimestamp) {
+        return new StateChange(newVersion, newTimestamp, type, sensorId, status, zoneId, parentZoneId, zoneArmed,
+                alarmActive, alarmLocked, alarmArmed);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getSensorId() {
+        return sensorId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public String getParentZoneId() {
+        return parentZoneId;
+    }
+
+    public boolean isZoneArmed() {
+        return zoneArmed;
+    }
+
+    public boolean isAlarmActive() {
+        return alarmActive;
+    }
+
+    public boolean isAlarmLocked() {
+        return alarmLocked;
+    }
+
+    public boolean isAlarmArmed() {
+        return alarmArmed;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case SENSOR_UPDATED:
+                return "Sensor " + sensorId + " -> " + status;
+            case SENSOR_REMOVED:
+                return "Sensor " + sensorId + " removido";
+            case ZONE_UPDATED:
+                return "Zona " + zoneId + (parentZoneId != null ? " em " + parentZoneId : "") + " armada=" + zoneArmed;
+            case ZONE_REMOVED:
+                return "Zona " + zoneId + " removida";
+            case SENSOR_ZONE:
+                return "Sensor " + sensorId + " -> zona " + zoneId;
+            default:
+                return "Alarme ativo=" + alarmActive + " trancado=" + alarmLocked;
+        }
+    }
+}
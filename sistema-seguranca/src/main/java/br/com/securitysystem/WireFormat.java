@@ -0,0 +1,197 @@
+package br.com.securitysystem;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Codificação dos payloads RMI compactos. O corpo é montado num byte[] e vai para o stream de
+// uma vez: [int tamanho][bytes]. Inteiros de tamanho fixo são big-endian; varints usam 7 bits
+// por byte. Strings são UTF-8 com o tamanho em varint na frente (0 = null, n + 1 = n bytes).
+final class WireFormat {
+
+    private WireFormat() {
+    }
+
+    static void writeTo(ObjectOutput saida, Writer corpo) throws IOException {
+        saida.writeInt(corpo.posicao);
+        saida.write(corpo.dados, 0, corpo.posicao);
+    }
+
+    static Reader readFrom(ObjectInput entrada) throws IOException {
+        int tamanho = entrada.readInt();
+        if (tamanho < 0) {
+            throw new StreamCorruptedException("Tamanho de payload inválido: " + tamanho);
+        }
+        byte[] dados = new byte[tamanho];
+        entrada.readFully(dados);
+        return new Reader(dados);
+    }
+
+    static final class Writer {
+        private byte[] dados;
+        private int posicao;
+
+        Writer(int capacidade) {
+            dados = new byte[Math.max(16, capacidade)];
+        }
+
+        void writeByte(int valor) {
+            ensure(1);
+            dados[posicao++] = (byte) valor;
+        }
+
+        void writeInt(int valor) {
+            ensure(4);
+            dados[posicao++] = (byte) (valor >>> 24);
+            dados[posicao++] = (byte) (valor >>> 16);
+            dados[posicao++] = (byte) (valor >>> 8);
+            dados[posicao++] = (byte) valor;
+        }
+
+        void writeLong(long valor) {
+            writeInt((int) (valor >>> 32));
+            writeInt((int) valor);
+        }
+
+        void writeVarLong(long valor) {
+            ensure(10);
+            while ((valor & ~0x7FL) != 0) {
+                dados[posicao++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            dados[posicao++] = (byte) valor;
+        }
+
+        // IDs e mensagens quase sempre são ASCII: nesse caso os caracteres são copiados direto
+        void writeString(String valor) {
+            if (valor == null) {
+                writeVarLong(0);
+                return;
+            }
+            int tamanho = valor.length();
+            if (isAscii(valor)) {
+                writeVarLong(tamanho + 1L);
+                ensure(tamanho);
+                for (int i = 0; i < tamanho; i++) {
+                    dados[posicao++] = (byte) valor.charAt(i);
+                }
+                return;
+            }
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, dados, posicao, bytes.length);
+            posicao += bytes.length;
+        }
+
+        int size() {
+            return posicao;
+        }
+
+        // Sobrescreve um int já escrito, ex.: o tamanho de um quadro conhecido só no fim
+        void setInt(int indice, int valor) {
+            dados[indice] = (byte) (valor >>> 24);
+            dados[indice + 1] = (byte) (valor >>> 16);
+            dados[indice + 2] = (byte) (valor >>> 8);
+            dados[indice + 3] = (byte) valor;
+        }
+
+        // Reaproveita o buffer, que mantém a capacidade já alcançada
+        void clear() {
+            posicao = 0;
+        }
+
+        // Visão sem cópia do que foi escrito; só vale até a próxima escrita
+        ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(dados, 0, posicao);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(dados, posicao);
+        }
+
+        private void ensure(int extra) {
+            if (posicao + extra > dados.length) {
+                dados = Arrays.copyOf(dados, Math.max(dados.length * 2, posicao + extra));
+            }
+        }
+
+        private static boolean isAscii(String valor) {
+            for (int i = 0; i < valor.length(); i++) {
+                if (valor.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class Reader {
+        private final byte[] dados;
+        private final int fim;
+        private int posicao;
+
+        Reader(byte[] dados) {
+            this(dados, 0, dados.length);
+        }
+
+        // Lê só o trecho [inicio, fim) do array, sem copiar
+        Reader(byte[] dados, int inicio, int fim) {
+            this.dados = dados;
+            this.posicao = inicio;
+            this.fim = fim;
+        }
+
+        int readByte() throws IOException {
+            require(1);
+            return dados[posicao++];
+        }
+
+        int readInt() throws IOException {
+            require(4);
+            int valor = ((dados[posicao] & 0xFF) << 24) | ((dados[posicao + 1] & 0xFF) << 16)
+                    | ((dados[posicao + 2] & 0xFF) << 8) | (dados[posicao + 3] & 0xFF);
+            posicao += 4;
+            return valor;
+        }
+
+        long readLong() throws IOException {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        long readVarLong() throws IOException {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+                int b = readByte();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new StreamCorruptedException("Varint malformado");
+        }
+
+        String readString() throws IOException {
+            long tamanho = readVarLong() - 1;
+            if (tamanho < 0) {
+                return null;
+            }
+            if (tamanho > fim - posicao) {
+                throw new StreamCorruptedException("String além do fim do payload");
+            }
+            String valor = new String(dados, posicao, (int) tamanho, StandardCharsets.UTF_8);
+            posicao += (int) tamanho;
+            return valor;
+        }
+
+        private void require(int bytes) throws IOException {
+            if (posicao + bytes > fim) {
+                throw new StreamCorruptedException("Payload truncado");
+            }
+        }
+    }
+}
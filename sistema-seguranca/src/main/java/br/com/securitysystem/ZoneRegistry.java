@@ -0,0 +1,132 @@
+package br.com.securitysystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+// Zonas: grupos de sensores que podem se aninhar, cada um com o próprio alarme. Os contadores por
+// estado de uma zona cobrem a subárvore inteira e são mantidos pelo SensorRegistry a cada
+// transição, subindo pela cadeia de zonas-pai; consultar uma zona nunca percorre sensores.
+//
+// Mudanças de estrutura (criar, remover, associar sensores) são feitas com o lock deste objeto,
+// sempre antes do lock do sensor. A zona-pai é fixa, então a cadeia de uma zona nunca muda.
+// Percorrer a árvore não usa lock: o checkpoint do journal faz isso com o lock do journal.
+class ZoneRegistry {
+
+    static final class Zone {
+        final String id;
+        final Zone pai;
+        final AtomicIntegerArray contagemPorEstado = new AtomicIntegerArray(SensorState.values().length);
+        // Sensores ligados diretamente a esta zona
+        final Set<String> membros = ConcurrentHashMap.newKeySet();
+        private final List<Zone> filhas = new CopyOnWriteArrayList<>();
+        volatile boolean armada;
+
+        private Zone(String id, Zone pai) {
+            this.id = id;
+            this.pai = pai;
+        }
+
+        // Chamado com o lock do sensor
+        void count(SensorState estado, int delta) {
+            for (Zone zona = this; zona != null; zona = zona.pai) {
+                zona.contagemPorEstado.addAndGet(estado.ordinal(), delta);
+            }
+        }
+
+        void move(SensorState de, SensorState para) {
+            for (Zone zona = this; zona != null; zona = zona.pai) {
+                zona.contagemPorEstado.decrementAndGet(de.ordinal());
+                zona.contagemPorEstado.incrementAndGet(para.ordinal());
+            }
+        }
+
+        // Armada por ela mesma ou por alguma zona acima
+        boolean isArmed() {
+            for (Zone zona = this; zona != null; zona = zona.pai) {
+                if (zona.armada) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isLocked() {
+            return contagemPorEstado.get(SensorState.ALERTA_TRANCADO.ordinal()) > 0;
+        }
+
+        boolean hasViolation() {
+            return isLocked() || contagemPorEstado.get(SensorState.VIOLADO.ordinal()) > 0;
+        }
+
+        ZoneStatus status() {
+            int[] contagens = new int[contagemPorEstado.length()];
+            for (int i = 0; i < contagens.length; i++) {
+                contagens[i] = contagemPorEstado.get(i);
+            }
+            return new ZoneStatus(id, pai != null ? pai.id : null, armada, isArmed(), contagens);
+        }
+    }
+
+    private final Map<String, Zone> porId = new ConcurrentHashMap<>();
+    private final List<Zone> raizes = new CopyOnWriteArrayList<>();
+
+    Zone get(String zoneId) {
+        return zoneId != null ? porId.get(zoneId) : null;
+    }
+
+    int size() {
+        return porId.size();
+    }
+
+    // Retorna null se o ID já existe
+    synchronized Zone create(String zoneId, Zone pai) {
+        if (porId.containsKey(zoneId)) {
+            return null;
+        }
+        Zone zona = new Zone(zoneId, pai);
+        (pai != null ? pai.filhas : raizes).add(zona);
+        porId.put(zoneId, zona);
+        return zona;
+    }
+
+    // Só zonas vazias, sem sensores nem subzonas, podem ser removidas
+    synchronized boolean remove(Zone zona) {
+        if (porId.get(zona.id) != zona || !zona.membros.isEmpty() || !zona.filhas.isEmpty()) {
+            return false;
+        }
+        (zona.pai != null ? zona.pai.filhas : raizes).remove(zona);
+        porId.remove(zona.id);
+        return true;
+    }
+
+    boolean isLive(Zone zona) {
+        return porId.get(zona.id) == zona;
+    }
+
+    // Sensores da zona e de todas as subzonas
+    List<String> sensorsUnder(Zone zona) {
+        List<String> sensores = new ArrayList<>();
+        forEachTopDown(zona, atual -> sensores.addAll(atual.membros));
+        return sensores;
+    }
+
+    // Zonas-pai antes das filhas, na ordem de criação; usado na persistência
+    void forEachTopDown(Consumer<Zone> action) {
+        for (Zone raiz : raizes) {
+            forEachTopDown(raiz, action);
+        }
+    }
+
+    private static void forEachTopDown(Zone zona, Consumer<Zone> action) {
+        action.accept(zona);
+        for (Zone filha : zona.filhas) {
+            forEachTopDown(filha, action);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.securitysystem;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+// Situação de uma zona, incluindo os sensores de todas as subzonas. Os contadores já vêm prontos
+// do servidor: montar este objeto não depende do número de sensores.
+public final class ZoneStatus implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String zoneId;
+    private final String parentZoneId;
+    private final boolean armed;
+    private final boolean armedByHierarchy;
+    // Indexado pelo ordinal de SensorState
+    private final int[] counts;
+
+    ZoneStatus(String zoneId, String parentZoneId, boolean armed, boolean armedByHierarchy, int[] counts) {
+        this.zoneId = zoneId;
+        this.parentZoneId = parentZoneId;
+        this.armed = armed;
+        this.armedByHierarchy = armedByHierarchy;
+        this.counts = counts;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public String getParentZoneId() {
+        return parentZoneId;
+    }
+
+    // Alarme da própria zona
+    public boolean isArmed() {
+        return armed;
+    }
+
+    // Armada por ela mesma ou por alguma zona acima: uma abertura aqui dispara o alarme
+    public boolean isArmedByHierarchy() {
+        return armedByHierarchy;
+    }
+
+    // Trancada enquanto algum sensor da zona estiver em ALERTA_TRANCADO
+    public boolean isLocked() {
+        return getCount(SensorState.ALERTA_TRANCADO) > 0;
+    }
+
+    public boolean hasViolation() {
+        return isLocked() || getCount(SensorState.VIOLADO) > 0;
+    }
+
+    public int getCount(SensorState state) {
+        return state.ordinal() < counts.length ? counts[state.ordinal()] : 0;
+    }
+
+    public int getSensorCount() {
+        int total = 0;
+        for (int contagem : counts) {
+            total += contagem;
+        }
+        return total;
+    }
+
+    // Soma de partes da mesma zona vindas de nós diferentes (modo shard)
+    ZoneStatus merge(ZoneStatus outra) {
+        int[] soma = Arrays.copyOf(counts, Math.max(counts.length, outra.counts.length));
+        for (int i = 0; i < outra.counts.length; i++) {
+            soma[i] += outra.counts[i];
+        }
+        return new ZoneStatus(zoneId, parentZoneId, armed || outra.armed,
+                armedByHierarchy || outra.armedByHierarchy, soma);
+    }
+
+    @Override
+    public String toString() {
+        return "Zona " + zoneId + (armed ? " ATIVADA" : armedByHierarchy ? " ATIVADA (zona acima)" : " DESATIVADA")
+                + (isLocked() ? ", TRANCADA" : "") + ": " + getSensorCount() + " sensores, "
+                + getCount(SensorState.ABERTO) + " abertos, "
+                + (getCount(SensorState.ALERTA_TRANCADO) + getCount(SensorState.VIOLADO)) + " em alerta";
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.server.UnicastRemoteObject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BinaryProtocolServerTest {
+
+    private static final int FECHADO = SensorState.FECHADO.ordinal();
+    private static final int ABERTO = SensorState.ABERTO.ordinal();
+
+    private SecuritySystemImpl sistema;
+    private BinaryProtocolServer servidor;
+    private BinaryProtocolClient cliente;
+
+    @BeforeEach
+    void start() throws Exception {
+        System.setProperty("debounce.rate", "0");
+        sistema = new SecuritySystemImpl();
+        for (int i = 0; i < 100; i++) {
+            sistema.addSensor("s" + i);
+        }
+        servidor = new BinaryProtocolServer(sistema, 0, 2);
+        servidor.start();
+        cliente = new BinaryProtocolClient("localhost", servidor.getPort());
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        cliente.close();
+        servidor.close();
+        UnicastRemoteObject.unexportObject(sistema, true);
+        sistema.close();
+        System.clearProperty("debounce.rate");
+    }
+
+    @Test
+    void setAndGetMatchRmi() throws Exception {
+        assertEquals(ABERTO, cliente.setSensorStatus("s1", true));
+        assertEquals(ABERTO, cliente.getSensorStatus("s1"));
+        assertEquals("ABERTO", sistema.getSensorStatus("s1"));
+        assertEquals(FECHADO, cliente.setSensorStatus("s1", false));
+    }
+
+    @Test
+    void unknownSensor() throws Exception {
+        assertEquals(BinaryProtocol.NO_STATE, cliente.getSensorStatus("nao-existe"));
+        assertEquals(BinaryProtocol.NO_STATE, cliente.setSensorStatus("nao-existe", true));
+        assertTrue(cliente.heartbeat("s2"));
+        assertFalse(cliente.heartbeat("nao-existe"));
+    }
+
+    @Test
+    void batchKeepsRepeatedSensorsInOrder() throws Exception {
+        int[] estados = cliente.setSensorStatuses(new String[] {"s3", "x", "s3", "s4"},
+                new boolean[] {true, true, false, true});
+        assertArrayEquals(new int[] {ABERTO, BinaryProtocol.NO_STATE, FECHADO, ABERTO}, estados);
+        assertEquals("FECHADO", sistema.getSensorStatus("s3"));
+        assertEquals("ABERTO", sistema.getSensorStatus("s4"));
+    }
+
+    @Test
+    void pipelinedRepliesComeBackInOrder() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            cliente.sendSetSensorStatus("s" + (i % 100), i % 2 == 0);
+        }
+        cliente.sendPing();
+        cliente.flush();
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 0 ? ABERTO : FECHADO, cliente.receiveState());
+        }
+        assertTrue(cliente.receiveAck());
+        assertEquals(0, cliente.pending());
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.rmi.server.UnicastRemoteObject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DebounceTest {
+
+    private SecuritySystemImpl sistema;
+
+    @BeforeEach
+    void start() throws Exception {
+        // Uma mudança livre por sensor e as seguintes agrupadas numa janela de 200 ms
+        System.setProperty("debounce.burst", "1");
+        System.setProperty("debounce.rate", "1");
+        System.setProperty("debounce.window.ms", "200");
+        sistema = new SecuritySystemImpl();
+        sistema.addSensor("X");
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        UnicastRemoteObject.unexportObject(sistema, true);
+        sistema.close();
+        System.clearProperty("debounce.burst");
+        System.clearProperty("debounce.rate");
+        System.clearProperty("debounce.window.ms");
+    }
+
+    @Test
+    void burstIsCoalescedToLastState() throws Exception {
+        sistema.setSensorStatus("X", false);
+        sistema.setSensorStatus("X", true);
+        sistema.setSensorStatus("X", false);
+        sistema.setSensorStatus("X", true);
+        waitForWindow();
+        assertEquals("ABERTO", sistema.getSensorStatus("X"));
+    }
+
+    @Test
+    void openDeferredBeforeArmingIsNotAViolation() throws Exception {
+        sistema.setSensorStatus("X", false);
+        // Aberta com o alarme desarmado, só aplicada depois de armar
+        sistema.setSensorStatus("X", true);
+        sistema.setAlarmStatus(true);
+        waitForWindow();
+
+        assertEquals("ABERTO", sistema.getSensorStatus("X"));
+        assertTrue(sistema.isAlarmArmed());
+        assertFalse(sistema.getDashboardSnapshot().isAlarmLocked());
+    }
+
+    @Test
+    void openWhileArmedLocksTheAlarm() throws Exception {
+        sistema.setAlarmStatus(true);
+        sistema.setSensorStatus("X", true);
+        assertEquals("ALERTA_TRANCADO", sistema.getSensorStatus("X"));
+        assertTrue(sistema.getDashboardSnapshot().isAlarmLocked());
+        // Fechar não destrava: só o reset
+        sistema.setSensorStatus("X", false);
+        waitForWindow();
+        assertEquals("ALERTA_TRANCADO", sistema.getSensorStatus("X"));
+    }
+
+    private static void waitForWindow() throws InterruptedException {
+        Thread.sleep(500);
+    }
+}
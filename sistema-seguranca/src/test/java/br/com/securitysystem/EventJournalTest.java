@@ -0,0 +1,152 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EventJournalTest {
+
+    private static final int SEGMENTO = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void disableDebounce() {
+        // Sem debounce, cada escrita vai direto para o journal
+        System.setProperty("debounce.rate", "0");
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("debounce.rate");
+    }
+
+    @Test
+    void journalRestoresSensorsAlarmAndZones() throws Exception {
+        Path journalDir = dir.resolve("journal");
+        SecuritySystemImpl sistema = open(journalDir, null);
+        for (int i = 0; i < 500; i++) {
+            sistema.addSensor("S" + i);
+        }
+        sistema.addZone("casa", null);
+        sistema.setSensorZone("S1", "casa");
+        sistema.removeSensor("S499");
+        Random aleatorio = new Random(42);
+        // Bem mais que um segmento: força rolagens e checkpoints no meio
+        for (int i = 0; i < 20_000; i++) {
+            sistema.setSensorStatus("S" + aleatorio.nextInt(499), aleatorio.nextBoolean());
+        }
+        sistema.setAlarmStatus(true);
+        sistema.setSensorStatus("S2", true);
+        Map<String, String> antes = close(sistema);
+
+        SecuritySystemImpl reaberto = open(journalDir, null);
+        try {
+            assertEquals(antes, new TreeMap<>(reaberto.getAllSensorStatus()));
+            assertEquals("ALERTA_TRANCADO", reaberto.getSensorStatus("S2"));
+            assertTrue(reaberto.isAlarmArmed());
+            assertTrue(reaberto.getDashboardSnapshot().isAlarmLocked());
+            assertEquals(1, reaberto.getZoneStatus("casa").getSensorCount());
+        } finally {
+            close(reaberto);
+        }
+    }
+
+    @Test
+    void tornFirstCheckpointStillRecovers() throws Exception {
+        Path journalDir = dir.resolve("journal");
+        Files.createDirectories(journalDir);
+        // Queda antes do primeiro checkpoint terminar: o segmento existe, mas só tem zeros
+        Files.write(journalDir.resolve("journal-0000000001.seg"), new byte[4096]);
+        SecuritySystemImpl sistema = open(journalDir, null);
+        for (int i = 0; i < 100; i++) {
+            sistema.addSensor("S" + i);
+            sistema.setSensorStatus("S" + i, i % 3 == 0);
+        }
+        Map<String, String> antes = close(sistema);
+
+        SecuritySystemImpl reaberto = open(journalDir, null);
+        try {
+            assertEquals("ABERTO", antes.get("S99"));
+            assertEquals(antes, new TreeMap<>(reaberto.getAllSensorStatus()));
+        } finally {
+            close(reaberto);
+        }
+    }
+
+    @Test
+    void longMultibyteMessageIsCutAtCharacterBoundary() throws Exception {
+        Path journalDir = dir.resolve("journal");
+        SecuritySystemImpl sistema = open(journalDir, null);
+        // 3 bytes por caractere em UTF-8: o limite de 4096 bytes cai no meio de um deles
+        String mensagem = "ação-€".repeat(1000);
+        sistema.registerEvent(mensagem);
+        close(sistema);
+
+        SecuritySystemImpl reaberto = open(journalDir, null);
+        try {
+            // O evento mais novo é o da restauração
+            String lida = reaberto.getLogEvents(2).get(1);
+            assertTrue(lida.contains("Evento externo registrado: ação-€"), lida);
+            assertFalse(lida.contains("\uFFFD"), lida);
+        } finally {
+            close(reaberto);
+        }
+    }
+
+    @Test
+    void failedRollFailsTheWriteAndRecoversAfterwards() throws Exception {
+        Path journalDir = dir.resolve("journal");
+        SecuritySystemImpl sistema = open(journalDir, null);
+        sistema.addSensor("S1");
+        // Um diretório no lugar do próximo segmento faz a rolagem falhar
+        Path bloqueio;
+        try (Stream<Path> segmentos = Files.list(journalDir)) {
+            bloqueio = journalDir.resolve(String.format("journal-%010d.seg", segmentos.count() + 1));
+        }
+        Files.createDirectory(bloqueio);
+        assertThrows(UncheckedIOException.class, () -> {
+            for (int i = 0; i < 100_000; i++) {
+                sistema.setSensorStatus("S1", i % 2 == 0);
+            }
+        });
+        Files.delete(bloqueio);
+        // A próxima gravação rola o segmento e agenda um checkpoint com o estado inteiro
+        sistema.addSensor("S2");
+        Map<String, String> antes = close(sistema);
+
+        SecuritySystemImpl reaberto = open(journalDir, null);
+        try {
+            assertEquals(antes, new TreeMap<>(reaberto.getAllSensorStatus()));
+        } finally {
+            close(reaberto);
+        }
+    }
+
+    private static SecuritySystemImpl open(Path journalDir, SnapshotStore snapshots) throws Exception {
+        return new SecuritySystemImpl(new EventJournal(journalDir, SEGMENTO, 20), snapshots);
+    }
+
+    // O close ainda aplica o que o debounce segurou, então o estado é lido depois dele
+    private static Map<String, String> close(SecuritySystemImpl sistema) throws Exception {
+        sistema.close();
+        UnicastRemoteObject.unexportObject(sistema, true);
+        return new TreeMap<>(sistema.getAllSensorStatus());
+    }
+}
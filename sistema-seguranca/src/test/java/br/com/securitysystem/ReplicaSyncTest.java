@@ -0,0 +1,111 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicaSyncTest {
+
+    private SecuritySystemImpl primario;
+    private SecuritySystemImpl standby;
+    private Registry registro;
+    private ReplicaSync replica;
+
+    @BeforeEach
+    void start() throws Exception {
+        System.setProperty("debounce.rate", "0");
+        primario = new SecuritySystemImpl();
+        standby = new SecuritySystemImpl();
+        int porta = freePort();
+        registro = LocateRegistry.createRegistry(porta);
+        registro.rebind("SecuritySystemService", primario);
+        replica = new ReplicaSync(standby, "localhost:" + porta, 3000, () -> { });
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        replica.promote();
+        for (SecuritySystemImpl sistema : List.of(primario, standby)) {
+            UnicastRemoteObject.unexportObject(sistema, true);
+            sistema.close();
+        }
+        UnicastRemoteObject.unexportObject(registro, true);
+        System.clearProperty("debounce.rate");
+    }
+
+    @Test
+    void zoneChangesArePushedToTheStandby() throws Exception {
+        replica.start();
+        waitUntil(() -> replica.isConnected());
+
+        primario.addZone("predio", null);
+        primario.addZone("andar1", "predio");
+        primario.setSensorZone("porta_apt1", "andar1");
+        primario.setZoneAlarmStatus("andar1", true);
+        waitUntil(() -> Boolean.TRUE.equals(armed(standby, "andar1")));
+
+        assertEquals("predio", standby.getZoneStatus("andar1").getParentZoneId());
+        assertEquals(Map.of("porta_apt1", "andar1"), standby.getSensorZones());
+
+        // Remoção: o sensor sai da zona e a zona desarmada e vazia some também no standby
+        primario.setSensorZone("porta_apt1", null);
+        primario.setZoneAlarmStatus("andar1", false);
+        primario.removeZone("andar1");
+        waitUntil(() -> standby.getZoneStatus("andar1") == null);
+        assertTrue(standby.getSensorZones().isEmpty());
+        assertEquals(1, standby.getZoneStatuses().size());
+    }
+
+    @Test
+    void fullResyncCopiesZonesMadeBeforeTheStandbyConnected() throws Exception {
+        standby.addZone("sobra", null);
+        primario.addZone("predio", null);
+        primario.addZone("andar1", "predio");
+        primario.setSensorZone("porta_fundos", "andar1");
+        primario.setZoneAlarmStatus("predio", true);
+
+        replica.start();
+        waitUntil(() -> replica.isConnected());
+
+        assertEquals(2, standby.getZoneStatuses().size());
+        assertNull(standby.getZoneStatus("sobra"));
+        assertTrue(standby.getZoneStatus("predio").isArmed());
+        assertTrue(standby.getZoneStatus("andar1").isArmedByHierarchy());
+        assertEquals(Map.of("porta_fundos", "andar1"), standby.getSensorZones());
+    }
+
+    private static Boolean armed(SecuritySystemImpl sistema, String zoneId) throws Exception {
+        ZoneStatus zona = sistema.getZoneStatus(zoneId);
+        return zona != null ? zona.isArmed() : null;
+    }
+
+    private static void waitUntil(Condition condicao) throws Exception {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicao.holds()) {
+            assertTrue(System.currentTimeMillis() < limite, "condição não atingida em 5 s");
+            Thread.sleep(20);
+        }
+    }
+
+    private interface Condition {
+        boolean holds() throws Exception;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+// Os ticks são avançados à mão; com ticks de uma hora, o relógio não anda durante o teste
+class SensorSupervisorTest {
+
+    private static final long TICK_MS = 3_600_000L;
+
+    private final List<String> expirados = new ArrayList<>();
+
+    @Test
+    void expiresAfterTimeout() {
+        SensorSupervisor supervisao = new SensorSupervisor(5 * TICK_MS, TICK_MS);
+        supervisao.heartbeat("S1");
+        supervisao.advance(4, expirados::add);
+        assertTrue(expirados.isEmpty());
+        assertFalse(supervisao.isExpired("S1"));
+
+        supervisao.advance(5, expirados::add);
+        assertEquals(List.of("S1"), expirados);
+        assertTrue(supervisao.isExpired("S1"));
+        // Expira uma vez só
+        supervisao.advance(20, expirados::add);
+        assertEquals(1, expirados.size());
+    }
+
+    @Test
+    void heartbeatAfterExpiryPutsSensorBackOnTheWheel() {
+        SensorSupervisor supervisao = new SensorSupervisor(2 * TICK_MS, TICK_MS);
+        supervisao.heartbeat("S1");
+        supervisao.advance(2, expirados::add);
+        assertTrue(supervisao.isExpired("S1"));
+
+        supervisao.heartbeat("S1");
+        assertFalse(supervisao.isExpired("S1"));
+        // O prazo renovado vem do relógio, que ainda está no tick 0: já venceu e cai no próximo tick
+        supervisao.advance(3, expirados::add);
+        assertEquals(List.of("S1", "S1"), expirados);
+    }
+
+    @Test
+    void touchOnlyRenewsSupervisedSensors() {
+        SensorSupervisor supervisao = new SensorSupervisor(TICK_MS, TICK_MS);
+        supervisao.touch("S1");
+        assertFalse(supervisao.isSupervised("S1"));
+        supervisao.heartbeat("S2");
+        assertTrue(supervisao.isSupervised("S2"));
+        assertEquals(1, supervisao.size());
+    }
+
+    @Test
+    void forgottenSensorNeverExpires() {
+        SensorSupervisor supervisao = new SensorSupervisor(3 * TICK_MS, TICK_MS);
+        supervisao.heartbeat("S1");
+        supervisao.heartbeat("S2");
+        supervisao.advance(1, expirados::add);
+        supervisao.forget("S1");
+        supervisao.advance(10, expirados::add);
+        assertEquals(List.of("S2"), expirados);
+        assertEquals(1, supervisao.size());
+    }
+
+    @Test
+    void timeoutLongerThanOneTurnOfTheWheel() {
+        // A roda tem 1024 posições: o prazo dá mais de uma volta antes de vencer
+        SensorSupervisor supervisao = new SensorSupervisor(2500 * TICK_MS, TICK_MS);
+        supervisao.heartbeat("S1");
+        supervisao.advance(2499, expirados::add);
+        assertTrue(expirados.isEmpty());
+        supervisao.advance(2500, expirados::add);
+        assertEquals(List.of("S1"), expirados);
+    }
+}
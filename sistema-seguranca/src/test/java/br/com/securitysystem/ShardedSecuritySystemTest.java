@@ -0,0 +1,92 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ShardedSecuritySystemTest {
+
+    private final List<SecuritySystemImpl> nos = new ArrayList<>();
+    private final List<Registry> registros = new ArrayList<>();
+    private final List<String> enderecos = new ArrayList<>();
+
+    @BeforeEach
+    void start() throws Exception {
+        System.setProperty("debounce.rate", "0");
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        for (SecuritySystemImpl no : nos) {
+            UnicastRemoteObject.unexportObject(no, true);
+            no.close();
+        }
+        for (Registry registro : registros) {
+            UnicastRemoteObject.unexportObject(registro, true);
+        }
+        System.clearProperty("debounce.rate");
+        System.clearProperty("shard.node");
+    }
+
+    @Test
+    void mergedViewsUseTheOwnersCopy() throws Exception {
+        // Nós sem -Dshard.node: os dois têm as portas padrão, mas só o dono recebe as mudanças
+        startNode();
+        startNode();
+        ShardedSecuritySystem roteador = new ShardedSecuritySystem(enderecos);
+        roteador.setAlarmStatus(true);
+        roteador.setSensorStatus("porta_apt1", true);
+        roteador.close();
+
+        // Em qualquer ordem de shards, a cópia parada do outro nó não esconde a violação
+        for (List<String> ordem : List.of(enderecos, List.of(enderecos.get(1), enderecos.get(0)))) {
+            ShardedSecuritySystem visao = new ShardedSecuritySystem(ordem);
+            try {
+                assertEquals("ALERTA_TRANCADO", visao.getAllSensorStatus().get("porta_apt1"));
+                assertEquals("ALERTA_TRANCADO", visao.getSensorStatusSnapshot().toMap().get("porta_apt1"));
+                DashboardSnapshot painel = visao.getDashboardSnapshot();
+                assertEquals("ALERTA_TRANCADO", painel.getSensors().get("porta_apt1"));
+                assertTrue(painel.hasViolation());
+                assertEquals(3, painel.getSensors().size());
+                assertEquals("ALERTA_TRANCADO", visao.getChangesSince(-1).getUpdated().get("porta_apt1"));
+            } finally {
+                visao.close();
+            }
+        }
+    }
+
+    @Test
+    void shardNodesStartWithoutDefaultSensors() throws Exception {
+        System.setProperty("shard.node", "true");
+        SecuritySystemImpl no = startNode();
+        assertTrue(no.getAllSensorStatus().isEmpty());
+    }
+
+    private SecuritySystemImpl startNode() throws Exception {
+        int porta = freePort();
+        SecuritySystemImpl no = new SecuritySystemImpl();
+        nos.add(no);
+        Registry registro = LocateRegistry.createRegistry(porta);
+        registros.add(registro);
+        registro.rebind("SecuritySystemService", no);
+        enderecos.add("localhost:" + porta);
+        return no;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
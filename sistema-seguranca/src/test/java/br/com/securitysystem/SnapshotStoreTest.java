@@ -0,0 +1,88 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotStoreTest {
+
+    private static final int SEGMENTO = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void disableDebounce() {
+        // Sem debounce, cada escrita vai direto para o journal
+        System.setProperty("debounce.rate", "0");
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("debounce.rate");
+    }
+
+    @Test
+    void snapshotPlusJournalTail() throws Exception {
+        Path journalDir = dir.resolve("journal");
+        SnapshotStore snapshots = new SnapshotStore(dir.resolve("snapshots"));
+        SecuritySystemImpl sistema = open(journalDir, snapshots);
+        for (int i = 0; i < 50; i++) {
+            sistema.addSensor("S" + i);
+        }
+        sistema.writeSnapshot();
+        // Depois do snapshot, só o journal sabe destas mudanças
+        sistema.setSensorStatus("S7", true);
+        sistema.removeSensor("S8");
+        sistema.addSensor("novo");
+        sistema.setAlarmStatus(true);
+        Map<String, String> antes = close(sistema);
+
+        SecuritySystemImpl reaberto = open(journalDir, new SnapshotStore(dir.resolve("snapshots")));
+        try {
+            assertEquals(antes, new TreeMap<>(reaberto.getAllSensorStatus()));
+            assertTrue(reaberto.isAlarmArmed());
+        } finally {
+            close(reaberto);
+        }
+    }
+
+    @Test
+    void snapshotAloneWhenJournalIsGone() throws Exception {
+        SecuritySystemImpl sistema = open(dir.resolve("journal"), new SnapshotStore(dir.resolve("snapshots")));
+        for (int i = 0; i < 50; i++) {
+            sistema.addSensor("S" + i);
+        }
+        sistema.setSensorStatus("S3", true);
+        Map<String, String> antes = close(sistema);
+
+        // Journal novo e vazio: o snapshot gravado no close é a única fonte
+        SecuritySystemImpl reaberto = open(dir.resolve("journal-novo"), new SnapshotStore(dir.resolve("snapshots")));
+        try {
+            assertEquals(antes, new TreeMap<>(reaberto.getAllSensorStatus()));
+            assertEquals("ABERTO", reaberto.getSensorStatus("S3"));
+        } finally {
+            close(reaberto);
+        }
+    }
+
+    private static SecuritySystemImpl open(Path journalDir, SnapshotStore snapshots) throws Exception {
+        return new SecuritySystemImpl(new EventJournal(journalDir, SEGMENTO, 20), snapshots);
+    }
+
+    // O close ainda aplica o que o debounce segurou, então o estado é lido depois dele
+    private static Map<String, String> close(SecuritySystemImpl sistema) throws Exception {
+        sistema.close();
+        UnicastRemoteObject.unexportObject(sistema, true);
+        return new TreeMap<>(sistema.getAllSensorStatus());
+    }
+}
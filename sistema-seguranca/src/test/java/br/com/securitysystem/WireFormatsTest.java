@@ -0,0 +1,89 @@
+package br.com.securitysystem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class WireFormatsTest {
+
+    @Test
+    void logPageRoundTrip() throws Exception {
+        List<LogEvent> eventos = new ArrayList<>();
+        long agora = System.currentTimeMillis();
+        // Do mais novo para o mais antigo, como as páginas saem do servidor
+        eventos.add(new LogEvent(1_000_000L, agora, EventType.VIOLATION, "porta-é", "Violação: ação"));
+        eventos.add(new LogEvent(999_990L, agora - 5, EventType.SYSTEM, null, ""));
+        eventos.add(new LogEvent(3L, agora - 86_400_000L, EventType.SUPERVISION, "S1", "sem sinal"));
+        LogPage lida = roundTrip(new LogPage(eventos));
+
+        assertEquals(3, lida.size());
+        assertEquals(3L, lida.getOldestSequence());
+        for (int i = 0; i < eventos.size(); i++) {
+            LogEvent esperado = eventos.get(i);
+            LogEvent evento = lida.getEvents().get(i);
+            assertEquals(esperado.getSequence(), evento.getSequence());
+            assertEquals(esperado.getTimestamp(), evento.getTimestamp());
+            assertEquals(esperado.getType(), evento.getType());
+            assertEquals(esperado.getSensorId(), evento.getSensorId());
+            assertEquals(esperado.getMessage(), evento.getMessage());
+        }
+        assertEquals(-1L, roundTrip(new LogPage()).getOldestSequence());
+    }
+
+    @Test
+    void sensorStatusSnapshotRoundTrip() throws Exception {
+        SensorStatusSnapshot.Builder builder = new SensorStatusSnapshot.Builder(4);
+        SensorState[] estados = SensorState.values();
+        for (int i = 0; i < 1000; i++) {
+            builder.add("sensor-" + i, estados[i % estados.length]);
+        }
+        SensorStatusSnapshot original = builder.build();
+        SensorStatusSnapshot lido = roundTrip(original);
+
+        assertEquals(1000, lido.size());
+        for (int i = 0; i < lido.size(); i++) {
+            assertEquals(original.getSensorId(i), lido.getSensorId(i));
+            assertEquals(original.getState(i), lido.getState(i));
+        }
+        assertEquals(original.toMap(), lido.toMap());
+    }
+
+    @Test
+    void dashboardSnapshotRoundTrip() throws Exception {
+        Map<String, String> sensores = new LinkedHashMap<>();
+        sensores.put("S1", "ABERTO");
+        sensores.put("S2", "ALERTA_TRANCADO");
+        sensores.put("janela-ç", "FECHADO");
+        DashboardSnapshot lido = roundTrip(new DashboardSnapshot(77, true, false, true, 12_345, sensores));
+
+        assertEquals(77, lido.getVersion());
+        assertTrue(lido.isAlarmActive());
+        assertFalse(lido.isAlarmLocked());
+        assertTrue(lido.hasViolation());
+        assertEquals(12_345, lido.getLogCount());
+        assertEquals(3, lido.getSensorCount());
+        assertEquals(sensores, lido.getSensors());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T objeto) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+            saida.writeObject(objeto);
+        }
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) entrada.readObject();
+        }
+    }
+}